@@ -0,0 +1,183 @@
+package com.example.playbox.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the versioned scripts in {@code db/migration} ({@code V<n>__<description>.sql})
+ * in order before JPA starts, recording each in {@code SchemaHistory}. Hibernate only
+ * validates the result, so every schema change ships as a new script; an applied script
+ * must never be edited, and startup fails if its checksum changed.
+ */
+@Component
+public class SchemaMigrator implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrator.class);
+
+    private static final String LOCATION = "classpath:db/migration/V*__*.sql";
+    private static final Pattern SCRIPT_NAME = Pattern.compile("V(\\d+)__(.+)\\.sql");
+
+    /**
+     * MySQL errors for a column or key that already exists. Databases built by
+     * ddl-auto: update already have what the baseline adds, so these are skipped.
+     */
+    private static final Set<Integer> ALREADY_APPLIED = Set.of(1060, 1061);
+
+    private static final String LOCK_NAME = "playbox_schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 300;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrator(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    record Script(int version, String description, String sql) {
+
+        long checksum() {
+            CRC32 crc = new CRC32();
+            crc.update(sql.getBytes(StandardCharsets.UTF_8));
+            return crc.getValue();
+        }
+    }
+
+    /**
+     * Migrates under a MySQL named lock, so instances starting together apply each script
+     * once; the lock is session-scoped, so every statement runs on the one connection.
+     */
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        List<Script> scripts = scripts();
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(connection, true));
+            Integer locked = session.queryForObject(
+                    "SELECT GET_LOCK(?, ?)", Integer.class, LOCK_NAME, LOCK_TIMEOUT_SECONDS);
+            if (locked == null || locked != 1) {
+                throw new IllegalStateException("Timed out waiting for the schema migration lock");
+            }
+            try {
+                migrate(session, scripts);
+            } finally {
+                session.queryForObject("SELECT RELEASE_LOCK(?)", Integer.class, LOCK_NAME);
+            }
+            return null;
+        });
+    }
+
+    private void migrate(JdbcTemplate session, List<Script> scripts) {
+        session.execute("""
+                CREATE TABLE IF NOT EXISTS `SchemaHistory` (
+                    `version` integer NOT NULL,
+                    `description` varchar(200) NOT NULL,
+                    `checksum` bigint NOT NULL,
+                    `installedOn` datetime(6) NOT NULL,
+                    PRIMARY KEY (`version`)
+                ) ENGINE=InnoDB
+                """);
+        Map<Integer, Long> applied = session.query(
+                "SELECT `version`, `checksum` FROM `SchemaHistory`",
+                (rs, row) -> Map.entry(rs.getInt(1), rs.getLong(2)))
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+
+        for (Script script : scripts) {
+            Long checksum = applied.get(script.version());
+            if (checksum == null) {
+                apply(session, script);
+            } else if (checksum != script.checksum()) {
+                throw new IllegalStateException("Migration V" + script.version()
+                        + " was changed after it was applied; add a new migration instead");
+            }
+        }
+    }
+
+    private void apply(JdbcTemplate session, Script script) {
+        log.info("Applying schema migration V{} {}", script.version(), script.description());
+        for (String statement : statements(script.sql())) {
+            try {
+                session.execute(statement);
+            } catch (DataAccessException ex) {
+                if (!ALREADY_APPLIED.contains(errorCode(ex))) {
+                    throw ex;
+                }
+                log.debug("Skipping statement already applied: {}", ex.getMostSpecificCause().getMessage());
+            }
+        }
+        session.update(
+                "INSERT INTO `SchemaHistory` (`version`, `description`, `checksum`, `installedOn`) VALUES (?, ?, ?, ?)",
+                script.version(), script.description(), script.checksum(), Timestamp.from(Instant.now()));
+    }
+
+    private List<Script> scripts() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(LOCATION);
+        List<Script> scripts = new ArrayList<>();
+        for (Resource resource : resources) {
+            Matcher matcher = SCRIPT_NAME.matcher(resource.getFilename());
+            if (!matcher.matches()) {
+                throw new IllegalStateException("Invalid migration name: " + resource.getFilename());
+            }
+            scripts.add(new Script(
+                    Integer.parseInt(matcher.group(1)),
+                    matcher.group(2).replace('_', ' '),
+                    resource.getContentAsString(StandardCharsets.UTF_8)));
+        }
+        scripts.sort(Comparator.comparingInt(Script::version));
+        for (int i = 1; i < scripts.size(); i++) {
+            if (scripts.get(i).version() == scripts.get(i - 1).version()) {
+                throw new IllegalStateException("Duplicate migration version V" + scripts.get(i).version());
+            }
+        }
+        return scripts;
+    }
+
+    /** Statements of a script: split where a line ends with ';', with "--" comment lines dropped. */
+    static List<String> statements(String sql) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : sql.split("\\R")) {
+            String trimmed = line.strip();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String statement = current.toString().strip();
+                statements.add(statement.substring(0, statement.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().strip());
+        }
+        return statements;
+    }
+
+    private static int errorCode(DataAccessException ex) {
+        return ex.getMostSpecificCause() instanceof SQLException sql ? sql.getErrorCode() : -1;
+    }
+}
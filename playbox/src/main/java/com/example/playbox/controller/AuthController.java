@@ -12,7 +12,10 @@ import com.example.playbox.model.OtpVerification;
 import com.example.playbox.model.PlayBoxUser;
 import com.example.playbox.repository.OtpRepository;
 import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.service.CardUidCache;
 import com.example.playbox.service.TwilioSmsService;
+import com.example.playbox.service.UserSearchService;
+import com.example.playbox.service.UserStatsSnapshotService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -24,6 +27,9 @@ public class AuthController {
     private final PlayBoxUserRepository userRepository;
     private final OtpRepository otpRepository;
     private final TwilioSmsService twilioSmsService;
+    private final UserStatsSnapshotService statsSnapshotService;
+    private final UserSearchService userSearchService;
+    private final CardUidCache cardUidCache;
 
     // =========================
     // STEP 1 - SEND OTP
@@ -43,7 +49,7 @@ public class AuthController {
         record.setPhone(phone);
         record.setOtp(otp);
         record.setVerified(false);
-        record.setCreatedAt(java.time.Instant.now().toString());
+        record.setCreatedAt(java.time.Instant.now());
 
         otpRepository.save(record);
         try {
@@ -91,8 +97,10 @@ public class AuthController {
         if (user != null) {
             // Safety: clear legacy auto-generated placeholder card ids from old builds.
             if (isLegacyAutoCard(user.getCardUid())) {
+                String legacyCardUid = user.getCardUid();
                 user.setCardUid(null);
                 user = userRepository.save(user);
+                cardUidCache.invalidate(legacyCardUid);
             }
             return user; // LOGIN
         }
@@ -110,9 +118,12 @@ public class AuthController {
         // New player account starts without RFID card; admin assigns it later.
         newUser.setCardUid(null);
 
-        newUser.setCreatedAt(java.time.Instant.now().toString());
+        newUser.setCreatedAt(java.time.Instant.now());
 
-        return userRepository.save(newUser);
+        PlayBoxUser savedUser = userRepository.save(newUser);
+        statsSnapshotService.recordUserCreated(savedUser);
+        userSearchService.index(savedUser);
+        return savedUser;
     }
 
     private boolean isLegacyAutoCard(String cardUid) {
@@ -3,6 +3,8 @@ package com.example.playbox.controller;
 import java.util.List;
 import java.util.Map;
 
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -16,9 +18,16 @@ import org.springframework.http.HttpStatus;
 
 import com.example.playbox.dto.AdminSportDayOverviewDTO;
 import com.example.playbox.dto.AdminManualBookingRequest;
+import com.example.playbox.dto.BatchBookingRequest;
+import com.example.playbox.dto.BatchBookingResponse;
+import com.example.playbox.dto.BookingHistoryResponse;
 import com.example.playbox.dto.BookingRequest;
+import com.example.playbox.dto.WeeklyGridDTO;
+import com.example.playbox.exception.AdmissionRejectedException;
+import com.example.playbox.exception.SlotUnavailableException;
 import com.example.playbox.model.Booking;
-import com.example.playbox.repository.BookingRepository;
+import com.example.playbox.service.BatchBookingService;
+import com.example.playbox.service.BookingAdmissionService;
 import com.example.playbox.service.BookingService;
 import com.example.playbox.service.SlotService;
 
@@ -30,15 +39,23 @@ import lombok.RequiredArgsConstructor;
 public class BookingController {
 
     private final BookingService bookingService;
-    private final BookingRepository bookingRepository;
+    private final BatchBookingService batchBookingService;
+    private final BookingAdmissionService admissionService;
     private final SlotService slotService;
 
+    private static final int ALTERNATIVE_SLOTS = 3;
+
     // 🔥 BOOK SLOT USING REQUEST BODY
     @PostMapping("/book")
     public ResponseEntity<?> book(@RequestBody BookingRequest request) {
 
+        boolean byTime = request.getSlotId() == null
+                && request.getSportId() != null
+                && request.getSlotDate() != null
+                && request.getStartTime() != null;
+
         if (request.getUserId() == null ||
-            request.getSlotId() == null ||
+            (request.getSlotId() == null && !byTime) ||
             request.getPaymentMode() == null) {
 
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -46,21 +63,56 @@ public class BookingController {
         }
 
         try {
-            Booking booking = bookingService.bookSlot(
-                    request.getUserId(),
-                    request.getSlotId(),
-                    request.getPaymentMode()
-            );
+            Booking booking;
+            if (!byTime) {
+                booking = admissionService.admit(request.getSlotId(), () -> bookingService.bookSlot(
+                        request.getUserId(),
+                        request.getSlotId(),
+                        request.getPaymentMode()));
+            } else if (request.getEndTime() != null) {
+                Long firstSlotId = slotService.slotIdsForRange(
+                        request.getSportId(),
+                        request.getSlotDate(),
+                        request.getStartTime(),
+                        request.getEndTime()).get(0);
+                booking = admissionService.admitRange(firstSlotId, () -> bookingService.bookRange(
+                        request.getUserId(),
+                        request.getSportId(),
+                        request.getSlotDate(),
+                        request.getStartTime(),
+                        request.getEndTime(),
+                        request.getPaymentMode()));
+            } else {
+                booking = admissionService.admitAnyCourt(
+                        request.getSportId(),
+                        request.getSlotDate(),
+                        request.getStartTime(),
+                        () -> bookingService.bookAnyCourt(
+                                request.getUserId(),
+                                request.getSportId(),
+                                request.getSlotDate(),
+                                request.getStartTime(),
+                                request.getPaymentMode()));
+            }
             return ResponseEntity.ok(booking);
+        } catch (SlotUnavailableException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "message", "Slot already booked",
+                            "alternatives", slotService.findNearestFreeSlots(ex.getSlotId(), ALTERNATIVE_SLOTS)
+                    ));
+        } catch (AdmissionRejectedException ex) {
+            return rejected(ex, request.getSlotId());
         } catch (Exception ex) {
             String msg = ex.getMessage() == null ? "" : ex.getMessage().toLowerCase();
-            if (msg.contains("already booked")
-                    || msg.contains("lock wait timeout")
-                    || msg.contains("deadlock")
-                    || msg.contains("pessimistic")) {
+            if (ex instanceof PessimisticLockingFailureException) {
                 return ResponseEntity.status(HttpStatus.CONFLICT)
                         .body(Map.of("message", "Slot already booked"));
             }
+            if (ex instanceof IllegalArgumentException || msg.startsWith("invalid")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("message", ex.getMessage()));
+            }
             if (msg.contains("insufficient balance")) {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                         .body(Map.of("message", "Your wallet balance is insufficient"));
@@ -74,6 +126,57 @@ public class BookingController {
         }
     }
 
+    // Several slots, or the same time every week, booked all-or-nothing
+    @PostMapping("/batch")
+    public ResponseEntity<?> bookBatch(@RequestBody BatchBookingRequest request) {
+        boolean weekly = request.getSportId() != null
+                && request.getSlotDate() != null
+                && request.getStartTime() != null
+                && request.getEndTime() != null
+                && request.getRepeatWeeks() != null;
+        boolean bySlots = request.getSlotIds() != null && !request.getSlotIds().isEmpty();
+
+        if (request.getUserId() == null || request.getPaymentMode() == null || bySlots == weekly) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("message", "Invalid booking request"));
+        }
+
+        try {
+            BatchBookingResponse response = bySlots
+                    ? batchBookingService.bookSlots(
+                            request.getUserId(),
+                            request.getSlotIds(),
+                            request.getPaymentMode())
+                    : batchBookingService.bookWeekly(
+                            request.getUserId(),
+                            request.getSportId(),
+                            request.getSlotDate(),
+                            request.getStartTime(),
+                            request.getEndTime(),
+                            request.getRepeatWeeks(),
+                            request.getPaymentMode());
+            return ResponseEntity.ok(response);
+        } catch (SlotUnavailableException ex) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "message", "Slot already booked",
+                            "slotId", ex.getSlotId()
+                    ));
+        } catch (RuntimeException ex) {
+            String msg = ex.getMessage() == null ? "" : ex.getMessage().toLowerCase();
+            if (msg.contains("elite card")) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(Map.of("message", "Get your Elite Card Now to reserve slots"));
+            }
+            throw ex;
+        }
+    }
+
+    @GetMapping("/admission-stats")
+    public BookingAdmissionService.AdmissionStats getAdmissionStats() {
+        return admissionService.getStats();
+    }
+
     @PostMapping("/admin/manual-book")
     public Booking adminManualBook(@RequestBody AdminManualBookingRequest request) {
         if (request.getName() == null || request.getName().isBlank()
@@ -93,8 +196,22 @@ public class BookingController {
 
     // 🔥 GET USER BOOKINGS
     @GetMapping("/user/{userId}")
-    public List<Booking> getUserBookings(@PathVariable Integer userId) {
-        return bookingRepository.findByUserId(userId);
+    public List<Booking> getUserBookings(
+            @PathVariable Integer userId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to
+    ) {
+        return bookingService.getUserBookings(userId, from, to);
+    }
+
+    // Upcoming bookings plus one page of past ones, with sport and court names
+    @GetMapping("/user/{userId}/history")
+    public BookingHistoryResponse getBookingHistory(
+            @PathVariable Integer userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return bookingService.getBookingHistory(userId, page, size);
     }
 
     @GetMapping("/admin/day-overview")
@@ -102,7 +219,36 @@ public class BookingController {
             @RequestParam Long sportId,
             @RequestParam String date
     ) {
-        slotService.generateSlotsForDate(sportId, date);
         return bookingService.getSportDayOverview(sportId, date);
     }
+
+    // Omit sportIds for every active court
+    @GetMapping("/admin/week-grid")
+    public WeeklyGridDTO getWeeklyGrid(
+            @RequestParam String from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) List<Long> sportIds
+    ) {
+        return bookingService.getWeeklyGrid(from, days, sportIds);
+    }
+
+    private ResponseEntity<?> rejected(AdmissionRejectedException ex, Long slotId) {
+        if (ex.getReason() == AdmissionRejectedException.Reason.SLOT_TAKEN) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of(
+                            "message", "Slot already booked",
+                            "alternatives", slotService.findNearestFreeSlots(slotId, ALTERNATIVE_SLOTS)
+                    ));
+        }
+        HttpStatus status = ex.getReason() == AdmissionRejectedException.Reason.QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of(
+                        "message", ex.getMessage(),
+                        "queuePosition", ex.getQueuePosition(),
+                        "retryAfterSeconds", ex.getRetryAfterSeconds()
+                ));
+    }
 }
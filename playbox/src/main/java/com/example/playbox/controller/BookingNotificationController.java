@@ -1,15 +1,19 @@
 package com.example.playbox.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.example.playbox.model.BookingNotification;
+import com.example.playbox.model.SmsOutbox;
 import com.example.playbox.service.BookingNotificationService;
+import com.example.playbox.service.SmsOutboxService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -19,6 +23,7 @@ import lombok.RequiredArgsConstructor;
 public class BookingNotificationController {
 
     private final BookingNotificationService bookingNotificationService;
+    private final SmsOutboxService smsOutboxService;
 
     @GetMapping("/bookings")
     public List<BookingNotification> getBookingNotifications() {
@@ -29,5 +34,19 @@ public class BookingNotificationController {
     public BookingNotification markBookingNotificationSeen(@PathVariable Long id) {
         return bookingNotificationService.markSeen(id);
     }
-}
 
+    @GetMapping("/sms-outbox/stats")
+    public Map<String, Long> getSmsOutboxStats() {
+        return smsOutboxService.getStatusCounts();
+    }
+
+    @GetMapping("/sms-outbox/dead")
+    public List<SmsOutbox> getDeadLetters(@RequestParam(defaultValue = "50") int limit) {
+        return smsOutboxService.getDeadLetters(Math.min(Math.max(limit, 1), 500));
+    }
+
+    @PostMapping("/sms-outbox/{id}/retry")
+    public SmsOutbox retryDeadLetter(@PathVariable Long id) {
+        return smsOutboxService.retryDeadLetter(id);
+    }
+}
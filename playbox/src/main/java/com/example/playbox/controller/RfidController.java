@@ -1,5 +1,6 @@
 package com.example.playbox.controller;
 
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -8,6 +9,7 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.playbox.dto.RfidScanRequest;
 import com.example.playbox.dto.RfidScanResponse;
 import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.service.CardUidCache;
 import com.example.playbox.service.UserServiceImpl;
 
 import lombok.RequiredArgsConstructor;
@@ -36,4 +38,9 @@ public class RfidController {
                 .balance(user.getBalance())
                 .build();
     }
+
+    @GetMapping("/cache-stats")
+    public CardUidCache.CacheStats cacheStats() {
+        return userService.getCardCacheStats();
+    }
 }
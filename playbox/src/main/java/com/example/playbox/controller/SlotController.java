@@ -1,16 +1,20 @@
 package com.example.playbox.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.playbox.dto.CourtAvailabilityDTO;
+import com.example.playbox.dto.FreeRangeDTO;
 import com.example.playbox.dto.SlotDetailsDTO;
-import com.example.playbox.model.Slot;
-import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.service.CourtService;
+import com.example.playbox.service.SlotHorizonService;
 import com.example.playbox.service.SlotService;
 
 import lombok.RequiredArgsConstructor;
@@ -21,29 +25,58 @@ import lombok.RequiredArgsConstructor;
 public class SlotController {
 
     private final SlotService slotService;
-    private final SlotRepository slotRepository;
+    private final SlotHorizonService slotHorizonService;
+    private final CourtService courtService;
 
     @GetMapping
-    public List<Slot> getSlots(
+    public List<SlotDetailsDTO> getSlots(
             @RequestParam Long sportId,
             @RequestParam String date
     ) {
-        slotService.generateSlotsForDate(sportId, date);
-        return slotService.getVisibleSlotsForDate(sportId, date);
+        return slotService.getSlotsForDate(sportId, date);
+    }
+
+    // Free courts per hour across every court of the sport
+    @GetMapping("/courts")
+    public List<CourtAvailabilityDTO> getCourtAvailability(
+            @RequestParam Long sportId,
+            @RequestParam String date
+    ) {
+        return courtService.getAvailability(sportId, date);
+    }
+
+    // Start times where a booking of durationMinutes fits, over the next days
+    @GetMapping("/free-ranges")
+    public List<FreeRangeDTO> getFreeRanges(
+            @RequestParam Long sportId,
+            @RequestParam String from,
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam int durationMinutes
+    ) {
+        return slotService.findFreeRanges(sportId, from, days, durationMinutes);
     }
 
     @GetMapping("/{slotId}")
     public SlotDetailsDTO getSlotById(@PathVariable Long slotId) {
-        Slot slot = slotRepository.findById(slotId)
-                .orElseThrow(() -> new RuntimeException("Slot not found"));
-
-        SlotDetailsDTO dto = new SlotDetailsDTO();
-        dto.setId(slot.getId());
-        dto.setSportId(slot.getSport().getId());
-        dto.setSlotDate(slot.getSlotDate());
-        dto.setStartTime(slot.getStartTime());
-        dto.setEndTime(slot.getEndTime());
-        dto.setBooked(slot.getBooked());
-        return dto;
+        return slotService.getSlotDetails(slotId);
+    }
+
+    @PostMapping("/admin/prune-unused")
+    public Map<String, Integer> pruneUnusedSlots() {
+        return Map.of("rowsDeleted", slotService.pruneUnusedSlots());
+    }
+
+    @GetMapping("/admin/horizon-stats")
+    public SlotHorizonService.HorizonStats getHorizonStats() {
+        return slotHorizonService.getStats();
+    }
+
+    @PostMapping("/admin/horizon-run")
+    public SlotHorizonService.HorizonRun runHorizon() {
+        SlotHorizonService.HorizonRun run = slotHorizonService.runHorizon();
+        if (run == null) {
+            throw new RuntimeException("Horizon run already in progress");
+        }
+        return run;
     }
 }
@@ -2,12 +2,23 @@ package com.example.playbox.controller;
 
 import java.util.List;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.playbox.model.Sport;
-import com.example.playbox.repository.SportRepository;
+import com.example.playbox.model.SportSchedule;
+import com.example.playbox.service.SlotService;
+import com.example.playbox.service.SportCatalog;
+import com.example.playbox.service.SportScheduleService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -16,10 +27,41 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class SportController {
 
-    private final SportRepository sportRepository;
+    private final SportCatalog sportCatalog;
+    private final SportScheduleService scheduleService;
+    private final SlotService slotService;
 
+    // The list only changes on an edit, so clients revalidate with If-None-Match.
+    // checkNotModified matches lists and weak validators but leaves "*" to unsafe
+    // methods; the list always exists, so "*" is not modified either.
     @GetMapping
-    public List<Sport> getAllSports() {
-        return sportRepository.findAll();
+    public ResponseEntity<List<SportCatalog.Entry>> getAllSports(WebRequest request) {
+        SportCatalog.Snapshot snapshot = sportCatalog.snapshot();
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (request.checkNotModified(snapshot.etag()) || (ifNoneMatch != null && ifNoneMatch.trim().equals("*"))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(snapshot.etag()).build();
+        }
+        return ResponseEntity.ok().eTag(snapshot.etag()).body(snapshot.sports());
+    }
+
+    @PutMapping("/{sportId}")
+    public SportCatalog.Entry updateSport(@PathVariable Long sportId, @RequestBody Sport changes) {
+        sportCatalog.update(sportId, changes);
+        return sportCatalog.get(sportId);
+    }
+
+    @PostMapping("/admin/refresh")
+    public int refreshCatalog() {
+        return sportCatalog.refresh().sports().size();
+    }
+
+    @GetMapping("/{sportId}/schedule")
+    public SportSchedule getSchedule(@PathVariable Long sportId) {
+        return scheduleService.getSchedule(sportId);
+    }
+
+    @PutMapping("/{sportId}/schedule")
+    public SportSchedule updateSchedule(@PathVariable Long sportId, @RequestBody SportSchedule schedule) {
+        return slotService.updateSchedule(sportId, schedule);
     }
 }
@@ -2,13 +2,19 @@ package com.example.playbox.controller;
 
 import java.util.List;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.playbox.dto.DailyRevenueDashboardResponse;
+import com.example.playbox.dto.PageResponse;
+import com.example.playbox.dto.TransactionFilter;
 import com.example.playbox.model.TransactionEntity;
 import com.example.playbox.service.TransactionService;
 
@@ -21,10 +27,21 @@ public class TransactionController {
 
     private final TransactionService transactionService;
 
-    // 🔹 Get all transactions
+    // 🔹 Get all transactions, streamed as a JSON array
     @GetMapping("/all")
-    public List<TransactionEntity> getAll() {
-        return transactionService.getAllTransactions();
+    public ResponseEntity<StreamingResponseBody> getAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(transactionService.streamAllTransactions());
+    }
+
+    // 🔹 Keyset page of all transactions; pass nextCursor back as afterId
+    @GetMapping(value = "/all", params = "limit")
+    public PageResponse<TransactionEntity> getAllPage(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam int limit
+    ) {
+        return transactionService.getTransactionsPage(afterId, limit);
     }
 
     // 🔹 Filtered transaction history
@@ -38,10 +55,54 @@ public class TransactionController {
         return transactionService.filter(userId, adminName, startDate, endDate);
     }
 
+    // 🔹 No filter selected: same as /all instead of loading the whole ledger into a list
+    @GetMapping(value = "/filter", params = {"!userId", "!adminName", "!startDate", "!endDate"})
+    public ResponseEntity<StreamingResponseBody> filterWithoutCriteria() {
+        return getAll();
+    }
+
+    // 🔹 Keyset search over any combination of filters; pass nextCursor back as cursor
+    @GetMapping("/search")
+    public PageResponse<TransactionEntity> search(
+            @RequestParam(required = false) Integer userId,
+            @RequestParam(required = false) String adminName,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Float minAmount,
+            @RequestParam(required = false) Float maxAmount,
+            @RequestParam(required = false) String startDate,
+            @RequestParam(required = false) String endDate,
+            @RequestParam(required = false) String text,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        TransactionFilter filter = new TransactionFilter();
+        filter.setUserId(userId);
+        filter.setAdminName(adminName);
+        filter.setType(type);
+        filter.setMinAmount(minAmount);
+        filter.setMaxAmount(maxAmount);
+        filter.setFrom(TransactionService.parseBound(startDate, false));
+        filter.setTo(TransactionService.parseBound(endDate, true));
+        filter.setText(text == null || text.isBlank() ? null : text.trim());
+        return transactionService.search(filter, cursor, limit);
+    }
+
       @GetMapping("/daily")
     public DailyRevenueDashboardResponse getDailyDashboard() {
         return transactionService.getTodayDashboard();
     }
+
+    // 🔹 Dashboard over whole IST days (yyyy-MM-dd, both inclusive), from the rollups
+    @GetMapping("/dashboard")
+    public DailyRevenueDashboardResponse getDashboard(@RequestParam String from, @RequestParam String to) {
+        return transactionService.getDashboard(from, to);
+    }
+
+    // 🔹 Recompute the rollups of a date range from the ledger
+    @PostMapping("/admin/rollup-rebuild")
+    public int rebuildRollups(@RequestParam String from, @RequestParam String to) {
+        return transactionService.rebuildRollups(from, to);
+    }
     @GetMapping("/user/{userId}")
 public List<TransactionEntity> getUserTransactions(@PathVariable Integer userId) {
     return transactionService.getByUserId(userId);
@@ -2,7 +2,10 @@ package com.example.playbox.controller;
 
 
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -11,14 +14,19 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.playbox.dto.PageResponse;
 import com.example.playbox.dto.UserDetailsDTO;
 import com.example.playbox.dto.UserStatsDTO;
 import com.example.playbox.dto.UserSummaryDTO;
 import com.example.playbox.dto.CancelCardRequest;
 import com.example.playbox.dto.AssignCardRequest;
 import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.service.UserSearchIndex;
+import com.example.playbox.service.UserSearchService;
 import com.example.playbox.service.UserServiceImpl;
+import com.example.playbox.service.UserWalletStatsService;
 
 import lombok.RequiredArgsConstructor;
 
@@ -28,6 +36,8 @@ import lombok.RequiredArgsConstructor;
 public class UserController {
 
     private final UserServiceImpl userService;
+    private final UserWalletStatsService walletStatsService;
+    private final UserSearchService userSearchService;
 
     @GetMapping("/card/{cardUid}")
     public PlayBoxUser getByCard(@PathVariable String cardUid) {
@@ -61,10 +71,22 @@ public class UserController {
     }
     
 
+    // Every user, streamed as a JSON array
     @GetMapping("/all")
-   public List<PlayBoxUser> getAllUsers() {
-    return userService.getAllUsers();
-}
+    public ResponseEntity<StreamingResponseBody> getAllUsers() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(userService.streamAllUsers());
+    }
+
+    // Keyset page of users; pass nextCursor back as afterId
+    @GetMapping(value = "/all", params = "limit")
+    public PageResponse<PlayBoxUser> getAllUsersPage(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam int limit
+    ) {
+        return userService.getUsersPage(afterId, limit);
+    }
 
 @GetMapping("/phone/{phone}")
 public PlayBoxUser getByPhone(@PathVariable String phone) {
@@ -75,6 +97,18 @@ public PlayBoxUser getByPhone(@PathVariable String phone) {
         return userService.getAllUsersSummary();
     }
 
+    /**
+     * Keyset-paginated user summaries, ordered by user id.
+     * Pass the returned nextCursor as afterId to fetch the next page.
+     */
+    @GetMapping("/summary")
+    public PageResponse<UserSummaryDTO> getUsersSummaryPage(
+            @RequestParam(required = false) Integer afterId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return userService.getUsersSummaryPage(afterId, limit);
+    }
+
     /**
      * Get user details by ID including lifetime stats
      */
@@ -91,12 +125,31 @@ public PlayBoxUser getByPhone(@PathVariable String phone) {
         return userService.getUserStats();
     }
 
+    /**
+     * Recompute per-user wallet stats from the transaction ledger
+     */
+    @PostMapping("/wallet-stats/rebuild")
+    public Map<String, Object> rebuildWalletStats() {
+        return Map.of("rowsWritten", walletStatsService.rebuild());
+    }
+
     /**
      * Search users by name, ID, phone, or email
      */
     @GetMapping("/search")
-    public List<UserSummaryDTO> searchUsers(@RequestParam String q) {
-        return userService.searchUsers(q);
+    public List<UserSummaryDTO> searchUsers(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return userService.searchUsers(q, limit);
+    }
+
+    /**
+     * Size and estimated heap footprint of the member search index
+     */
+    @GetMapping("/search/index-stats")
+    public UserSearchIndex.MemoryStats getSearchIndexStats() {
+        return userSearchService.getIndexStats();
     }
 
 @PutMapping("/update")
@@ -1,5 +1,7 @@
 package com.example.playbox.dto;
 
+import java.time.Instant;
+
 import lombok.Data;
 
 @Data
@@ -16,5 +18,5 @@ public class AdminSlotStatusDTO {
     private Float amount;
     private String status;
     private String paymentMode;
-    private String createdAt;
+    private Instant createdAt;
 }
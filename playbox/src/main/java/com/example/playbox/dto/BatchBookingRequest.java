@@ -0,0 +1,22 @@
+package com.example.playbox.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BatchBookingRequest {
+
+    private Integer userId;
+    private String paymentMode;
+
+    // Either the slots to book, e.g. three consecutive hours...
+    private List<Long> slotIds;
+
+    // ...or one court from startTime to endTime, on slotDate and the following weeks
+    private Long sportId;
+    private String slotDate;
+    private String startTime;
+    private String endTime;
+    private Integer repeatWeeks;
+}
@@ -0,0 +1,14 @@
+package com.example.playbox.dto;
+
+import java.util.List;
+
+import com.example.playbox.model.Booking;
+
+import lombok.Data;
+
+@Data
+public class BatchBookingResponse {
+    private List<Booking> bookings;
+    private Float totalAmount;
+    private Float balanceAfter;
+}
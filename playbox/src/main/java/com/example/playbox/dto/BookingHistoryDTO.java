@@ -0,0 +1,27 @@
+package com.example.playbox.dto;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Data;
+
+@Data
+public class BookingHistoryDTO {
+    private Long bookingId;
+    private Long sportId;
+    private String sportName;
+    private String courtName;
+    private Long slotId;
+    private LocalDate slotDate;
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime endTime;
+    private Float amount;
+    private String status;
+    private String paymentMode;
+    private Instant createdAt;
+}
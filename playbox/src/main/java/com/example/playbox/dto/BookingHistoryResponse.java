@@ -0,0 +1,15 @@
+package com.example.playbox.dto;
+
+import java.util.List;
+
+import lombok.Data;
+
+@Data
+public class BookingHistoryResponse {
+
+    // Today onwards, soonest first
+    private List<BookingHistoryDTO> upcoming;
+
+    // Before today, latest first
+    private PageResponse<BookingHistoryDTO> past;
+}
@@ -9,4 +9,12 @@ public class BookingRequest {
     private Integer userId;
     private Long slotId;
     private String paymentMode;
+
+    // Alternative to slotId: book this hour on any free court of the sport
+    private Long sportId;
+    private String slotDate;
+    private String startTime;
+
+    // With sportId, slotDate and startTime: book one court from startTime to endTime
+    private String endTime;
 }
@@ -0,0 +1,12 @@
+package com.example.playbox.dto;
+
+import lombok.Data;
+
+@Data
+public class CourtAvailabilityDTO {
+    private String slotDate;
+    private String startTime;
+    private String endTime;
+    private Integer totalCourts;
+    private Integer freeCourts;
+}
@@ -0,0 +1,12 @@
+package com.example.playbox.dto;
+
+import lombok.Data;
+
+@Data
+public class FreeRangeDTO {
+    private Long sportId;
+    private String slotDate;
+    private String startTime;
+    private String endTime;
+    private Integer durationMinutes;
+}
@@ -15,6 +15,9 @@ public class PageResponse<T> {
     private int totalPages;
     private boolean first;
     private boolean last;
+
+    // Keyset pages only: pass back as the cursor to fetch the next page, null on the last page
+    private String nextCursor;
     
     public static <T> PageResponse<T> of(Page<T> page) {
         PageResponse<T> response = new PageResponse<>();
@@ -27,4 +30,21 @@ public class PageResponse<T> {
         response.setLast(page.isLast());
         return response;
     }
+
+    /**
+     * Keyset (cursor) page. Totals are not counted so the page cost stays
+     * independent of table size; totalElements and totalPages are reported as -1.
+     */
+    public static <T> PageResponse<T> ofKeyset(List<T> content, int limit, boolean first, String nextCursor) {
+        PageResponse<T> response = new PageResponse<>();
+        response.setContent(content);
+        response.setPageNumber(0);
+        response.setPageSize(limit);
+        response.setTotalElements(-1);
+        response.setTotalPages(-1);
+        response.setFirst(first);
+        response.setLast(nextCursor == null);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
 }
\ No newline at end of file
@@ -10,4 +10,6 @@ public class SlotDetailsDTO {
     private String startTime;
     private String endTime;
     private Boolean booked;
+    private Integer bookedCount;
+    private Integer remaining;
 }
@@ -0,0 +1,27 @@
+package com.example.playbox.dto;
+
+import java.time.Instant;
+
+import lombok.Data;
+
+/** Criteria for ledger searches; null fields do not filter. */
+@Data
+public class TransactionFilter {
+    private Integer userId;
+    private String adminName;
+    private String type;
+    private Float minAmount;
+    private Float maxAmount;
+
+    // [from, to): from inclusive, to exclusive
+    private Instant from;
+    private Instant to;
+
+    // Case-insensitive substring of the description
+    private String text;
+
+    public boolean isEmpty() {
+        return userId == null && adminName == null && type == null && minAmount == null
+                && maxAmount == null && from == null && to == null && text == null;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.playbox.dto;
 
+import java.time.Instant;
 import java.util.List;
 
 import lombok.AllArgsConstructor;
@@ -14,7 +15,7 @@ public class UserDetailsDTO {
     private String name;
     private String phone;
     private String email;
-    private String registrationDate;
+    private Instant registrationDate;
     private String lastVisit;
     private Integer totalVisits;
     private Double totalRecharge;
@@ -1,6 +1,6 @@
 package com.example.playbox.dto;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,7 +14,7 @@ public class UserSummaryDTO {
     private String name;
     private String phone;
     private String email;
-    private LocalDateTime registrationDate;
+    private Instant registrationDate;
     private String lastVisit;
     private Integer totalVisits;
     private Double totalRecharge;
@@ -0,0 +1,55 @@
+package com.example.playbox.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.Data;
+
+/**
+ * Occupancy of several courts over several days. Bit p of a mask is the slot that
+ * starts p * slotMinutes after midnight; slots are at least 30 minutes, so a mask
+ * has at most 48 bits and is exact as a JSON number.
+ */
+@Data
+public class WeeklyGridDTO {
+
+    private String from;
+    private String to;
+    private List<CourtRow> courts;
+
+    // Bookings referenced by the cells, by booking id
+    private Map<Long, GridBooking> bookings;
+
+    @Data
+    public static class CourtRow {
+        private Long sportId;
+        private String sportName;
+        private String courtName;
+        private int slotMinutes;
+        private int capacity;
+        private List<DayCells> days;
+    }
+
+    @Data
+    public static class DayCells {
+        private String date;
+        private long openMask;
+        private long bookedMask;
+
+        // Booking id per position on single-occupancy courts; null when the day has none
+        private List<Long> bookingIds;
+
+        // Seats taken per position on shared courts, else null
+        private List<Integer> bookedCounts;
+    }
+
+    @Data
+    public static class GridBooking {
+        private Integer userId;
+        private String userName;
+        private String startTime;
+        private String endTime;
+        private Float amount;
+        private String paymentMode;
+    }
+}
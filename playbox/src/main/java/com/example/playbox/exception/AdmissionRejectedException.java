@@ -0,0 +1,37 @@
+package com.example.playbox.exception;
+
+/**
+ * Thrown when a booking request is turned away before reaching the database: the slot
+ * already has a winner, its queue is full, or the booking path is saturated.
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    public enum Reason {
+        SLOT_TAKEN,
+        QUEUE_FULL,
+        BUSY
+    }
+
+    private final Reason reason;
+    private final int queuePosition;
+    private final long retryAfterSeconds;
+
+    public AdmissionRejectedException(Reason reason, String message, int queuePosition, long retryAfterSeconds) {
+        super(message);
+        this.reason = reason;
+        this.queuePosition = queuePosition;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public int getQueuePosition() {
+        return queuePosition;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
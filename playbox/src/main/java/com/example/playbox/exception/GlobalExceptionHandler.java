@@ -45,6 +45,14 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(SlotUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleSlotUnavailable(
+            SlotUnavailableException ex,
+            HttpServletRequest request
+    ) {
+        return build(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+    }
+
     @ExceptionHandler(RuntimeException.class)
     public ResponseEntity<Map<String, Object>> handleRuntime(RuntimeException ex, HttpServletRequest request) {
         String msg = safeMessage(ex, "Request failed");
@@ -0,0 +1,30 @@
+package com.example.playbox.exception;
+
+/**
+ * Thrown when a slot is already booked or another booking holds its row lock.
+ * Carries the slot id so callers can suggest nearby free slots.
+ */
+public class SlotUnavailableException extends RuntimeException {
+
+    private final Long slotId;
+    // True when the slot's row lock was held, so the slot may still come free
+    private final boolean lockContended;
+
+    public SlotUnavailableException(Long slotId) {
+        this(slotId, false);
+    }
+
+    public SlotUnavailableException(Long slotId, boolean lockContended) {
+        super("Slot already booked");
+        this.slotId = slotId;
+        this.lockContended = lockContended;
+    }
+
+    public Long getSlotId() {
+        return slotId;
+    }
+
+    public boolean isLockContended() {
+        return lockContended;
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.playbox.model;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.example.playbox.service.IdBlock;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
 @Data
+@Table(name = "Booking")
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock("Booking")
     private Long id;
 
     private Integer userId;
@@ -20,6 +27,13 @@ public class Booking {
 
     private Long slotId;
 
+    // Booked time range; spans several slots of one court for range bookings
+    private LocalDate slotDate;
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime startTime;
+    @JsonFormat(pattern = "HH:mm")
+    private LocalTime endTime;
+
     private Float amount;
 
     private String status; // CONFIRMED / CANCELLED
@@ -28,5 +42,5 @@ public class Booking {
 
     private String remarks;
 
-    private String createdAt;
+    private Instant createdAt;
 }
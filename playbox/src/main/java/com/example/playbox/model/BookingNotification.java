@@ -1,8 +1,10 @@
 package com.example.playbox.model;
 
+import java.time.Instant;
+
+import com.example.playbox.service.IdBlock;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -13,7 +15,7 @@ import lombok.Data;
 public class BookingNotification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock("BookingNotification")
     private Long id;
 
     private Long bookingId;
@@ -27,5 +29,5 @@ public class BookingNotification {
     private String remarks;
     private String message;
     private Boolean seen;
-    private String createdAt;
+    private Instant createdAt;
 }
@@ -1,8 +1,10 @@
 package com.example.playbox.model;
 
+import java.time.Instant;
+
+import com.example.playbox.service.IdBlock;
+
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import lombok.Data;
 
@@ -11,11 +13,11 @@ import lombok.Data;
 public class OtpVerification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock("OtpVerification")
     private Long id;
 
     private String phone;
     private String otp;
-    private String createdAt;
+    private Instant createdAt;
     private Boolean verified;
 }
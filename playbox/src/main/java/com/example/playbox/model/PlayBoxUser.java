@@ -1,5 +1,7 @@
 package com.example.playbox.model;
 
+import java.time.Instant;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -33,21 +35,23 @@ public class PlayBoxUser {
     @Column(nullable = false, length = 20)
     private String phone;
 
+    // Written only by the atomic credit/debit updates in PlayBoxUserRepository
+    @Column(updatable = false)
     private Float balance;
 
     @Column(name = "created_at")
-    private String createdAt;
+    private Instant createdAt;
 
     @Column(name = "updated_at")
-    private String updatedAt;
+    private Instant updatedAt;
 
     @PrePersist
     public void prePersist() {
-        this.createdAt = java.time.Instant.now().toString();
+        this.createdAt = Instant.now();
     }
 
     @PreUpdate
     public void preUpdate() {
-        this.updatedAt = java.time.Instant.now().toString();
+        this.updatedAt = Instant.now();
     }
 }
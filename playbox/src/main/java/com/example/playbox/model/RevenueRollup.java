@@ -0,0 +1,43 @@
+package com.example.playbox.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+
+/**
+ * Ledger totals per IST day and transaction type, fed from every committed ledger write
+ * (buffered and flushed every few seconds, rebuilt nightly from the ledger) so
+ * dashboards over any date range read a few rows per day instead of scanning
+ * PlayboxTransactions. Each entry is counted once per dimension: STAFF (keyed by
+ * adminName; summed over staff it gives the day's totals) and USER (keyed by user id).
+ */
+@Entity
+@Data
+@Table(name = "RevenueRollup", uniqueConstraints = @UniqueConstraint(
+        name = "uk_rollup_dimension_date_key_type",
+        columnNames = {"dimension", "rollupDate", "dimensionKey", "type"}
+))
+public class RevenueRollup {
+
+    public static final String STAFF = "STAFF";
+    public static final String USER = "USER";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String dimension;       // STAFF / USER
+    private LocalDate rollupDate;   // IST day
+    private String dimensionKey;    // adminName ("" when none) or user id
+    private String type;            // ADD / DEDUCT / BOOKING
+    private String label;           // staff or user name as last recorded
+
+    private Long txnCount;
+    private Double amount;
+}
@@ -1,30 +1,45 @@
 package com.example.playbox.model;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import com.example.playbox.service.IdBlock;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Data;
 
 @Entity
 @Data
+@Table(name = "Slot", uniqueConstraints = @UniqueConstraint(
+        name = "uk_slot_sport_date_start",
+        columnNames = {"sportId", "slotDate", "startTime"}
+))
 public class Slot {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock("Slot")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "sportId", nullable = false)
     private Sport sport;
 
-    private String slotDate;        // 2026-02-08
-    private String startTime;       // 18:00
-    private String endTime;         // 19:00
+    private LocalDate slotDate;
+    private LocalTime startTime;
+    // Slots ending at midnight end at 00:00
+    private LocalTime endTime;
 
     private Boolean booked;
+
+    // Confirmed bookings of a shared slot (the pool); written only by SlotRepository.reserveSeat
+    @Column(updatable = false)
+    private Integer taken;
 }
 
@@ -0,0 +1,47 @@
+package com.example.playbox.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+@Entity
+@Data
+@Table(name = "SmsOutbox")
+public class SmsOutbox {
+
+    public static final String PENDING = "PENDING";
+    public static final String SENDING = "SENDING";
+    public static final String SENT = "SENT";
+    public static final String DEAD = "DEAD";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 20)
+    private String phone;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @Column(nullable = false, length = 10)
+    private String status; // PENDING / SENDING / SENT / DEAD
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    // Next retry time while PENDING; lease expiry while SENDING
+    private Instant nextAttemptAt;
+
+    @Column(length = 500)
+    private String lastError;
+
+    private Instant createdAt;
+    private Instant sentAt;
+}
@@ -0,0 +1,32 @@
+package com.example.playbox.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Schedule template of a sport: slots of {@code slotMinutes} from openTime to
+ * closeTime, each taking up to {@code capacity} bookings.
+ */
+@Entity
+@Data
+@Table(name = "SportSchedule")
+public class SportSchedule {
+
+    @Id
+    private Long sportId;
+
+    @Column(nullable = false, length = 5)
+    private String openTime;    // 08:00
+
+    @Column(nullable = false, length = 5)
+    private String closeTime;   // 22:00, or 24:00 for midnight
+
+    @Column(nullable = false)
+    private Integer slotMinutes;
+
+    @Column(nullable = false)
+    private Integer capacity;   // 1 for courts and turfs; swimmers per slot for the pool
+}
@@ -3,10 +3,10 @@ package com.example.playbox.model;
 
 import java.time.Instant;
 
+import com.example.playbox.service.IdBlock;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.Data;
@@ -17,7 +17,7 @@ import lombok.Data;
 public class TransactionEntity {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @IdBlock("PlayboxTransactions")
     private Integer id;
 
     @Column(name = "user_id", nullable = false)
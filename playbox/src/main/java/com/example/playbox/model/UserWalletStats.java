@@ -0,0 +1,27 @@
+package com.example.playbox.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Lifetime wallet totals per user, maintained alongside every ledger write
+ * so user reads are a primary-key lookup instead of a scan of PlayboxTransactions.
+ */
+@Entity
+@Data
+@Table(name = "UserWalletStats")
+public class UserWalletStats {
+
+    @Id
+    private Integer userId;
+
+    private Double totalRecharge;
+    private Double totalDeduction;
+    private Long visitCount;
+    private Instant lastVisit;
+    private Instant lastRecharge;
+}
@@ -1,12 +1,38 @@
 package com.example.playbox.repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.playbox.model.Booking;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserId(Integer userId);
     List<Booking> findBySlotIdInAndStatus(List<Long> slotIds, String status);
+
+    // Player history, both served by idx_booking_user_date
+    List<Booking> findByUserIdAndSlotDateGreaterThanEqualOrderBySlotDateAscStartTimeAsc(
+            Integer userId, LocalDate fromDate, Limit limit);
+    Page<Booking> findByUserIdAndSlotDateLessThan(Integer userId, LocalDate beforeDate, Pageable pageable);
+    List<Booking> findByUserIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+            Integer userId, LocalDate fromDate, LocalDate toDate);
+
+    // Bookings made before booked times were stored take them from their slot
+    @Modifying
+    @Query(value = """
+            UPDATE Booking b JOIN Slot s ON s.id = b.slotId
+            SET b.slotDate = s.slotDate, b.startTime = s.startTime, b.endTime = s.endTime
+            WHERE b.slotDate IS NULL
+            """, nativeQuery = true)
+    int backfillBookedTimes();
+
+    List<Booking> findBySportIdInAndSlotDateBetweenAndStatus(
+            Collection<Long> sportIds, LocalDate fromDate, LocalDate toDate, String status);
 }
@@ -1,18 +1,87 @@
 package com.example.playbox.repository;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.example.playbox.model.PlayBoxUser;
 
+import jakarta.persistence.QueryHint;
+
 public interface PlayBoxUserRepository extends JpaRepository<PlayBoxUser, Integer> {
 
     Optional<PlayBoxUser> findByCardUid(String cardUid);
     PlayBoxUser findByPhone(String phone);
 
+    // Keyset page: users after the given id, in id order
+    List<PlayBoxUser> findByIdGreaterThanOrderByIdAsc(Integer afterId, Limit limit);
+
+    // Forward-only MySQL row streaming; must be consumed inside a transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT u FROM PlayBoxUser u ORDER BY u.id")
+    Stream<PlayBoxUser> streamAll();
+
+    // [id, name, phone, email] for every user, streamed to build the search index
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE))
+    @Query("SELECT u.id, u.name, u.phone, u.email FROM PlayBoxUser u")
+    Stream<Object[]> streamSearchFields();
+
+    @Query("SELECT COALESCE(MAX(u.id), 0) FROM PlayBoxUser u")
+    Integer findMaxId();
+
+    @Query("SELECT COUNT(u), COALESCE(SUM(u.balance), 0) FROM PlayBoxUser u")
+    List<Object[]> countUsersAndBalance();
+
+    @Query("SELECT COUNT(u) FROM PlayBoxUser u WHERE u.createdAt >= :start AND u.createdAt < :end")
+    long countCreatedBetween(@Param("start") Instant start, @Param("end") Instant end);
+
+    // Wallet changes are single conditional UPDATEs; the row lock they take is held
+    // until commit, so the balance read back afterwards is exactly the one written.
+    @Modifying
+    @Query(value = """
+            UPDATE PlayBoxUser
+            SET balance = COALESCE(balance, 0) + :amount, updated_at = :updatedAt
+            WHERE id = :id
+            """, nativeQuery = true)
+    int creditBalance(@Param("id") Integer id, @Param("amount") float amount, @Param("updatedAt") Instant updatedAt);
+
+    // Compared at paise precision so a FLOAT balance equal to the amount is not rejected
+    @Modifying
+    @Query(value = """
+            UPDATE PlayBoxUser
+            SET balance = COALESCE(balance, 0) - :amount, updated_at = :updatedAt
+            WHERE id = :id AND ROUND(COALESCE(balance, 0), 2) >= ROUND(:amount, 2)
+            """, nativeQuery = true)
+    int debitBalance(@Param("id") Integer id, @Param("amount") float amount, @Param("updatedAt") Instant updatedAt);
+
+    @Query("SELECT COALESCE(u.balance, 0) FROM PlayBoxUser u WHERE u.id = :id")
+    Float findBalanceById(@Param("id") Integer id);
+
+    /** Adds to the wallet; returns the new balance, or empty if the user does not exist. */
+    default Optional<Float> credit(Integer id, float amount) {
+        if (creditBalance(id, amount, Instant.now()) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(findBalanceById(id));
+    }
+
+    /** Takes from the wallet; returns the new balance, or empty if the balance is too low. */
+    default Optional<Float> debit(Integer id, float amount) {
+        if (debitBalance(id, amount, Instant.now()) == 0) {
+            return Optional.empty();
+        }
+        return Optional.of(findBalanceById(id));
+    }
+
      @Query("SELECT u FROM PlayBoxUser u WHERE " +
            "LOWER(u.name) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
            "CAST(u.id AS string) LIKE CONCAT('%', :query, '%') OR " +
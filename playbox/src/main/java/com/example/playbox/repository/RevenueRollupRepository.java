@@ -0,0 +1,85 @@
+package com.example.playbox.repository;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.playbox.model.RevenueRollup;
+
+public interface RevenueRollupRepository extends JpaRepository<RevenueRollup, Long> {
+
+    // Adds buffered ledger totals to one rollup row, creating it on first use
+    @Modifying
+    @Query(value = """
+        INSERT INTO RevenueRollup (dimension, rollupDate, dimensionKey, type, label, txnCount, amount)
+        VALUES (:dimension, :day, :dimensionKey, :type, :label, :txnCount, :amount)
+        ON DUPLICATE KEY UPDATE
+            txnCount = txnCount + VALUES(txnCount),
+            amount = amount + VALUES(amount),
+            label = COALESCE(VALUES(label), label)
+    """, nativeQuery = true)
+    int addTotals(
+            @Param("dimension") String dimension,
+            @Param("day") LocalDate day,
+            @Param("dimensionKey") String dimensionKey,
+            @Param("type") String type,
+            @Param("label") String label,
+            @Param("txnCount") long txnCount,
+            @Param("amount") double amount
+    );
+
+    @Modifying
+    @Query("DELETE FROM RevenueRollup r WHERE r.rollupDate >= :from AND r.rollupDate <= :to")
+    int deleteDays(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Recomputes both dimensions for ledger rows in [start, end); timestamps are UTC, days IST
+    @Modifying
+    @Query(value = """
+        INSERT INTO RevenueRollup (dimension, rollupDate, dimensionKey, type, label, txnCount, amount)
+        SELECT 'STAFF', DATE(t.timestamp + INTERVAL 330 MINUTE), COALESCE(t.adminName, ''), t.type,
+               MAX(t.adminName), COUNT(*), COALESCE(SUM(t.amount), 0)
+        FROM PlayboxTransactions t
+        WHERE t.timestamp >= :start AND t.timestamp < :end
+        GROUP BY DATE(t.timestamp + INTERVAL 330 MINUTE), COALESCE(t.adminName, ''), t.type
+        UNION ALL
+        SELECT 'USER', DATE(t.timestamp + INTERVAL 330 MINUTE), CAST(t.user_id AS CHAR), t.type,
+               MAX(t.user_name), COUNT(*), COALESCE(SUM(t.amount), 0)
+        FROM PlayboxTransactions t
+        WHERE t.timestamp >= :start AND t.timestamp < :end
+        GROUP BY DATE(t.timestamp + INTERVAL 330 MINUTE), t.user_id, t.type
+    """, nativeQuery = true)
+    int rebuildRange(@Param("start") Instant start, @Param("end") Instant end);
+
+    @Query("""
+        SELECT r.type, SUM(r.amount)
+        FROM RevenueRollup r
+        WHERE r.dimension = 'STAFF'
+        AND r.rollupDate >= :from
+        AND r.rollupDate <= :to
+        GROUP BY r.type
+    """)
+    List<Object[]> totalsByType(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Most active staff or users (by number of transactions)
+    @Query("""
+        SELECT MAX(r.label), SUM(r.txnCount)
+        FROM RevenueRollup r
+        WHERE r.dimension = :dimension
+        AND r.rollupDate >= :from
+        AND r.rollupDate <= :to
+        GROUP BY r.dimensionKey
+        ORDER BY SUM(r.txnCount) DESC
+    """)
+    List<Object[]> mostActive(
+            @Param("dimension") String dimension,
+            @Param("from") LocalDate from,
+            @Param("to") LocalDate to,
+            Limit limit
+    );
+}
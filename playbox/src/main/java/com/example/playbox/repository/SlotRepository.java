@@ -1,9 +1,13 @@
 package com.example.playbox.repository;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -11,9 +15,88 @@ import com.example.playbox.model.Slot;
 
 public interface SlotRepository extends JpaRepository<Slot, Long> {
 
-    List<Slot> findBySport_IdAndSlotDate(Long sportId, String slotDate);
+    List<Slot> findBySport_IdAndSlotDate(Long sportId, LocalDate slotDate);
 
-    @Query(value = "SELECT * FROM Slot WHERE id = :id FOR UPDATE", nativeQuery = true)
-    Optional<Slot> findWithLockingById(@Param("id") Long id);
+    List<Slot> findBySport_IdInAndSlotDateBetween(Collection<Long> sportIds, LocalDate fromDate, LocalDate toDate);
+
+    // Locks the slot only if it is still free; fails at once with ER_LOCK_NOWAIT
+    // instead of queueing when another booking already holds the row.
+    @Query(value = "SELECT id FROM Slot WHERE id = :id AND (booked IS NULL OR booked = false) FOR UPDATE NOWAIT",
+            nativeQuery = true)
+    Optional<Long> claimFreeSlotNoWait(@Param("id") Long id);
+
+    // Same claim for court allocation: a row another booking holds is skipped, so the
+    // caller moves on to the next free court without an error in its transaction.
+    @Query(value = "SELECT id FROM Slot WHERE id = :id AND (booked IS NULL OR booked = false) FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    Optional<Long> claimFreeSlotSkipLocked(@Param("id") Long id);
+
+    // Batch claim: rows are locked in id order, and NOWAIT fails the whole statement
+    // if any of them is held by another booking.
+    @Query(value = """
+            SELECT id FROM Slot
+            WHERE id IN (:ids) AND (booked IS NULL OR booked = false)
+            ORDER BY id
+            FOR UPDATE NOWAIT
+            """, nativeQuery = true)
+    List<Long> claimFreeSlotsNoWait(@Param("ids") List<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Slot s SET s.booked = true WHERE s.id IN :ids")
+    int markBooked(@Param("ids") List<Long> ids);
+
+    // One seat of a shared slot; matches no row once :capacity seats are taken
+    @Modifying
+    @Query(value = "UPDATE Slot SET taken = COALESCE(taken, 0) + 1 WHERE id = :id AND COALESCE(taken, 0) < :capacity",
+            nativeQuery = true)
+    int reserveSeat(@Param("id") Long id, @Param("capacity") int capacity);
+
+    @Modifying
+    @Query(value = """
+            UPDATE Slot SET taken = (
+                SELECT COUNT(*) FROM Booking b WHERE b.slotId = Slot.id AND b.status = 'CONFIRMED'
+            )
+            WHERE taken IS NULL
+            """, nativeQuery = true)
+    int backfillTaken();
+
+    // Slots holding a booking from the date on, for checking a schedule change against
+    @Query("""
+            SELECT s FROM Slot s
+            WHERE s.sport.id = :sportId AND s.slotDate >= :fromDate AND (s.booked = true OR s.taken > 0)
+            """)
+    List<Slot> findBookedFrom(@Param("sportId") Long sportId, @Param("fromDate") LocalDate fromDate);
+
+    @Query("SELECT MIN(s.id) FROM Slot s WHERE s.sport.id = :sportId AND s.slotDate = :slotDate AND s.startTime = :startTime")
+    Long findSlotId(
+            @Param("sportId") Long sportId,
+            @Param("slotDate") LocalDate slotDate,
+            @Param("startTime") LocalTime startTime
+    );
+
+    // Creates the row for a virtual slot; a concurrent insert of the same slot is ignored.
+    // The id comes from IdBlockAllocator, as the table has no AUTO_INCREMENT. Returns 0
+    // for an id already in use as well, which the caller tells apart by the slot's row.
+    @Modifying
+    @Query(value = """
+            INSERT IGNORE INTO Slot (id, sportId, slotDate, startTime, endTime, booked, taken)
+            VALUES (:id, :sportId, :slotDate, :startTime, :endTime, false, 0)
+            """, nativeQuery = true)
+    int insertIgnore(
+            @Param("id") Long id,
+            @Param("sportId") Long sportId,
+            @Param("slotDate") LocalDate slotDate,
+            @Param("startTime") LocalTime startTime,
+            @Param("endTime") LocalTime endTime
+    );
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM Slot
+            WHERE (booked IS NULL OR booked = false)
+              AND NOT EXISTS (SELECT 1 FROM Booking b WHERE b.slotId = Slot.id)
+            LIMIT :batchSize
+            """, nativeQuery = true)
+    int deleteUnusedSlots(@Param("batchSize") int batchSize);
 
 }
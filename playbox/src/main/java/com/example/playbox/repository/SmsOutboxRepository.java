@@ -0,0 +1,67 @@
+package com.example.playbox.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.playbox.model.SmsOutbox;
+
+public interface SmsOutboxRepository extends JpaRepository<SmsOutbox, Long> {
+
+    // Pending rows whose retry time has come, plus SENDING rows whose lease ran out
+    @Query("""
+            SELECT o FROM SmsOutbox o
+            WHERE o.status IN ('PENDING', 'SENDING') AND o.nextAttemptAt <= :now
+            ORDER BY o.nextAttemptAt, o.id
+            """)
+    List<SmsOutbox> findDue(@Param("now") Instant now, Limit limit);
+
+    // Takes one delivery attempt; attempts acts as the version so only one worker wins
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE SmsOutbox o
+            SET o.status = 'SENDING', o.attempts = o.attempts + 1, o.nextAttemptAt = :leaseUntil
+            WHERE o.id = :id AND o.attempts = :attempts AND o.status IN ('PENDING', 'SENDING')
+            """)
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("leaseUntil") Instant leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE SmsOutbox o SET o.status = 'SENT', o.sentAt = :sentAt, o.lastError = NULL WHERE o.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") Instant sentAt);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE SmsOutbox o
+            SET o.status = :status, o.nextAttemptAt = :nextAttemptAt, o.lastError = :lastError
+            WHERE o.id = :id
+            """)
+    int markFailed(
+            @Param("id") Long id,
+            @Param("status") String status,
+            @Param("nextAttemptAt") Instant nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE SmsOutbox o
+            SET o.status = 'PENDING', o.attempts = 0, o.nextAttemptAt = :now
+            WHERE o.id = :id AND o.status = 'DEAD'
+            """)
+    int requeueDead(@Param("id") Long id, @Param("now") Instant now);
+
+    @Query("SELECT o.status, COUNT(o) FROM SmsOutbox o GROUP BY o.status")
+    List<Object[]> countByStatus();
+
+    List<SmsOutbox> findByStatusOrderByIdDesc(String status, Limit limit);
+}
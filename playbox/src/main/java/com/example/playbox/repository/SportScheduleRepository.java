@@ -0,0 +1,8 @@
+package com.example.playbox.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.playbox.model.SportSchedule;
+
+public interface SportScheduleRepository extends JpaRepository<SportSchedule, Long> {
+}
@@ -0,0 +1,71 @@
+package com.example.playbox.repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.playbox.dto.TransactionFilter;
+import com.example.playbox.model.TransactionEntity;
+
+import jakarta.persistence.criteria.Predicate;
+
+/**
+ * Ledger queries composed from a {@link TransactionFilter}. Equality filters lead and
+ * the time range follows, matching the (column, timestamp) indexes on
+ * PlayboxTransactions; amount and description only narrow the rows of that range.
+ */
+public final class TransactionSpecifications {
+
+    private TransactionSpecifications() {
+    }
+
+    /**
+     * @param afterTimestamp keyset cursor: only rows ordered after (afterTimestamp,
+     *                       afterId) in descending order, or null for the first page
+     */
+    public static Specification<TransactionEntity> matching(
+            TransactionFilter filter, Instant afterTimestamp, Integer afterId) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (filter.getUserId() != null) {
+                predicates.add(cb.equal(root.get("userId"), filter.getUserId()));
+            }
+            if (filter.getAdminName() != null) {
+                predicates.add(cb.equal(root.get("adminName"), filter.getAdminName()));
+            }
+            if (filter.getType() != null) {
+                predicates.add(cb.equal(root.get("type"), filter.getType()));
+            }
+            if (filter.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), filter.getFrom()));
+            }
+            if (filter.getTo() != null) {
+                predicates.add(cb.lessThan(root.get("timestamp"), filter.getTo()));
+            }
+            if (filter.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filter.getMinAmount()));
+            }
+            if (filter.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filter.getMaxAmount()));
+            }
+            if (filter.getText() != null) {
+                predicates.add(cb.like(cb.lower(root.get("description")),
+                        "%" + escapeLike(filter.getText().toLowerCase()) + "%", '\\'));
+            }
+            if (afterTimestamp != null && afterId != null) {
+                predicates.add(cb.or(
+                        cb.lessThan(root.get("timestamp"), afterTimestamp),
+                        cb.and(
+                                cb.equal(root.get("timestamp"), afterTimestamp),
+                                cb.lessThan(root.get("id"), afterId))));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.playbox.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.example.playbox.model.UserWalletStats;
+
+public interface UserWalletStatsRepository extends JpaRepository<UserWalletStats, Integer> {
+
+    @Query("""
+        SELECT COALESCE(SUM(s.totalRecharge), 0), COALESCE(SUM(s.totalDeduction), 0)
+        FROM UserWalletStats s
+    """)
+    List<Object[]> sumTotals();
+
+    @Query("SELECT s.userId, s.lastVisit FROM UserWalletStats s WHERE s.lastVisit >= :since")
+    List<Object[]> findLastVisitsSince(@Param("since") Instant since);
+
+    // Adds one ledger entry's deltas to the user's row, creating it on first use
+    @Modifying
+    @Query(value = """
+        INSERT INTO UserWalletStats (userId, totalRecharge, totalDeduction, visitCount, lastVisit, lastRecharge)
+        VALUES (:userId, :recharge, :deduction, :visits, :visitAt, :rechargeAt)
+        ON DUPLICATE KEY UPDATE
+            totalRecharge = totalRecharge + VALUES(totalRecharge),
+            totalDeduction = totalDeduction + VALUES(totalDeduction),
+            visitCount = visitCount + VALUES(visitCount),
+            lastVisit = COALESCE(GREATEST(lastVisit, VALUES(lastVisit)), lastVisit, VALUES(lastVisit)),
+            lastRecharge = COALESCE(GREATEST(lastRecharge, VALUES(lastRecharge)), lastRecharge, VALUES(lastRecharge))
+    """, nativeQuery = true)
+    int applyLedgerEntry(
+            @Param("userId") Integer userId,
+            @Param("recharge") double recharge,
+            @Param("deduction") double deduction,
+            @Param("visits") long visits,
+            @Param("visitAt") Instant visitAt,
+            @Param("rechargeAt") Instant rechargeAt
+    );
+
+    // Recomputes the rows of users with fromId < id <= toId from the ledger
+    @Modifying
+    @Query(value = """
+        INSERT INTO UserWalletStats (userId, totalRecharge, totalDeduction, visitCount, lastVisit, lastRecharge)
+        SELECT u.id,
+               COALESCE(SUM(CASE WHEN t.type = 'ADD' THEN t.amount END), 0),
+               COALESCE(SUM(CASE WHEN t.type IN ('DEDUCT', 'BOOKING') THEN t.amount END), 0),
+               COUNT(CASE WHEN t.type IN ('DEDUCT', 'BOOKING') THEN 1 END),
+               MAX(CASE WHEN t.type IN ('DEDUCT', 'BOOKING') THEN t.timestamp END),
+               MAX(CASE WHEN t.type = 'ADD' THEN t.timestamp END)
+        FROM PlayBoxUser u
+        LEFT JOIN PlayboxTransactions t ON t.user_id = u.id
+        WHERE u.id > :fromId AND u.id <= :toId
+        GROUP BY u.id
+        ON DUPLICATE KEY UPDATE
+            totalRecharge = VALUES(totalRecharge),
+            totalDeduction = VALUES(totalDeduction),
+            visitCount = VALUES(visitCount),
+            lastVisit = VALUES(lastVisit),
+            lastRecharge = VALUES(lastRecharge)
+    """, nativeQuery = true)
+    int rebuildRange(@Param("fromId") Integer fromId, @Param("toId") Integer toId);
+}
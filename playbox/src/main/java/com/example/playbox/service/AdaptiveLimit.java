@@ -0,0 +1,71 @@
+package com.example.playbox.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit that adapts to latency (additive increase, multiplicative
+ * decrease): each fast completion raises the limit by 1/limit, each slow or failed
+ * one cuts it by a tenth. Callers over the limit wait, in no particular order.
+ */
+class AdaptiveLimit {
+
+    private static final double BACKOFF = 0.9;
+    private static final double LATENCY_SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+
+    private double limit;
+    private int inFlight;
+    private double averageLatencyNanos;
+
+    AdaptiveLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    }
+
+    synchronized boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param dropped true when the call failed in a way that signals overload, such as a
+     *                lock or connection timeout
+     */
+    synchronized void release(long latencyNanos, boolean dropped) {
+        inFlight--;
+        averageLatencyNanos = averageLatencyNanos == 0
+                ? latencyNanos
+                : averageLatencyNanos + LATENCY_SMOOTHING * (latencyNanos - averageLatencyNanos);
+        if (dropped || latencyNanos > targetLatencyNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    synchronized int inFlight() {
+        return inFlight;
+    }
+
+    synchronized long averageLatencyNanos() {
+        return (long) averageLatencyNanos;
+    }
+}
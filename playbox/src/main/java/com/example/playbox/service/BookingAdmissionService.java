@@ -0,0 +1,254 @@
+package com.example.playbox.service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.example.playbox.exception.AdmissionRejectedException;
+import com.example.playbox.exception.SlotUnavailableException;
+import com.example.playbox.model.Booking;
+
+/**
+ * Admission control in front of booking, so a flash crowd queues in memory instead of
+ * on row locks and pool connections.
+ *
+ * Requests for the same slot pass one at a time in arrival order (a fair semaphore per
+ * slot), and once a slot has a winner later requests are rejected without touching
+ * the database. Ranges queue on their first slot and any-court requests on the hour;
+ * since either may end up on other slots, only the slot they booked is remembered.
+ * Across slots, an {@link AdaptiveLimit} caps how many bookings run at once,
+ * shrinking when bookings slow down or time out.
+ */
+@Service
+public class BookingAdmissionService {
+
+    private final SportScheduleService scheduleService;
+    private final AdaptiveLimit limit;
+    private final int maxQueuePerSlot;
+    private final long maxWaitMs;
+    private final long winnerTtlNanos;
+
+    private final Map<Long, SlotQueue> queues = new ConcurrentHashMap<>();
+    // Slot id -> System.nanoTime() until which the slot is known to be taken
+    private final Map<Long, Long> winners = new ConcurrentHashMap<>();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejectedTaken = new LongAdder();
+    private final LongAdder rejectedQueueFull = new LongAdder();
+    private final LongAdder rejectedBusy = new LongAdder();
+
+    private static final class SlotQueue {
+        private final Semaphore turn = new Semaphore(1, true);
+        private int waiting;
+    }
+
+    public record AdmissionStats(
+            int limit,
+            int inFlight,
+            long averageLatencyMs,
+            int queuedSlots,
+            int knownTakenSlots,
+            long admitted,
+            long rejectedTaken,
+            long rejectedQueueFull,
+            long rejectedBusy
+    ) {
+    }
+
+    public BookingAdmissionService(
+            SportScheduleService scheduleService,
+            @Value("${playbox.admission.initial-concurrency:2}") int initialConcurrency,
+            @Value("${playbox.admission.max-concurrency:4}") int maxConcurrency,
+            @Value("${playbox.admission.target-latency-ms:250}") long targetLatencyMs,
+            @Value("${playbox.admission.max-queue-per-slot:50}") int maxQueuePerSlot,
+            @Value("${playbox.admission.max-wait-ms:3000}") long maxWaitMs,
+            @Value("${playbox.admission.winner-ttl-seconds:600}") long winnerTtlSeconds
+    ) {
+        this.scheduleService = scheduleService;
+        this.limit = new AdaptiveLimit(initialConcurrency, 1, maxConcurrency, TimeUnit.MILLISECONDS.toNanos(targetLatencyMs));
+        this.maxQueuePerSlot = maxQueuePerSlot;
+        this.maxWaitMs = maxWaitMs;
+        this.winnerTtlNanos = TimeUnit.SECONDS.toNanos(winnerTtlSeconds);
+    }
+
+    /**
+     * Runs {@code booking} for {@code slotId} once it is this request's turn.
+     *
+     * @throws AdmissionRejectedException when the slot is taken, its queue is full or no
+     *                                    booking capacity frees up within max-wait-ms
+     */
+    public Booking admit(Long slotId, Supplier<Booking> booking) {
+        return admit(slotId, true, booking);
+    }
+
+    /** Runs a range booking of one court, queued with single bookings of its first slot. */
+    public Booking admitRange(Long firstSlotId, Supplier<Booking> booking) {
+        return admit(firstSlotId, false, booking);
+    }
+
+    /**
+     * Runs a booking of any court of the sport at startTime, queued with single bookings
+     * of the sport's own slot at that time.
+     */
+    public Booking admitAnyCourt(Long sportId, String date, String startTime, Supplier<Booking> booking) {
+        LocalDate day;
+        try {
+            day = LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException ex) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd");
+        }
+        int startMinute = SportScheduleService.minutesOf(startTime);
+        if (startMinute < 0) {
+            throw new IllegalArgumentException("Invalid start time, expected HH:mm");
+        }
+        return admit(VirtualSlotId.encode(sportId, day, startMinute), false, booking);
+    }
+
+    // slotIsKey: the queue key is the one slot the booking takes, so it can be marked won
+    private Booking admit(Long key, boolean slotIsKey, Supplier<Booking> booking) {
+        if (slotIsKey) {
+            rejectIfTaken(key);
+        }
+
+        SlotQueue queue = enqueue(key);
+        if (queue == null) {
+            rejectedQueueFull.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.QUEUE_FULL,
+                    "Too many players are booking this slot", maxQueuePerSlot, retryAfterSeconds(maxQueuePerSlot));
+        }
+
+        boolean hasTurn = false;
+        try {
+            hasTurn = queue.turn.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+            if (!hasTurn) {
+                throw busy(queue);
+            }
+            // The request ahead of us may have won the slot while we waited
+            if (slotIsKey) {
+                rejectIfTaken(key);
+            }
+            if (!limit.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                throw busy(queue);
+            }
+            return run(key, slotIsKey, booking);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw busy(queue);
+        } finally {
+            if (hasTurn) {
+                queue.turn.release();
+            }
+            dequeue(key);
+        }
+    }
+
+    public AdmissionStats getStats() {
+        return new AdmissionStats(
+                limit.limit(),
+                limit.inFlight(),
+                TimeUnit.NANOSECONDS.toMillis(limit.averageLatencyNanos()),
+                queues.size(),
+                winners.size(),
+                admitted.sum(),
+                rejectedTaken.sum(),
+                rejectedQueueFull.sum(),
+                rejectedBusy.sum()
+        );
+    }
+
+    @Scheduled(fixedDelayString = "${playbox.admission.winner-ttl-seconds:600}", timeUnit = TimeUnit.SECONDS)
+    public void evictExpiredWinners() {
+        long now = System.nanoTime();
+        winners.values().removeIf(expiresAt -> now - expiresAt > 0);
+    }
+
+    private Booking run(Long key, boolean slotIsKey, Supplier<Booking> booking) {
+        admitted.increment();
+        long start = System.nanoTime();
+        boolean dropped = false;
+        try {
+            Booking saved = booking.get();
+            if (!scheduleService.get(saved.getSportId()).isMultiSlot()) {
+                if (slotIsKey) {
+                    markTaken(key);
+                }
+                markTaken(saved.getSlotId());
+            }
+            return saved;
+        } catch (SlotUnavailableException ex) {
+            // A held row lock is not a winner yet; its booking may still roll back
+            if (slotIsKey && !ex.isLockContended()) {
+                markTaken(key);
+            }
+            throw ex;
+        } catch (PessimisticLockingFailureException | QueryTimeoutException
+                 | TransientDataAccessResourceException | CannotCreateTransactionException ex) {
+            dropped = true;
+            throw ex;
+        } finally {
+            limit.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private void rejectIfTaken(Long slotId) {
+        Long expiresAt = winners.get(slotId);
+        if (expiresAt != null && System.nanoTime() - expiresAt < 0) {
+            rejectedTaken.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.SLOT_TAKEN,
+                    "Slot already booked", 0, 0);
+        }
+    }
+
+    private void markTaken(Long slotId) {
+        winners.put(slotId, System.nanoTime() + winnerTtlNanos);
+    }
+
+    /** Joins the slot's queue, or returns null when it is full. */
+    private SlotQueue enqueue(Long slotId) {
+        SlotQueue[] joined = new SlotQueue[1];
+        queues.compute(slotId, (key, queue) -> {
+            SlotQueue current = queue == null ? new SlotQueue() : queue;
+            if (current.waiting < maxQueuePerSlot) {
+                current.waiting++;
+                joined[0] = current;
+            }
+            return current;
+        });
+        return joined[0];
+    }
+
+    private void dequeue(Long slotId) {
+        queues.computeIfPresent(slotId, (key, queue) -> --queue.waiting == 0 ? null : queue);
+    }
+
+    private AdmissionRejectedException busy(SlotQueue queue) {
+        rejectedBusy.increment();
+        int position = queuedAhead(queue);
+        return new AdmissionRejectedException(AdmissionRejectedException.Reason.BUSY,
+                "Booking is busy, please retry", position, retryAfterSeconds(position));
+    }
+
+    private int queuedAhead(SlotQueue queue) {
+        return Math.max(queue.turn.getQueueLength(), 1);
+    }
+
+    // Time for the requests ahead to finish at the current booking latency
+    private long retryAfterSeconds(int position) {
+        long averageMs = Math.max(TimeUnit.NANOSECONDS.toMillis(limit.averageLatencyNanos()), 100);
+        return Math.max(1, (position * averageMs + 999) / 1000);
+    }
+}
@@ -3,6 +3,7 @@ package com.example.playbox.service;
 import java.time.Instant;
 import java.util.List;
 import java.util.Locale;
+import java.util.stream.Collectors;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,7 +13,6 @@ import com.example.playbox.model.Booking;
 import com.example.playbox.model.BookingNotification;
 import com.example.playbox.model.PlayBoxUser;
 import com.example.playbox.model.Slot;
-import com.example.playbox.model.Sport;
 import com.example.playbox.repository.AdminUserRepository;
 import com.example.playbox.repository.BookingNotificationRepository;
 
@@ -27,24 +27,52 @@ public class BookingNotificationService {
     private final TwilioSmsService twilioSmsService;
 
     @Transactional
-    public void notifyBookingCreated(Booking booking, PlayBoxUser user, Sport sport, Slot slot) {
+    public void notifyBookingCreated(Booking booking, PlayBoxUser user, String sportName, Slot slot) {
         BookingNotification notification = new BookingNotification();
         notification.setBookingId(booking.getId());
         notification.setUserId(user.getId());
         notification.setUserName(user.getName());
         notification.setUserPhone(user.getPhone());
-        notification.setSportName(sport.getName());
-        notification.setSlotDate(slot.getSlotDate());
-        notification.setStartTime(slot.getStartTime());
-        notification.setEndTime(slot.getEndTime());
+        notification.setSportName(sportName);
+        notification.setSlotDate(text(booking.getSlotDate() != null ? booking.getSlotDate() : slot.getSlotDate()));
+        notification.setStartTime(text(booking.getStartTime() != null ? booking.getStartTime() : slot.getStartTime()));
+        notification.setEndTime(text(booking.getEndTime() != null ? booking.getEndTime() : slot.getEndTime()));
         notification.setRemarks(booking.getRemarks());
         notification.setSeen(false);
-        notification.setCreatedAt(Instant.now().toString());
+        notification.setCreatedAt(Instant.now());
         notification.setMessage(
                 "New booking: " + safe(user.getName()) + " (" + safe(user.getPhone()) + ") | "
-                        + safe(sport.getName()) + " | "
-                        + safe(slot.getSlotDate()) + " "
-                        + safe(slot.getStartTime()) + " - " + safe(slot.getEndTime())
+                        + safe(sportName) + " | "
+                        + safe(notification.getSlotDate()) + " "
+                        + safe(notification.getStartTime()) + " - " + safe(notification.getEndTime())
+        );
+        notificationRepository.save(notification);
+
+        sendAdminSms(notification.getMessage());
+    }
+
+    /** One alert for a batch of bookings made in a single request. */
+    @Transactional
+    public void notifyBookingSeriesCreated(List<Booking> bookings, PlayBoxUser user, String sportName) {
+        Booking first = bookings.get(0);
+        BookingNotification notification = new BookingNotification();
+        notification.setBookingId(first.getId());
+        notification.setUserId(user.getId());
+        notification.setUserName(user.getName());
+        notification.setUserPhone(user.getPhone());
+        notification.setSportName(sportName);
+        notification.setSlotDate(text(first.getSlotDate()));
+        notification.setStartTime(text(first.getStartTime()));
+        notification.setEndTime(text(first.getEndTime()));
+        notification.setSeen(false);
+        notification.setCreatedAt(Instant.now());
+        notification.setMessage(
+                "New booking series: " + safe(user.getName()) + " (" + safe(user.getPhone()) + ") | "
+                        + safe(sportName) + " | "
+                        + bookings.stream()
+                                .map(booking -> safe(text(booking.getSlotDate())) + " "
+                                        + safe(text(booking.getStartTime())) + " - " + safe(text(booking.getEndTime())))
+                                .collect(Collectors.joining(", "))
         );
         notificationRepository.save(notification);
 
@@ -96,4 +124,9 @@ public class BookingNotificationService {
     private String safe(String value) {
         return value == null ? "" : value;
     }
+
+    // Notifications keep the booked date and times as display text
+    private static String text(Object value) {
+        return value == null ? null : value.toString();
+    }
 }
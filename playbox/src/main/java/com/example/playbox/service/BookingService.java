@@ -2,18 +2,36 @@ package com.example.playbox.service;
 
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ThreadLocalRandom;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.playbox.dto.AdminSlotStatusDTO;
 import com.example.playbox.dto.AdminSportDayOverviewDTO;
+import com.example.playbox.dto.BookingHistoryDTO;
+import com.example.playbox.dto.BookingHistoryResponse;
+import com.example.playbox.dto.PageResponse;
+import com.example.playbox.dto.SlotDetailsDTO;
+import com.example.playbox.dto.WeeklyGridDTO;
+import com.example.playbox.exception.SlotUnavailableException;
 import com.example.playbox.model.Booking;
 import com.example.playbox.model.PlayBoxUser;
 import com.example.playbox.model.Slot;
@@ -22,7 +40,6 @@ import com.example.playbox.model.TransactionEntity;
 import com.example.playbox.repository.BookingRepository;
 import com.example.playbox.repository.PlayBoxUserRepository;
 import com.example.playbox.repository.SlotRepository;
-import com.example.playbox.repository.SportRepository;
 import com.example.playbox.repository.TransactionRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -31,37 +48,138 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final int MAX_UPCOMING_BOOKINGS = 100;
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
     private final BookingRepository bookingRepository;
     private final SlotRepository slotRepository;
-    private final SportRepository sportRepository;
+    private final SportCatalog sportCatalog;
     private final PlayBoxUserRepository userRepository;
     private final TransactionRepository transactionRepository;
     private final SlotService slotService;
+    private final CourtService courtService;
     private final TwilioSmsService twilioSmsService;
     private final BookingNotificationService bookingNotificationService;
+    private final UserWalletStatsService walletStatsService;
+    private final UserStatsSnapshotService statsSnapshotService;
+    private final UserSearchService userSearchService;
 
     @Transactional
     public Booking bookSlot(Integer userId, Long slotId, String paymentMode) {
     
-        // 1️⃣ Lock slot row
-        Slot slot = slotRepository.findWithLockingById(slotId)
+        // 1️⃣ Read slot without locking; losers of a race should not queue on the row
+        Slot slot = slotRepository.findById(slotService.resolveSlotId(slotId))
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
 
         // 2️⃣ Get sport directly from slot
         Sport sport = slot.getSport();
-        if (!slotService.isSwimmingSlotAllowed(sport, slot.getStartTime())) {
-            throw new RuntimeException("Swimming Pool slots are available only between 08:00 and 22:00");
+        if (!slotService.isWithinSchedule(sport, slot.getStartTime())) {
+            throw new RuntimeException("Invalid slot: outside opening hours");
         }
-        boolean multiSlotSport = isMultiSlotSport(sport);
+        boolean multiSlotSport = slotService.isMultiSlotSport(sport);
 
-        if (!multiSlotSport && Boolean.TRUE.equals(slot.getBooked())) {
-            throw new RuntimeException("Slot already booked");
+        if (multiSlotSport) {
+            slotService.checkSeatAvailable(slot);
+        } else {
+            slotService.claimSlot(slot);
         }
-    
-        Float amount = sport.getPricePerHour();
-        if (amount == null || amount <= 0f) {
+
+        return completeBooking(userId, List.of(slot), multiSlotSport, false, paymentMode);
+    }
+
+    /**
+     * Books the hour on whichever court of the sport is free. Courts are tried in the
+     * order of the free-court mask; each try claims a single row with SKIP LOCKED, or a
+     * seat of a shared court, so a court that is held, full or closed at that hour is
+     * passed over instead of failing the request. READ COMMITTED because a candidate's
+     * row may be created after an earlier candidate was read.
+     */
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public Booking bookAnyCourt(Integer userId, Long sportId, String date, String startTime, String paymentMode) {
+        List<Long> candidates = courtService.freeCourtSlots(sportId, date, startTime);
+        boolean anyOpen = false;
+        for (Long candidate : candidates) {
+            Slot slot = slotRepository.findById(slotService.resolveSlotId(candidate))
+                    .orElseThrow(() -> new RuntimeException("Slot not found"));
+            Sport sport = slot.getSport();
+            if (!slotService.isWithinSchedule(sport, slot.getStartTime())) {
+                continue;
+            }
+            anyOpen = true;
+            if (slotService.isMultiSlotSport(sport)) {
+                if (takeSeat(slot)) {
+                    return completeBooking(userId, List.of(slot), true, true, paymentMode);
+                }
+            } else if (slotRepository.claimFreeSlotSkipLocked(slot.getId()).isPresent()) {
+                return completeBooking(userId, List.of(slot), false, false, paymentMode);
+            }
+        }
+        if (!anyOpen) {
+            throw new RuntimeException("Invalid slot: outside opening hours");
+        }
+        throw new SlotUnavailableException(candidates.get(0));
+    }
+
+    // Unlike bookSlot, the seat is taken before the debit so a full court can be skipped
+    private boolean takeSeat(Slot slot) {
+        try {
+            slotService.checkSeatAvailable(slot);
+            slotService.reserveSeat(slot);
+            return true;
+        } catch (SlotUnavailableException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Books consecutive slots of one court as a single booking, e.g. 90 minutes on a
+     * 30-minute grid. The range is checked against the availability index first; the
+     * Slot rows stay the final arbiter and are claimed in id order, so two overlapping
+     * ranges booked at the same moment cannot deadlock.
+     */
+    @Transactional
+    public Booking bookRange(
+            Integer userId,
+            Long sportId,
+            String date,
+            String startTime,
+            String endTime,
+            String paymentMode
+    ) {
+        List<Long> rowIds = new ArrayList<>();
+        for (Long slotId : slotService.slotIdsForRange(sportId, date, startTime, endTime)) {
+            rowIds.add(slotService.resolveSlotId(slotId));
+        }
+
+        List<Slot> slots = new ArrayList<>(slotRepository.findAllById(rowIds));
+        // A row the index still knows but that was pruned since would leave a gap
+        if (slots.size() != rowIds.size()) {
+            throw new RuntimeException("Slot not found");
+        }
+        slots.sort(Comparator.comparing(Slot::getId));
+        for (Slot slot : slots) {
+            slotService.claimSlot(slot);
+        }
+        slots.sort(Comparator.comparing(Slot::getStartTime));
+        return completeBooking(userId, slots, false, false, paymentMode);
+    }
+
+    private Booking completeBooking(
+            Integer userId,
+            List<Slot> slots,
+            boolean multiSlotSport,
+            boolean seatTaken,
+            String paymentMode
+    ) {
+        Slot first = slots.get(0);
+        Slot last = slots.get(slots.size() - 1);
+        SportCatalog.Entry sport = sportCatalog.get(first.getSport().getId());
+        Float pricePerHour = sport.pricePerHour();
+        if (pricePerHour == null || pricePerHour <= 0f) {
             throw new RuntimeException("Sport pricing is not configured");
         }
+        float amount = pricePerHour * SportScheduleService.durationMinutes(first.getStartTime(), last.getEndTime()) / 60f;
     
         // 3️⃣ Fetch user
         PlayBoxUser user = userRepository.findById(userId)
@@ -81,8 +199,9 @@ public class BookingService {
             throw new RuntimeException("Insufficient balance");
         }
 
-        user.setBalance(currentBalance - amount);
-        userRepository.save(user);
+        float newBalance = userRepository.debit(userId, amount)
+                .orElseThrow(() -> new RuntimeException("Insufficient balance"));
+        user.setBalance(newBalance);
 
         TransactionEntity txn = new TransactionEntity();
         txn.setUserId(userId);
@@ -91,38 +210,48 @@ public class BookingService {
         txn.setAmount(amount);
         txn.setBalanceAfter(user.getBalance());
         txn.setAdminName("SYSTEM");
-        txn.setDescription(sport.getName() + " Booking");
+        txn.setDescription(sport.name() + " Booking");
         txn.setTimestamp(Instant.now());
 
         transactionRepository.save(txn);
+        walletStatsService.recordLedgerEntry(txn);
     
-        // 5️⃣ Mark slot booked
-        if (!multiSlotSport) {
-            slot.setBooked(true);
-            slotRepository.save(slot);
+        // 5️⃣ Mark slots booked, or take a seat of a shared slot
+        if (multiSlotSport) {
+            if (!seatTaken) {
+                slots.forEach(slotService::reserveSeat);
+            }
+        } else {
+            slots.forEach(slot -> slot.setBooked(true));
+            slotRepository.saveAll(slots);
         }
     
         // 6️⃣ Save booking
         Booking booking = new Booking();
         booking.setUserId(userId);
-        booking.setSportId(sport.getId());
-        booking.setSlotId(slotId);
+        booking.setSportId(sport.id());
+        // A range references its first slot; the booked times cover the rest
+        booking.setSlotId(first.getId());
+        booking.setSlotDate(first.getSlotDate());
+        booking.setStartTime(first.getStartTime());
+        booking.setEndTime(last.getEndTime());
         booking.setAmount(amount);
         booking.setStatus("CONFIRMED");
         booking.setPaymentMode(paymentMode);
-        booking.setCreatedAt(Instant.now().toString());
+        booking.setCreatedAt(Instant.now());
 
         Booking savedBooking = bookingRepository.save(booking);
         sendSmsSafely(() -> twilioSmsService.sendBookingWithDeductionSummary(
                 user.getPhone(),
-                sport.getName(),
-                slot.getSlotDate(),
-                slot.getStartTime(),
-                slot.getEndTime(),
+                sport.name(),
+                savedBooking.getSlotDate().toString(),
+                savedBooking.getStartTime().toString(),
+                savedBooking.getEndTime().toString(),
                 amount,
                 user.getBalance()
         ));
-        bookingNotificationService.notifyBookingCreated(savedBooking, user, sport, slot);
+        slots.forEach(slotService::recordBooking);
+        bookingNotificationService.notifyBookingCreated(savedBooking, user, sport.name(), first);
 
         return savedBooking;
     }
@@ -139,20 +268,22 @@ public class BookingService {
             throw new RuntimeException("Slot is required");
         }
 
-        Slot slot = slotRepository.findWithLockingById(slotId)
+        Slot slot = slotRepository.findById(slotService.resolveSlotId(slotId))
                 .orElseThrow(() -> new RuntimeException("Slot not found"));
 
-        Sport sport = slot.getSport();
-        if (!slotService.isSwimmingSlotAllowed(sport, slot.getStartTime())) {
-            throw new RuntimeException("Swimming Pool slots are available only between 08:00 and 22:00");
+        SportCatalog.Entry sport = sportCatalog.get(slot.getSport().getId());
+        if (!slotService.isWithinSchedule(slot.getSport(), slot.getStartTime())) {
+            throw new RuntimeException("Invalid slot: outside opening hours");
         }
-        boolean multiSlotSport = isMultiSlotSport(sport);
+        boolean multiSlotSport = sport.multiSlot();
 
-        if (!multiSlotSport && Boolean.TRUE.equals(slot.getBooked())) {
-            throw new RuntimeException("Slot already booked");
+        if (multiSlotSport) {
+            slotService.checkSeatAvailable(slot);
+        } else {
+            slotService.claimSlot(slot);
         }
 
-        Float amount = sport.getPricePerHour();
+        Float amount = sport.pricePerHour();
         if (amount == null || amount <= 0f) {
             amount = 0f;
         }
@@ -171,22 +302,32 @@ public class BookingService {
             user.setBalance(0f);
             user.setCardUid(null);
         }
+        boolean newUser = user.getId() == null;
         user = userRepository.save(user);
+        if (newUser) {
+            statsSnapshotService.recordUserCreated(user);
+        }
+        userSearchService.index(user);
 
-        if (!multiSlotSport) {
+        if (multiSlotSport) {
+            slotService.reserveSeat(slot);
+        } else {
             slot.setBooked(true);
             slotRepository.save(slot);
         }
 
         Booking booking = new Booking();
         booking.setUserId(user.getId());
-        booking.setSportId(sport.getId());
+        booking.setSportId(sport.id());
         booking.setSlotId(slot.getId());
+        booking.setSlotDate(slot.getSlotDate());
+        booking.setStartTime(slot.getStartTime());
+        booking.setEndTime(slot.getEndTime());
         booking.setAmount(amount);
         booking.setStatus("CONFIRMED");
         booking.setPaymentMode("OFFLINE");
         booking.setRemarks(remarks == null || remarks.isBlank() ? null : remarks.trim());
-        booking.setCreatedAt(Instant.now().toString());
+        booking.setCreatedAt(Instant.now());
 
         Booking savedBooking = bookingRepository.save(booking);
         PlayBoxUser finalUser = user;
@@ -194,29 +335,51 @@ public class BookingService {
         sendSmsSafely(() -> twilioSmsService.sendOfflineBookingOtp(
                 finalUser.getPhone(),
                 otp,
-                sport.getName(),
-                slot.getSlotDate(),
-                slot.getStartTime(),
-                slot.getEndTime()
+                sport.name(),
+                slot.getSlotDate().toString(),
+                slot.getStartTime().toString(),
+                slot.getEndTime().toString()
         ));
-        bookingNotificationService.notifyBookingCreated(savedBooking, finalUser, sport, slot);
+        slotService.recordBooking(slot);
+        bookingNotificationService.notifyBookingCreated(savedBooking, finalUser, sport.name(), slot);
 
         return savedBooking;
     }
 
     @Transactional(readOnly = true)
     public AdminSportDayOverviewDTO getSportDayOverview(Long sportId, String date) {
-        Sport sport = sportRepository.findById(sportId)
-                .orElseThrow(() -> new RuntimeException("Sport not found"));
+        SportCatalog.Entry sport = sportCatalog.get(sportId);
 
-        List<Slot> slots = slotService.getVisibleSlotsForDate(sportId, date);
-        List<Long> slotIds = slots.stream().map(Slot::getId).toList();
+        List<SlotDetailsDTO> slots = slotService.getSlotsForDate(sportId, date);
+        // Only slots the availability index shows as taken can have bookings to look up
+        List<SlotDetailsDTO> takenSlots = slots.stream()
+                .filter(slot -> Boolean.TRUE.equals(slot.getBooked()) || slot.getBookedCount() > 0)
+                .toList();
 
+        // A booking owns every slot its booked times cover, so each slot of a range or
+        // batch run shows it, not only the first slot it references
         Map<Long, Booking> bookingBySlotId = new HashMap<>();
-        if (!slotIds.isEmpty()) {
-            List<Booking> bookings = bookingRepository.findBySlotIdInAndStatus(slotIds, "CONFIRMED");
-            for (Booking booking : bookings) {
-                bookingBySlotId.putIfAbsent(booking.getSlotId(), booking);
+        if (!takenSlots.isEmpty()) {
+            LocalDate day = LocalDate.parse(date);
+            List<Booking> bookings = bookingRepository.findBySportIdInAndSlotDateBetweenAndStatus(
+                    List.of(sportId), day, day, "CONFIRMED");
+            for (SlotDetailsDTO slot : takenSlots) {
+                int start = SportScheduleService.minutesOf(slot.getStartTime());
+                bookings.stream()
+                        .filter(booking -> covers(booking, start))
+                        .findFirst()
+                        .ifPresent(booking -> bookingBySlotId.put(slot.getId(), booking));
+            }
+
+            // Bookings that predate booked times are found by their slot
+            List<Long> legacySlotIds = takenSlots.stream()
+                    .map(SlotDetailsDTO::getId)
+                    .filter(slotId -> slotId > 0 && !bookingBySlotId.containsKey(slotId))
+                    .toList();
+            if (!legacySlotIds.isEmpty()) {
+                for (Booking booking : bookingRepository.findBySlotIdInAndStatus(legacySlotIds, "CONFIRMED")) {
+                    bookingBySlotId.putIfAbsent(booking.getSlotId(), booking);
+                }
             }
         }
 
@@ -230,7 +393,7 @@ public class BookingService {
 
         List<AdminSlotStatusDTO> slotStatuses = new ArrayList<>();
         int bookedCount = 0;
-        for (Slot slot : slots) {
+        for (SlotDetailsDTO slot : slots) {
             Booking booking = bookingBySlotId.get(slot.getId());
             boolean isBooked = booking != null || Boolean.TRUE.equals(slot.getBooked());
             if (isBooked) {
@@ -260,9 +423,9 @@ public class BookingService {
         }
 
         AdminSportDayOverviewDTO overview = new AdminSportDayOverviewDTO();
-        overview.setSportId(sport.getId());
-        overview.setSportName(sport.getName());
-        overview.setCourtName(sport.getCourtName());
+        overview.setSportId(sport.id());
+        overview.setSportName(sport.name());
+        overview.setCourtName(sport.courtName());
         overview.setDate(date);
         overview.setTotalSlots(slots.size());
         overview.setBookedSlots(bookedCount);
@@ -272,30 +435,257 @@ public class BookingService {
         return overview;
     }
 
-    private void sendSmsSafely(Runnable smsOperation) {
-        try {
-            smsOperation.run();
-        } catch (Exception ignored) {
-            // Avoid failing booking transaction if SMS provider fails.
+    /**
+     * Occupancy of many courts over {@code days} days for the owner dashboard, in a
+     * fixed number of queries however many courts and days: one Slot query for days not
+     * in the availability index, one Booking query by date (plus one by slot id for
+     * bookings made before booked times were recorded) and one user query.
+     */
+    public WeeklyGridDTO getWeeklyGrid(String from, int days, List<Long> sportIds) {
+        List<SportCatalog.Entry> courts = sportIds == null || sportIds.isEmpty()
+                ? sportCatalog.all().stream().filter(sport -> !Boolean.FALSE.equals(sport.active())).toList()
+                : sportIds.stream().distinct().map(sportCatalog::get).toList();
+        List<Long> courtIds = courts.stream().map(SportCatalog.Entry::id).toList();
+        Map<Long, List<SlotAvailabilityIndex.Day>> availability = slotService.getAvailability(courtIds, from, days);
+        LocalDate first = LocalDate.parse(from);
+        LocalDate to = first.plusDays(days - 1L);
+
+        // Booking id per position of each single-occupancy day, by sport and date
+        Map<Long, Map<String, Long[]>> cells = new HashMap<>();
+        for (Map.Entry<Long, List<SlotAvailabilityIndex.Day>> court : availability.entrySet()) {
+            Map<String, Long[]> courtCells = new HashMap<>();
+            for (SlotAvailabilityIndex.Day day : court.getValue()) {
+                if (!day.isMultiSlot()) {
+                    courtCells.put(day.date(), new Long[day.slotIds().length]);
+                }
+            }
+            cells.put(court.getKey(), courtCells);
+        }
+
+        Map<Long, Booking> placed = new HashMap<>();
+        if (!courtIds.isEmpty()) {
+            for (Booking booking : bookingRepository.findBySportIdInAndSlotDateBetweenAndStatus(
+                    courtIds, first, to, "CONFIRMED")) {
+                placeBooking(booking, availability.get(booking.getSportId()), cells.get(booking.getSportId()), placed);
+            }
+        }
+
+        // Booked slots still without a booking belong to bookings that predate booked times
+        Map<Long, Long[]> legacyCells = new HashMap<>();
+        Map<Long, Integer> legacyPositions = new HashMap<>();
+        for (Map.Entry<Long, List<SlotAvailabilityIndex.Day>> court : availability.entrySet()) {
+            for (SlotAvailabilityIndex.Day day : court.getValue()) {
+                Long[] dayCells = cells.get(court.getKey()).get(day.date());
+                if (dayCells == null) {
+                    continue;
+                }
+                for (long booked = day.bookedSlots(); booked != 0; booked &= booked - 1) {
+                    int position = Long.numberOfTrailingZeros(booked);
+                    long slotId = day.slotIds()[position];
+                    if (dayCells[position] == null && slotId > 0) {
+                        legacyCells.put(slotId, dayCells);
+                        legacyPositions.put(slotId, position);
+                    }
+                }
+            }
+        }
+        if (!legacyCells.isEmpty()) {
+            for (Booking booking : bookingRepository.findBySlotIdInAndStatus(
+                    new ArrayList<>(legacyCells.keySet()), "CONFIRMED")) {
+                Long[] dayCells = legacyCells.get(booking.getSlotId());
+                dayCells[legacyPositions.get(booking.getSlotId())] = booking.getId();
+                placed.put(booking.getId(), booking);
+            }
+        }
+
+        Map<Integer, String> userNames = new HashMap<>();
+        List<Integer> userIds = placed.values().stream().map(Booking::getUserId).distinct().toList();
+        if (!userIds.isEmpty()) {
+            userRepository.findAllById(userIds).forEach(user -> userNames.put(user.getId(), user.getName()));
+        }
+
+        List<WeeklyGridDTO.CourtRow> rows = new ArrayList<>(courts.size());
+        for (SportCatalog.Entry court : courts) {
+            List<WeeklyGridDTO.DayCells> dayRows = new ArrayList<>(days);
+            for (SlotAvailabilityIndex.Day day : availability.get(court.id())) {
+                dayRows.add(toDayCells(day, cells.get(court.id()).get(day.date())));
+            }
+            WeeklyGridDTO.CourtRow row = new WeeklyGridDTO.CourtRow();
+            row.setSportId(court.id());
+            row.setSportName(court.name());
+            row.setCourtName(court.courtName());
+            row.setSlotMinutes(court.slotMinutes());
+            row.setCapacity(court.capacity());
+            row.setDays(dayRows);
+            rows.add(row);
+        }
+
+        Map<Long, WeeklyGridDTO.GridBooking> bookings = new HashMap<>();
+        for (Booking booking : placed.values()) {
+            WeeklyGridDTO.GridBooking entry = new WeeklyGridDTO.GridBooking();
+            entry.setUserId(booking.getUserId());
+            entry.setUserName(userNames.get(booking.getUserId()));
+            entry.setStartTime(booking.getStartTime() != null ? booking.getStartTime().toString() : null);
+            entry.setEndTime(booking.getEndTime() != null ? booking.getEndTime().toString() : null);
+            entry.setAmount(booking.getAmount());
+            entry.setPaymentMode(booking.getPaymentMode());
+            bookings.put(booking.getId(), entry);
         }
+
+        WeeklyGridDTO grid = new WeeklyGridDTO();
+        grid.setFrom(from);
+        grid.setTo(to.toString());
+        grid.setCourts(rows);
+        grid.setBookings(bookings);
+        return grid;
     }
 
-    private boolean isMultiSlotSport(Sport sport) {
-        if (sport == null) {
+    // Whether the booking's [startTime, endTime) includes the minute a slot starts at
+    private static boolean covers(Booking booking, int minute) {
+        if (booking.getStartTime() == null || minute < 0) {
             return false;
         }
-        if (Boolean.TRUE.equals(sport.getIsmuplislot())) {
-            return true;
+        int start = SportScheduleService.minutesOf(booking.getStartTime());
+        int length = booking.getEndTime() == null ? 1
+                : SportScheduleService.durationMinutes(booking.getStartTime(), booking.getEndTime());
+        return Math.floorMod(minute - start, 24 * 60) < length;
+    }
+
+    // Marks every position a booking covers; shared courts only report seat counts
+    private static void placeBooking(
+            Booking booking,
+            List<SlotAvailabilityIndex.Day> courtDays,
+            Map<String, Long[]> courtCells,
+            Map<Long, Booking> placed
+    ) {
+        String date = booking.getSlotDate().toString();
+        Long[] dayCells = courtCells == null ? null : courtCells.get(date);
+        if (dayCells == null || booking.getStartTime() == null) {
+            return;
+        }
+        SlotAvailabilityIndex.Day day = courtDays.stream()
+                .filter(candidate -> candidate.date().equals(date))
+                .findFirst()
+                .orElseThrow();
+        int start = day.positionOf(booking.getStartTime());
+        if (start < 0) {
+            return;
         }
+        int count = booking.getEndTime() == null ? 1
+                : Math.max(SportScheduleService.durationMinutes(booking.getStartTime(), booking.getEndTime())
+                        / day.slotMinutes(), 1);
+        for (int position = start; position < Math.min(start + count, dayCells.length); position++) {
+            dayCells[position] = booking.getId();
+        }
+        placed.put(booking.getId(), booking);
+    }
 
-        String sportName = sport.getName() == null ? "" : sport.getName().trim().toLowerCase(Locale.ROOT);
-        boolean isSwimming = sportName.contains("swimming");
-        if (isSwimming) {
-            sport.setIsmuplislot(true);
-            sportRepository.save(sport);
-            return true;
+    static WeeklyGridDTO.DayCells toDayCells(SlotAvailabilityIndex.Day day, Long[] bookingIds) {
+        WeeklyGridDTO.DayCells cells = new WeeklyGridDTO.DayCells();
+        cells.setDate(day.date());
+        cells.setOpenMask(day.openSlots());
+        long bookedMask = day.bookedSlots();
+        if (day.isMultiSlot()) {
+            for (int position = 0; position < day.bookings().length; position++) {
+                if (day.bookings()[position] > 0) {
+                    bookedMask |= 1L << position;
+                }
+            }
+            cells.setBookedCounts(Arrays.stream(day.bookings()).boxed().toList());
+        } else if (bookingIds != null && Arrays.stream(bookingIds).anyMatch(Objects::nonNull)) {
+            cells.setBookingIds(Arrays.asList(bookingIds));
+        }
+        cells.setBookedMask(bookedMask);
+        return cells;
+    }
+
+    /**
+     * A player's bookings with sport and court names: upcoming ones (today onwards) and
+     * one page of past ones, each a single query on (userId, slotDate). Names come from
+     * the sport catalog, so no Sport or Slot rows are read.
+     */
+    public BookingHistoryResponse getBookingHistory(Integer userId, int page, int size) {
+        if (page < 0) {
+            throw new IllegalArgumentException("Invalid page: must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_HISTORY_PAGE_SIZE));
+        LocalDate today = LocalDate.now(IST);
+
+        BookingHistoryResponse history = new BookingHistoryResponse();
+        history.setUpcoming(bookingRepository
+                .findByUserIdAndSlotDateGreaterThanEqualOrderBySlotDateAscStartTimeAsc(
+                        userId, today, Limit.of(MAX_UPCOMING_BOOKINGS))
+                .stream()
+                .map(this::toHistory)
+                .toList());
+        Page<Booking> past = bookingRepository.findByUserIdAndSlotDateLessThan(userId, today,
+                PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "slotDate", "startTime")));
+        history.setPast(PageResponse.of(past.map(this::toHistory)));
+        return history;
+    }
+
+    /**
+     * A player's bookings, optionally only those booked for {@code from} to {@code to}
+     * inclusive; the range is a single index range on (userId, slotDate).
+     */
+    public List<Booking> getUserBookings(Integer userId, String from, String to) {
+        if (from == null && to == null) {
+            return bookingRepository.findByUserId(userId);
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Invalid range: from and to are required together");
+        }
+        LocalDate first = parseDate(from);
+        LocalDate last = parseDate(to);
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("Invalid range: to must not be before from");
+        }
+        return bookingRepository.findByUserIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(userId, first, last);
+    }
+
+    /**
+     * Bookings made before booked times were stored on the booking copy them from their
+     * slot once, so history and grid queries can filter on Booking.slotDate alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillBookedTimes() {
+        bookingRepository.backfillBookedTimes();
+    }
+
+    private BookingHistoryDTO toHistory(Booking booking) {
+        // A deleted sport leaves its bookings without names rather than failing the page
+        SportCatalog.Entry sport = sportCatalog.snapshot().byId().get(booking.getSportId());
+        BookingHistoryDTO dto = new BookingHistoryDTO();
+        dto.setBookingId(booking.getId());
+        dto.setSportId(booking.getSportId());
+        dto.setSportName(sport != null ? sport.name() : null);
+        dto.setCourtName(sport != null ? sport.courtName() : null);
+        dto.setSlotId(booking.getSlotId());
+        dto.setSlotDate(booking.getSlotDate());
+        dto.setStartTime(booking.getStartTime());
+        dto.setEndTime(booking.getEndTime());
+        dto.setAmount(booking.getAmount());
+        dto.setStatus(booking.getStatus());
+        dto.setPaymentMode(booking.getPaymentMode());
+        dto.setCreatedAt(booking.getCreatedAt());
+        return dto;
+    }
+
+    private static LocalDate parseDate(String date) {
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd");
+        }
+    }
+
+    private void sendSmsSafely(Runnable smsOperation) {
+        try {
+            smsOperation.run();
+        } catch (Exception ignored) {
+            // Avoid failing booking transaction if SMS provider fails.
         }
-        return false;
     }
 
 
@@ -0,0 +1,146 @@
+package com.example.playbox.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded LRU map from RFID card UID to user id for the front-desk scan path.
+ *
+ * Unknown cards are cached too, for a short TTL, so a card that keeps being
+ * tapped before it is registered does not reach MySQL on every tap. Entries
+ * are dropped explicitly whenever a card is created, assigned or cancelled.
+ */
+@Service
+public class CardUidCache {
+
+    /** Returned by {@link #lookup} for a card recently confirmed to have no owner. */
+    public static final int UNKNOWN_CARD = 0;
+
+    private final int maxSize;
+    private final long unknownTtlNanos;
+    private final Map<String, CachedCard> cards;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder unknownHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record CachedCard(int userId, long expiresAtNanos) {
+    }
+
+    public record CacheStats(
+            int size,
+            int maxSize,
+            long hits,
+            long unknownHits,
+            long misses,
+            long evictions,
+            long invalidations,
+            double hitRatio
+    ) {
+    }
+
+    public CardUidCache(
+            @Value("${playbox.card-cache.max-size:10000}") int maxSize,
+            @Value("${playbox.card-cache.unknown-ttl-seconds:15}") long unknownTtlSeconds
+    ) {
+        this.maxSize = maxSize;
+        this.unknownTtlNanos = TimeUnit.SECONDS.toNanos(unknownTtlSeconds);
+        this.cards = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCard> eldest) {
+                boolean evict = size() > CardUidCache.this.maxSize;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * @return the owner's user id, {@link #UNKNOWN_CARD} for a cached unknown card, or null on a miss
+     */
+    public Integer lookup(String cardUid) {
+        CachedCard cached;
+        synchronized (cards) {
+            cached = cards.get(cardUid);
+            if (cached != null && cached.expiresAtNanos() != 0 && System.nanoTime() - cached.expiresAtNanos() >= 0) {
+                cards.remove(cardUid);
+                cached = null;
+            }
+        }
+
+        if (cached == null) {
+            misses.increment();
+            return null;
+        }
+        if (cached.userId() == UNKNOWN_CARD) {
+            unknownHits.increment();
+        } else {
+            hits.increment();
+        }
+        return cached.userId();
+    }
+
+    public void putOwner(String cardUid, int userId) {
+        synchronized (cards) {
+            cards.put(cardUid, new CachedCard(userId, 0));
+        }
+    }
+
+    public void putUnknown(String cardUid) {
+        // expiry 0 means "never", so nudge a zero deadline by one nanosecond
+        long expiresAt = System.nanoTime() + unknownTtlNanos;
+        synchronized (cards) {
+            cards.put(cardUid, new CachedCard(UNKNOWN_CARD, expiresAt == 0 ? 1 : expiresAt));
+        }
+    }
+
+    /**
+     * Drops the card now and again once the current transaction commits, so a
+     * scan racing with the change cannot leave the old owner cached.
+     */
+    public void invalidate(String cardUid) {
+        if (cardUid == null) {
+            return;
+        }
+        remove(cardUid);
+        AfterCommit.run(() -> remove(cardUid));
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (cards) {
+            size = cards.size();
+        }
+        long hitCount = hits.sum();
+        long unknownHitCount = unknownHits.sum();
+        long missCount = misses.sum();
+        long lookups = hitCount + unknownHitCount + missCount;
+        return new CacheStats(
+                size,
+                maxSize,
+                hitCount,
+                unknownHitCount,
+                missCount,
+                evictions.sum(),
+                invalidations.sum(),
+                lookups == 0 ? 0.0 : (double) (hitCount + unknownHitCount) / lookups
+        );
+    }
+
+    private void remove(String cardUid) {
+        synchronized (cards) {
+            if (cards.remove(cardUid) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.playbox.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.stereotype.Service;
+
+import com.example.playbox.dto.CourtAvailabilityDTO;
+import com.example.playbox.exception.SlotUnavailableException;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Courts of a sport. Sport rows that share a name (Pickleball on Court1 and Court2)
+ * are the courts of one sport, each with its own slot calendar. For an hour, bit i of
+ * the free-court mask is set when court i can still be booked; masks are built from
+ * the availability index, so picking a court reads no rows and locks none.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourtService {
+
+    /** Masks are longs, so a sport has at most 64 courts. */
+    static final int MAX_COURTS = 64;
+
+    private final SportCatalog sportCatalog;
+    private final SlotService slotService;
+
+    /** Active courts of the sport {@code sportId} belongs to, in id order. */
+    public List<SportCatalog.Entry> courtsOf(Long sportId) {
+        String name = normalize(sportCatalog.get(sportId).name());
+        return sportCatalog.all().stream()
+                .filter(court -> court.id().equals(sportId)
+                        || (!Boolean.FALSE.equals(court.active()) && normalize(court.name()).equals(name)))
+                .limit(MAX_COURTS)
+                .toList();
+    }
+
+    /** Free and total courts of the sport for each start time of the date. */
+    public List<CourtAvailabilityDTO> getAvailability(Long sportId, String date) {
+        List<SlotAvailabilityIndex.Day> days = courtDays(sportId, date);
+        Map<Integer, CourtAvailabilityDTO> byStart = new TreeMap<>();
+        for (SlotAvailabilityIndex.Day day : days) {
+            for (int position = 0; position < day.slotIds().length; position++) {
+                if ((day.openSlots() & (1L << position)) == 0) {
+                    continue;
+                }
+                int start = position * day.slotMinutes();
+                CourtAvailabilityDTO hour = byStart.computeIfAbsent(start, minute -> {
+                    CourtAvailabilityDTO dto = new CourtAvailabilityDTO();
+                    dto.setSlotDate(date);
+                    dto.setStartTime(SportScheduleService.timeOf(minute));
+                    dto.setEndTime(SportScheduleService.timeOf(minute + day.slotMinutes()));
+                    dto.setTotalCourts(0);
+                    dto.setFreeCourts(0);
+                    return dto;
+                });
+                hour.setTotalCourts(hour.getTotalCourts() + 1);
+                if (day.isFree(position)) {
+                    hour.setFreeCourts(hour.getFreeCourts() + 1);
+                }
+            }
+        }
+        return new ArrayList<>(byStart.values());
+    }
+
+    /**
+     * Slot ids of the courts free at the start time, in the order they should be tried.
+     * Ids are virtual for courts whose slot has no row yet.
+     *
+     * @throws SlotUnavailableException when every court is taken at that time
+     */
+    public List<Long> freeCourtSlots(Long sportId, String date, String startTime) {
+        List<SlotAvailabilityIndex.Day> days = courtDays(sportId, date);
+        Long firstOpen = null;
+        for (SlotAvailabilityIndex.Day day : days) {
+            int position = day.positionOf(startTime);
+            if (position >= 0 && (day.openSlots() & (1L << position)) != 0) {
+                firstOpen = day.slotIds()[position];
+                break;
+            }
+        }
+        if (firstOpen == null) {
+            throw new RuntimeException("Slot not found");
+        }
+
+        long mask = freeCourtMask(days, startTime);
+        if (mask == 0) {
+            throw new SlotUnavailableException(firstOpen);
+        }
+        List<Long> slotIds = new ArrayList<>(Long.bitCount(mask));
+        for (long remaining = mask; remaining != 0; remaining &= remaining - 1) {
+            SlotAvailabilityIndex.Day day = days.get(Long.numberOfTrailingZeros(remaining));
+            slotIds.add(day.slotIds()[day.positionOf(startTime)]);
+        }
+        return slotIds;
+    }
+
+    /** Bit i set when {@code days.get(i)} can take a booking at the start time. */
+    static long freeCourtMask(List<SlotAvailabilityIndex.Day> days, String startTime) {
+        long mask = 0;
+        for (int court = 0; court < days.size(); court++) {
+            SlotAvailabilityIndex.Day day = days.get(court);
+            if (day.isFree(day.positionOf(startTime))) {
+                mask |= 1L << court;
+            }
+        }
+        return mask;
+    }
+
+    private List<SlotAvailabilityIndex.Day> courtDays(Long sportId, String date) {
+        return courtsOf(sportId).stream()
+                .map(court -> slotService.getAvailability(court.id(), date))
+                .toList();
+    }
+
+    private static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.playbox.service;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/** Takes the id from the {@code IdSequence} row named {@link #value()}. */
+@IdGeneratorType(IdBlockGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface IdBlock {
+
+    String value();
+}
@@ -0,0 +1,84 @@
+package com.example.playbox.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Ids for the tables that share the {@code IdSequence} row per table: entities draw
+ * through {@link IdBlockGenerator}, native INSERTs call this directly, so the two never
+ * hand out the same id. The stored value is the next free id.
+ */
+@Component
+public class IdBlockAllocator {
+
+    private static final int LOCAL_BLOCK_SIZE = 50;
+
+    private final HikariDataSource dataSource;
+
+    private final Map<String, long[]> localBlocks = new HashMap<>();
+
+    public IdBlockAllocator(DataSourceProperties properties) {
+        this.dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        this.dataSource.setPoolName("IdBlocks");
+        this.dataSource.setMaximumPoolSize(2);
+        this.dataSource.setMinimumIdle(0);
+        this.dataSource.setAutoCommit(true);
+    }
+
+    /** One id, from a block held in memory so single inserts rarely touch the table. */
+    public synchronized long next(String segment) {
+        long[] block = localBlocks.get(segment);
+        if (block == null || block[0] > block[1]) {
+            long first = reserve(segment, LOCAL_BLOCK_SIZE);
+            block = new long[] {first, first + LOCAL_BLOCK_SIZE - 1};
+            localBlocks.put(segment, block);
+        }
+        return block[0]++;
+    }
+
+    /**
+     * Reserves {@code count} consecutive ids and returns the first. The increment runs
+     * on a pool of its own and commits at once: joined to the caller's transaction, a
+     * rollback would undo it while the ids stayed cached here, and drawing from the main
+     * pool would let callers that hold all its connections wait on each other for one.
+     */
+    public long reserve(String segment, int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid id count: " + count);
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE `IdSequence` SET `next_val` = LAST_INSERT_ID(`next_val` + ?) WHERE `name` = ?")) {
+                update.setInt(1, count);
+                update.setString(2, segment);
+                if (update.executeUpdate() == 0) {
+                    throw new IllegalStateException("No id sequence for " + segment);
+                }
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT LAST_INSERT_ID()");
+                    ResultSet next = select.executeQuery()) {
+                next.next();
+                return next.getLong(1) - count;
+            }
+        } catch (SQLException ex) {
+            throw new DataAccessResourceFailureException("Could not reserve ids for " + segment, ex);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        dataSource.close();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.playbox.service;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.AnnotationBasedGenerator;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+/**
+ * Entity ids from {@link IdBlockAllocator}. Hibernate creates this through Spring's
+ * bean container (hibernate.cdi.extensions), which supplies the allocator.
+ */
+public class IdBlockGenerator implements BeforeExecutionGenerator, AnnotationBasedGenerator<IdBlock> {
+
+    private final transient IdBlockAllocator idAllocator;
+
+    private String segment;
+
+    // Integer for the ledger, Long everywhere else
+    private boolean intIds;
+
+    public IdBlockGenerator(IdBlockAllocator idAllocator) {
+        this.idAllocator = idAllocator;
+    }
+
+    @Override
+    public void initialize(IdBlock annotation, Member member, GeneratorCreationContext context) {
+        this.segment = annotation.value();
+        this.intIds = ((Field) member).getType() == Integer.class;
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue,
+            EventType eventType) {
+        long id = idAllocator.next(segment);
+        return intIds ? (Object) Math.toIntExact(id) : (Object) id;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
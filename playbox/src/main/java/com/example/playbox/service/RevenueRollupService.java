@@ -0,0 +1,212 @@
+package com.example.playbox.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.dto.DailyRevenueDashboardResponse;
+import com.example.playbox.model.RevenueRollup;
+import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.repository.RevenueRollupRepository;
+import com.example.playbox.repository.TransactionRepository;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class RevenueRollupService {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final int REBUILD_CHUNK_DAYS = 7;
+    private static final int MOST_ACTIVE_LIMIT = 20;
+    private static final int RECONCILE_DAYS = 2;
+
+    private final RevenueRollupRepository rollupRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Committed ledger totals not yet written to RevenueRollup
+    private final Map<RollupKey, Totals> pending = new ConcurrentHashMap<>();
+
+    record RollupKey(String dimension, LocalDate day, String dimensionKey, String type) {
+    }
+
+    record Totals(String label, long txnCount, double amount) {
+
+        Totals plus(Totals other) {
+            return new Totals(other.label != null ? other.label : label,
+                    txnCount + other.txnCount, amount + other.amount);
+        }
+    }
+
+    // Days a rebuild is recounting from ledger rows timestamped before cut
+    record Rebuild(LocalDate from, LocalDate to, Instant cut) {
+
+        boolean counts(LocalDate day, Instant at) {
+            return !day.isBefore(from) && !day.isAfter(to) && at.isBefore(cut);
+        }
+    }
+
+    private volatile Rebuild rebuilding;
+
+    /**
+     * Buffers a ledger row for its day's staff and user rollups once the ledger write
+     * commits. Ledger writes never touch RevenueRollup themselves, so busy staff and
+     * days do not become a row every booking and recharge queues on; {@link #flush()}
+     * writes the buffered totals and {@link #reconcile()} rebuilds closed days.
+     */
+    public void recordLedgerEntry(TransactionEntity tx) {
+        Instant at = tx.getTimestamp() == null ? Instant.now() : tx.getTimestamp();
+        LocalDate day = at.atZone(IST).toLocalDate();
+        double amount = tx.getAmount() == null ? 0.0 : tx.getAmount();
+        RollupKey staff = new RollupKey(RevenueRollup.STAFF, day,
+                tx.getAdminName() == null ? "" : tx.getAdminName(), tx.getType());
+        RollupKey user = new RollupKey(RevenueRollup.USER, day, String.valueOf(tx.getUserId()), tx.getType());
+        Totals staffTotals = new Totals(tx.getAdminName(), 1, amount);
+        Totals userTotals = new Totals(tx.getUserName(), 1, amount);
+
+        AfterCommit.run(() -> {
+            // Committed before the rebuild reads the ledger, so it is counted there
+            Rebuild rebuild = rebuilding;
+            if (rebuild != null && rebuild.counts(day, at)) {
+                return;
+            }
+            pending.merge(staff, staffTotals, Totals::plus);
+            pending.merge(user, userTotals, Totals::plus);
+        });
+    }
+
+    /**
+     * Writes the buffered totals, one upsert per rollup row in a single transaction.
+     * On failure they go back into the buffer for the next flush.
+     */
+    @Scheduled(fixedDelayString = "${playbox.rollups.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        Map<RollupKey, Totals> batch = new HashMap<>();
+        for (RollupKey key : pending.keySet()) {
+            Totals totals = pending.remove(key);
+            if (totals != null) {
+                batch.put(key, totals);
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> batch.forEach((key, totals) ->
+                    rollupRepository.addTotals(key.dimension(), key.day(), key.dimensionKey(), key.type(),
+                            totals.label(), totals.txnCount(), totals.amount())));
+        } catch (RuntimeException ex) {
+            batch.forEach((key, totals) -> pending.merge(key, totals, Totals::plus));
+            throw ex;
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Rebuilds the last closed IST days from the ledger, the source of truth: it repairs
+     * totals lost from the buffer by a crash and any drift from the incremental path.
+     */
+    @Scheduled(cron = "${playbox.rollups.reconcile-cron:0 30 2 * * *}", zone = "Asia/Kolkata")
+    public void reconcile() {
+        LocalDate yesterday = LocalDate.now(IST).minusDays(1);
+        rebuild(yesterday.minusDays(RECONCILE_DAYS - 1L), yesterday);
+    }
+
+    /** Deposits, deductions and the most active staff and users over [from, to], IST days. */
+    @Transactional(readOnly = true)
+    public DailyRevenueDashboardResponse getDashboard(LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("Invalid range: from must not be after to");
+        }
+        double deposited = 0.0;
+        double deducted = 0.0;
+        for (Object[] row : rollupRepository.totalsByType(from, to)) {
+            double amount = row[1] == null ? 0.0 : ((Number) row[1]).doubleValue();
+            if ("ADD".equals(row[0])) {
+                deposited += amount;
+            } else if ("DEDUCT".equals(row[0]) || "BOOKING".equals(row[0])) {
+                deducted += amount;
+            }
+        }
+
+        DailyRevenueDashboardResponse response = new DailyRevenueDashboardResponse();
+        response.setTotalDeposited(deposited);
+        response.setTotalDeducted(deducted);
+        response.setNetCashflow(deposited - deducted);
+        response.setMostActiveStaff(mostActive(RevenueRollup.STAFF, from, to));
+        response.setMostActiveUsers(mostActive(RevenueRollup.USER, from, to));
+        return response;
+    }
+
+    /**
+     * Recomputes the rollups of days {@code from} to {@code to} from PlayboxTransactions,
+     * a week per transaction so a long backfill never holds locks for the whole range.
+     * Only ledger rows timestamped before the rebuild started are read; entries for those
+     * rows that commit meanwhile are dropped from the buffer, as the rebuild counts them,
+     * while later rows reach the rebuilt days through the buffer. Buffered totals are
+     * flushed first, and no flush runs until the rebuild is done.
+     *
+     * @return number of rollup rows written
+     */
+    public synchronized int rebuild(LocalDate from, LocalDate to) {
+        Instant cut = Instant.now();
+        rebuilding = new Rebuild(from, to, cut);
+        try {
+            flush();
+            int written = 0;
+            for (LocalDate chunk = from; !chunk.isAfter(to); chunk = chunk.plusDays(REBUILD_CHUNK_DAYS)) {
+                LocalDate first = chunk;
+                LocalDate last = chunk.plusDays(REBUILD_CHUNK_DAYS - 1L).isAfter(to) ? to : chunk.plusDays(REBUILD_CHUNK_DAYS - 1L);
+                Instant end = last.plusDays(1).atStartOfDay(IST).toInstant();
+                Instant readTo = end.isAfter(cut) ? cut : end;
+                Integer rows = transactionTemplate.execute(status -> {
+                    rollupRepository.deleteDays(first, last);
+                    return rollupRepository.rebuildRange(first.atStartOfDay(IST).toInstant(), readTo);
+                });
+                written += rows == null ? 0 : rows;
+            }
+            return written;
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    // Backfill once when the table is introduced on an existing database
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (rollupRepository.count() > 0) {
+            return;
+        }
+        Instant first = transactionRepository.findFirstTimestamp();
+        if (first != null) {
+            rebuild(first.atZone(IST).toLocalDate(), LocalDate.now(IST));
+        }
+    }
+
+    private List<DailyRevenueDashboardResponse.StatItem> mostActive(String dimension, LocalDate from, LocalDate to) {
+        return rollupRepository.mostActive(dimension, from, to, Limit.of(MOST_ACTIVE_LIMIT)).stream()
+                .map(r -> new DailyRevenueDashboardResponse.StatItem(
+                        (String) r[0],
+                        ((Number) r[1]).longValue()
+                ))
+                .toList();
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.playbox.service;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.example.playbox.dto.SlotDetailsDTO;
+
+/**
+ * Slot availability per (sportId, date), kept off the database read path.
+ *
+ * Each day is one immutable {@link Day} laid out by its schedule template: position
+ * p starts p * slotMinutes after midnight. It holds the slot id for each position
+ * (virtual until the slot is booked), a bitset of positions that are open and a
+ * bitset of booked positions. Multi-slot sports such as swimming are never "booked",
+ * so they carry a booking counter per position instead. Days are loaded lazily and
+ * replaced copy-on-write when a booking commits.
+ */
+public class SlotAvailabilityIndex {
+
+    /** Bitsets are longs, so a day has at most 64 positions (slots of 23+ minutes). */
+    static final int MAX_POSITIONS = 64;
+
+    private final Map<Key, Day> days = new ConcurrentHashMap<>();
+    // Bumped on every change so a load that raced with a booking is not cached
+    private final AtomicLong version = new AtomicLong();
+    private final long ttlNanos;
+
+    private record Key(long sportId, String date) {
+    }
+
+    /**
+     * @param slotIds     slot id per position; negative ids are virtual slots
+     * @param openSlots   bit p set when position p is bookable
+     * @param bookedSlots bit p set when position p is booked (single-occupancy sports)
+     * @param bookings    confirmed bookings per position for multi-slot sports, else null
+     */
+    public record Day(
+            long sportId,
+            String date,
+            int slotMinutes,
+            int capacity,
+            long[] slotIds,
+            long openSlots,
+            long bookedSlots,
+            int[] bookings,
+            long loadedAtNanos
+    ) {
+
+        public boolean isEmpty() {
+            return openSlots == 0;
+        }
+
+        public boolean isMultiSlot() {
+            return bookings != null;
+        }
+
+        public boolean isBooked(int position) {
+            return (bookedSlots & (1L << position)) != 0;
+        }
+
+        /** True when position p is open and can still take a booking. */
+        public boolean isFree(int position) {
+            if (position < 0 || position >= slotIds.length || (openSlots & (1L << position)) == 0) {
+                return false;
+            }
+            return bookings != null ? bookings[position] < capacity : !isBooked(position);
+        }
+
+        /** True when all {@code count} positions from {@code position} are within opening hours. */
+        public boolean isRangeOpen(int position, int count) {
+            if (position < 0 || count < 1 || position + count > slotIds.length) {
+                return false;
+            }
+            long range = rangeMask(position, count);
+            return (openSlots & range) == range;
+        }
+
+        /** Overlap check for a single-occupancy range: one mask test, no allocation. */
+        public boolean isRangeFree(int position, int count) {
+            return isRangeOpen(position, count) && (bookedSlots & rangeMask(position, count)) == 0;
+        }
+
+        /** Bit p set when {@code count} consecutive positions from p are free. */
+        public long freeRunStarts(int count) {
+            long free = openSlots & ~bookedSlots;
+            long starts = free;
+            for (int shift = 1; shift < count && starts != 0; shift++) {
+                starts &= free >>> shift;
+            }
+            return starts;
+        }
+
+        public int freeSlots() {
+            return isMultiSlot() ? Long.bitCount(openSlots) : Long.bitCount(openSlots & ~bookedSlots);
+        }
+
+        /** Position of an "HH:mm" start time, or -1 when it is not a slot boundary of this day. */
+        public int positionOf(String startTime) {
+            return positionAt(SportScheduleService.minutesOf(startTime));
+        }
+
+        public int positionOf(LocalTime startTime) {
+            return positionAt(SportScheduleService.minutesOf(startTime));
+        }
+
+        private int positionAt(int minute) {
+            if (minute < 0 || minute % slotMinutes != 0) {
+                return -1;
+            }
+            int position = minute / slotMinutes;
+            return position < slotIds.length ? position : -1;
+        }
+
+        public List<SlotDetailsDTO> toSlots() {
+            List<SlotDetailsDTO> slots = new ArrayList<>(Long.bitCount(openSlots));
+            for (int position = 0; position < slotIds.length; position++) {
+                if ((openSlots & (1L << position)) == 0) {
+                    continue;
+                }
+                int start = position * slotMinutes;
+                SlotDetailsDTO dto = new SlotDetailsDTO();
+                dto.setId(slotIds[position]);
+                dto.setSportId(sportId);
+                dto.setSlotDate(date);
+                dto.setStartTime(SportScheduleService.timeOf(start));
+                dto.setEndTime(SportScheduleService.timeOf(start + slotMinutes));
+                dto.setBooked(isBooked(position));
+                dto.setBookedCount(bookings != null ? bookings[position] : (isBooked(position) ? 1 : 0));
+                dto.setRemaining(Math.max(capacity - dto.getBookedCount(), 0));
+                slots.add(dto);
+            }
+            return slots;
+        }
+
+        Day withBooking(int position, long slotId) {
+            long[] ids = slotIds;
+            if (ids[position] != slotId) {
+                ids = Arrays.copyOf(slotIds, slotIds.length);
+                ids[position] = slotId;
+            }
+            if (bookings == null) {
+                return new Day(sportId, date, slotMinutes, capacity, ids, openSlots,
+                        bookedSlots | (1L << position), null, loadedAtNanos);
+            }
+            int[] counts = Arrays.copyOf(bookings, bookings.length);
+            counts[position]++;
+            return new Day(sportId, date, slotMinutes, capacity, ids, openSlots, bookedSlots, counts, loadedAtNanos);
+        }
+    }
+
+    /** Mutable builder used while loading a day. */
+    public static final class DayBuilder {
+
+        private final long sportId;
+        private final String date;
+        private final int slotMinutes;
+        private final int capacity;
+        private final long[] slotIds;
+        private final int[] bookings;
+        private long openSlots;
+        private long bookedSlots;
+
+        public DayBuilder(long sportId, String date, int slotMinutes, int capacity) {
+            this.sportId = sportId;
+            this.date = date;
+            this.slotMinutes = slotMinutes;
+            this.capacity = capacity;
+            this.slotIds = new long[Math.min(SportScheduleService.MINUTES_PER_DAY / slotMinutes, MAX_POSITIONS)];
+            this.bookings = capacity > 1 ? new int[slotIds.length] : null;
+        }
+
+        public DayBuilder slot(int position, long slotId, boolean booked) {
+            slotIds[position] = slotId;
+            openSlots |= 1L << position;
+            if (booked && bookings == null) {
+                bookedSlots |= 1L << position;
+            }
+            return this;
+        }
+
+        public DayBuilder addBookings(int position, int count) {
+            if (bookings != null) {
+                bookings[position] += count;
+            }
+            return this;
+        }
+
+        public boolean isOpen(int position) {
+            return position >= 0 && position < slotIds.length && (openSlots & (1L << position)) != 0;
+        }
+
+        Day build() {
+            return new Day(sportId, date, slotMinutes, capacity, slotIds, openSlots, bookedSlots, bookings,
+                    System.nanoTime());
+        }
+    }
+
+    static long rangeMask(int position, int count) {
+        return (count >= MAX_POSITIONS ? -1L : (1L << count) - 1) << position;
+    }
+
+    public SlotAvailabilityIndex(long ttlNanos) {
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * Returns the cached day, loading it with {@code loader} when missing or expired.
+     * Days without open slots are not cached.
+     */
+    public Day get(long sportId, String date, Supplier<DayBuilder> loader) {
+        Key key = new Key(sportId, date);
+        Day cached = days.get(key);
+        if (cached != null && !isExpired(cached)) {
+            return cached;
+        }
+
+        long versionBefore = version.get();
+        Day loaded = loader.get().build();
+        if (!loaded.isEmpty() && version.get() == versionBefore) {
+            days.put(key, loaded);
+        }
+        return loaded;
+    }
+
+    /** The cached day, or null when it is not loaded or has expired. */
+    public Day peek(long sportId, String date) {
+        Day cached = days.get(new Key(sportId, date));
+        return cached != null && !isExpired(cached) ? cached : null;
+    }
+
+    /**
+     * Caches a day built outside {@link #get}, unless a booking or invalidation happened
+     * since {@code versionBefore} was read.
+     */
+    public boolean putIfUnchanged(DayBuilder builder, long versionBefore) {
+        return putIfUnchanged(builder.build(), versionBefore);
+    }
+
+    public boolean putIfUnchanged(Day day, long versionBefore) {
+        if (day.isEmpty() || version.get() != versionBefore) {
+            return false;
+        }
+        days.put(new Key(day.sportId(), day.date()), day);
+        return true;
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /** Applies a committed booking to a loaded day; unloaded days pick it up on load. */
+    public void recordBooking(long sportId, String date, String startTime, long slotId) {
+        version.incrementAndGet();
+        days.computeIfPresent(new Key(sportId, date), (key, day) -> {
+            int position = day.positionOf(startTime);
+            return position < 0 ? null : day.withBooking(position, slotId);
+        });
+    }
+
+    /** Drops every cached day of a sport, e.g. after its schedule template changed. */
+    public void invalidateSport(long sportId) {
+        version.incrementAndGet();
+        days.keySet().removeIf(key -> key.sportId() == sportId);
+    }
+
+    public void clear() {
+        version.incrementAndGet();
+        days.clear();
+    }
+
+    public void evictExpired() {
+        days.values().removeIf(this::isExpired);
+    }
+
+    public int size() {
+        return days.size();
+    }
+
+    private boolean isExpired(Day day) {
+        return System.nanoTime() - day.loadedAtNanos() > ttlNanos;
+    }
+}
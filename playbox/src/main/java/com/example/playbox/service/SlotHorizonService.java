@@ -0,0 +1,211 @@
+package com.example.playbox.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+
+/**
+ * Prepares the next {@code horizon-days} of slots for every active sport: each day is
+ * loaded into the availability index so the first view of a date is a memory read.
+ *
+ * Slots are virtual until booked, so rows are not needed ahead of time. Deployments
+ * that want physical rows anyway (e.g. for external reporting) can set
+ * {@code materialize-rows}; rows are then written as multi-row INSERT IGNORE
+ * statements that lean on the unique (sportId, slotDate, startTime) key.
+ */
+@Service
+public class SlotHorizonService {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    private final SportCatalog sportCatalog;
+    private final SportScheduleService scheduleService;
+    private final SlotService slotService;
+    private final JdbcTemplate jdbcTemplate;
+    private final IdBlockAllocator idAllocator;
+    private final int horizonDays;
+    private final boolean materializeRows;
+    private final int insertBatchSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile LocalDate materializedThrough;
+    private final AtomicReference<HorizonRun> lastRun = new AtomicReference<>();
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder totalDurationMs = new LongAdder();
+    private volatile long maxDurationMs;
+
+    public record HorizonRun(
+            Instant startedAt,
+            long durationMs,
+            int sports,
+            int daysWarmed,
+            long rowsInserted
+    ) {
+    }
+
+    public record HorizonStats(
+            HorizonRun lastRun,
+            long runs,
+            long averageDurationMs,
+            long maxDurationMs,
+            int horizonDays,
+            boolean materializeRows
+    ) {
+    }
+
+    public SlotHorizonService(
+            SportCatalog sportCatalog,
+            SportScheduleService scheduleService,
+            SlotService slotService,
+            JdbcTemplate jdbcTemplate,
+            IdBlockAllocator idAllocator,
+            @Value("${playbox.slots.horizon-days:14}") int horizonDays,
+            @Value("${playbox.slots.materialize-rows:false}") boolean materializeRows,
+            @Value("${playbox.slots.insert-batch-size:500}") int insertBatchSize
+    ) {
+        this.sportCatalog = sportCatalog;
+        this.scheduleService = scheduleService;
+        this.slotService = slotService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.idAllocator = idAllocator;
+        this.horizonDays = horizonDays;
+        this.materializeRows = materializeRows;
+        this.insertBatchSize = insertBatchSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prepareOnStartup() {
+        runHorizon();
+    }
+
+    // Runs a little more often than the availability TTL so horizon days never go cold
+    @Scheduled(
+            fixedDelayString = "${playbox.slots.horizon-refresh-ms:240000}",
+            initialDelayString = "${playbox.slots.horizon-refresh-ms:240000}"
+    )
+    public void refresh() {
+        runHorizon();
+    }
+
+    /**
+     * @return the run, or null when another run is already in progress
+     */
+    public HorizonRun runHorizon() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+            LocalDate today = LocalDate.now(IST);
+
+            // Rows only need writing once per day, when a new date enters the horizon
+            boolean insertRows = materializeRows && !today.equals(materializedThrough);
+
+            int sports = 0;
+            int daysWarmed = 0;
+            long rowsInserted = 0;
+            for (SportCatalog.Entry sport : sportCatalog.all()) {
+                if (Boolean.FALSE.equals(sport.active())) {
+                    continue;
+                }
+                sports++;
+                if (insertRows) {
+                    rowsInserted += insertMissingRows(sport.id(), today);
+                }
+                daysWarmed += slotService.warmAvailability(sport.id(), today, horizonDays);
+            }
+            if (insertRows) {
+                materializedThrough = today;
+            }
+
+            HorizonRun run = new HorizonRun(startedAt,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), sports, daysWarmed, rowsInserted);
+            record(run);
+            return run;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public HorizonStats getStats() {
+        long runCount = runs.sum();
+        return new HorizonStats(
+                lastRun.get(),
+                runCount,
+                runCount == 0 ? 0 : totalDurationMs.sum() / runCount,
+                maxDurationMs,
+                horizonDays,
+                materializeRows
+        );
+    }
+
+    private long insertMissingRows(Long sportId, LocalDate from) {
+        SportScheduleService.Template template = scheduleService.get(sportId);
+        List<Object[]> rows = new ArrayList<>();
+        for (int offset = 0; offset < horizonDays; offset++) {
+            LocalDate date = from.plusDays(offset);
+            for (int start : template.startMinutes()) {
+                rows.add(new Object[] {
+                        sportId,
+                        date,
+                        SportScheduleService.localTimeOf(start),
+                        SportScheduleService.localTimeOf(start + template.slotMinutes())
+                });
+            }
+        }
+
+        long inserted = 0;
+        for (int i = 0; i < rows.size(); i += insertBatchSize) {
+            List<Object[]> chunk = rows.subList(i, Math.min(i + insertBatchSize, rows.size()));
+            inserted += insertIgnore(chunk);
+        }
+        return inserted;
+    }
+
+    // One statement per chunk; rows that already exist are skipped by the unique key
+    // and leave their reserved id unused. IGNORE would skip a row whose reserved id is
+    // taken as well, so a short count is checked against the reserved id range.
+    private int insertIgnore(List<Object[]> chunk) {
+        String sql = "INSERT IGNORE INTO Slot (id, sportId, slotDate, startTime, endTime, booked, taken) VALUES "
+                + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, ?, false, 0)"));
+        long firstId = idAllocator.reserve("Slot", chunk.size());
+        Object[] args = new Object[chunk.size() * 5];
+        for (int i = 0; i < chunk.size(); i++) {
+            args[i * 5] = firstId + i;
+            System.arraycopy(chunk.get(i), 0, args, i * 5 + 1, 4);
+        }
+        int inserted = jdbcTemplate.update(sql, args);
+        if (inserted < chunk.size()) {
+            Integer used = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM Slot WHERE id BETWEEN ? AND ?",
+                    Integer.class, firstId, firstId + chunk.size() - 1);
+            if (used != null && used > inserted) {
+                throw new IllegalStateException("Slot ids " + firstId + " to " + (firstId + chunk.size() - 1)
+                        + " were partly in use already");
+            }
+        }
+        return inserted;
+    }
+
+    private void record(HorizonRun run) {
+        lastRun.set(run);
+        runs.increment();
+        totalDurationMs.add(run.durationMs());
+        maxDurationMs = Math.max(maxDurationMs, run.durationMs());
+    }
+}
@@ -1,106 +1,456 @@
 package com.example.playbox.service;
 
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.example.playbox.dto.FreeRangeDTO;
+import com.example.playbox.dto.SlotDetailsDTO;
+import com.example.playbox.exception.SlotUnavailableException;
 import com.example.playbox.model.Slot;
 import com.example.playbox.model.Sport;
+import com.example.playbox.model.SportSchedule;
 import com.example.playbox.repository.SlotRepository;
-import com.example.playbox.repository.SportRepository;
 
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Slots are computed from each sport's schedule template; a Slot row is written only
+ * when a slot is first booked. Until then the slot carries a virtual id (see
+ * {@link VirtualSlotId}) that booking endpoints accept like any other slot id.
+ */
 @Service
 @RequiredArgsConstructor
 public class SlotService {
 
+    private static final int PRUNE_BATCH_SIZE = 1000;
+    private static final int MAX_RANGE_SEARCH_DAYS = 31;
+
     private final SlotRepository slotRepository;
-    private final SportRepository sportRepository;
+    private final SportScheduleService scheduleService;
+    private final SportCatalog sportCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final IdBlockAllocator idAllocator;
 
-    @Transactional
-    public void generateSlotsForDate(Long sportId, String date) {
+    @Value("${playbox.availability.ttl-seconds:300}")
+    private long availabilityTtlSeconds;
 
-        // 🔹 Fetch sport entity
-        Sport sport = sportRepository.findById(sportId)
-                .orElseThrow(() -> new RuntimeException("Sport not found"));
+    private SlotAvailabilityIndex availabilityIndex;
+    private TransactionTemplate requiresNew;
 
-        // 🔹 Check if slots already exist
-        List<Slot> existing =
-                slotRepository.findBySport_IdAndSlotDate(sportId, date);
+    @PostConstruct
+    void initAvailabilityIndex() {
+        availabilityIndex = new SlotAvailabilityIndex(TimeUnit.SECONDS.toNanos(availabilityTtlSeconds));
+    }
 
-        if (!existing.isEmpty()) {
-            return;
+    @PostConstruct
+    void initRequiresNew() {
+        requiresNew = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // The lookup after an ignored insert has to see the row a concurrent request committed
+        requiresNew.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    /**
+     * Slots for the date, answered from the availability index; MySQL is only read
+     * the first time a (sport, date) is seen or after the entry expires, and never written.
+     */
+    public List<SlotDetailsDTO> getSlotsForDate(Long sportId, String date) {
+        return getAvailability(sportId, date).toSlots();
+    }
+
+    public SlotAvailabilityIndex.Day getAvailability(Long sportId, String date) {
+        LocalDate day = parseDate(date);
+        return availabilityIndex.get(sportId, date, () -> loadAvailability(sportId, day, day).get(date));
+    }
+
+    /**
+     * {@code days} consecutive days of each sport, keyed by sport id in the given order.
+     * Days already in the index are memory reads; the rest of all sports are loaded
+     * together with one Slot query.
+     */
+    public Map<Long, List<SlotAvailabilityIndex.Day>> getAvailability(List<Long> sportIds, String from, int days) {
+        LocalDate first = parseDate(from);
+        if (days < 1 || days > MAX_RANGE_SEARCH_DAYS) {
+            throw new IllegalArgumentException("Invalid days: must be between 1 and " + MAX_RANGE_SEARCH_DAYS);
         }
 
-        // Swimming Pool only: 08:00 AM to 10:00 PM (last slot 21:00-22:00)
-        int startHour = isSwimmingSport(sport) ? 8 : 0;
-        int endExclusive = isSwimmingSport(sport) ? 22 : 24;
-        for (int hour = startHour; hour < endExclusive; hour++) {
+        Map<Long, List<SlotAvailabilityIndex.Day>> result = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long sportId : sportIds) {
+            List<SlotAvailabilityIndex.Day> cached = new ArrayList<>(days);
+            for (int offset = 0; offset < days; offset++) {
+                SlotAvailabilityIndex.Day day = availabilityIndex.peek(sportId, first.plusDays(offset).toString());
+                if (day == null) {
+                    missing.add(sportId);
+                    break;
+                }
+                cached.add(day);
+            }
+            result.put(sportId, cached);
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long versionBefore = availabilityIndex.version();
+        Map<Long, Map<String, SlotAvailabilityIndex.DayBuilder>> loaded =
+                loadAvailability(missing, first, first.plusDays(days - 1L));
+        for (Long sportId : missing) {
+            List<SlotAvailabilityIndex.Day> built = new ArrayList<>(days);
+            for (SlotAvailabilityIndex.DayBuilder builder : loaded.get(sportId).values()) {
+                SlotAvailabilityIndex.Day day = builder.build();
+                availabilityIndex.putIfUnchanged(day, versionBefore);
+                built.add(day);
+            }
+            result.put(sportId, built);
+        }
+        return result;
+    }
 
-            String startTime = String.format("%02d:00", hour);
-            String endTime = String.format("%02d:00", (hour + 1) % 24);
+    /**
+     * Loads {@code days} consecutive days of a sport into the availability index so
+     * the first view of each is served from memory.
+     *
+     * @return number of days cached
+     */
+    public int warmAvailability(Long sportId, LocalDate from, int days) {
+        long versionBefore = availabilityIndex.version();
+        int warmed = 0;
+        for (SlotAvailabilityIndex.DayBuilder day : loadAvailability(sportId, from, from.plusDays(days - 1L)).values()) {
+            if (availabilityIndex.putIfUnchanged(day, versionBefore)) {
+                warmed++;
+            }
+        }
+        return warmed;
+    }
 
-            Slot slot = new Slot();
-            slot.setSport(sport);   // ✅ IMPORTANT FIX
-            slot.setSlotDate(date);
-            slot.setStartTime(startTime);
-            slot.setEndTime(endTime);
-            slot.setBooked(false);
+    /**
+     * Start times on each of {@code days} days at which {@code durationMinutes} of
+     * consecutive free slots are available. Each day is a few shifts over its bitsets.
+     */
+    public List<FreeRangeDTO> findFreeRanges(Long sportId, String from, int days, int durationMinutes) {
+        LocalDate first = parseDate(from);
+        if (days < 1 || days > MAX_RANGE_SEARCH_DAYS) {
+            throw new IllegalArgumentException("Invalid days: must be between 1 and " + MAX_RANGE_SEARCH_DAYS);
+        }
+        int slotMinutes = scheduleService.get(sportId).slotMinutes();
+        if (durationMinutes < slotMinutes || durationMinutes % slotMinutes != 0) {
+            throw new IllegalArgumentException("Invalid duration: must be a multiple of " + slotMinutes + " minutes");
+        }
 
-            slotRepository.save(slot);
+        int count = durationMinutes / slotMinutes;
+        List<FreeRangeDTO> ranges = new ArrayList<>();
+        for (int offset = 0; offset < days; offset++) {
+            SlotAvailabilityIndex.Day day = getAvailability(sportId, first.plusDays(offset).toString());
+            if (day.isMultiSlot()) {
+                continue;
+            }
+            for (long starts = day.freeRunStarts(count); starts != 0; starts &= starts - 1) {
+                int start = Long.numberOfTrailingZeros(starts) * day.slotMinutes();
+                FreeRangeDTO range = new FreeRangeDTO();
+                range.setSportId(sportId);
+                range.setSlotDate(day.date());
+                range.setStartTime(SportScheduleService.timeOf(start));
+                range.setEndTime(SportScheduleService.timeOf(start + durationMinutes));
+                range.setDurationMinutes(durationMinutes);
+                ranges.add(range);
+            }
         }
+        return ranges;
+    }
+
+    /**
+     * Slot ids (virtual until booked) covering [startTime, endTime) on one court, once
+     * the availability index agrees the range is free.
+     */
+    public List<Long> slotIdsForRange(Long sportId, String date, String startTime, String endTime) {
+        SlotAvailabilityIndex.Day day = getAvailability(sportId, date);
+        if (day.isMultiSlot()) {
+            throw new RuntimeException("Invalid range: shared slots are booked one at a time");
+        }
+        int position = day.positionOf(startTime);
+        int end = SportScheduleService.minutesOf(endTime);
+        if (end == 0) {
+            end = SportScheduleService.MINUTES_PER_DAY;
+        }
+        if (position < 0 || end < 0 || end % day.slotMinutes() != 0 || end <= position * day.slotMinutes()) {
+            throw new IllegalArgumentException("Invalid range: start and end must fall on "
+                    + day.slotMinutes() + "-minute slot boundaries");
+        }
+
+        int count = end / day.slotMinutes() - position;
+        if (!day.isRangeOpen(position, count)) {
+            throw new RuntimeException("Invalid slot: outside opening hours");
+        }
+        if (!day.isRangeFree(position, count)) {
+            throw new SlotUnavailableException(day.slotIds()[position]);
+        }
+        List<Long> slotIds = new ArrayList<>(count);
+        for (int p = position; p < position + count; p++) {
+            slotIds.add(day.slotIds()[p]);
+        }
+        return slotIds;
     }
 
     @Transactional(readOnly = true)
-    public List<Slot> getVisibleSlotsForDate(Long sportId, String date) {
-        Sport sport = sportRepository.findById(sportId)
-                .orElseThrow(() -> new RuntimeException("Sport not found"));
+    public SlotDetailsDTO getSlotDetails(Long slotId) {
+        if (VirtualSlotId.isVirtual(slotId)) {
+            VirtualSlotId.Parts parts = VirtualSlotId.decode(slotId);
+            return getSlotsForDate(parts.sportId(), parts.date().toString()).stream()
+                    .filter(slot -> SportScheduleService.minutesOf(slot.getStartTime()) == parts.startMinute())
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Slot not found"));
+        }
+
+        Slot slot = slotRepository.findById(slotId)
+                .orElseThrow(() -> new RuntimeException("Slot not found"));
+        SlotDetailsDTO dto = new SlotDetailsDTO();
+        dto.setId(slot.getId());
+        dto.setSportId(slot.getSport().getId());
+        dto.setSlotDate(slot.getSlotDate().toString());
+        dto.setStartTime(slot.getStartTime().toString());
+        dto.setEndTime(slot.getEndTime().toString());
+        dto.setBooked(slot.getBooked());
+        return dto;
+    }
 
-        List<Slot> slots = slotRepository.findBySport_IdAndSlotDate(sportId, date);
-        if (!isSwimmingSport(sport)) {
-            return slots;
+    /**
+     * Turns a slot id from the API into a Slot row id, creating the row for a virtual
+     * slot on first booking. Row ids come straight back without touching the database.
+     * A virtual id is looked up and, if need be, inserted in a short transaction of its
+     * own, so racing bookers contend only on the NOWAIT claim. Concurrent first bookings
+     * meet on the unique (sportId, slotDate, startTime) key and get the same row.
+     */
+    public Long resolveSlotId(Long slotId) {
+        if (!VirtualSlotId.isVirtual(slotId)) {
+            return slotId;
         }
 
-        return slots.stream()
-                .filter(slot -> isSwimmingHourAllowed(slot.getStartTime()))
-                .sorted(Comparator.comparing(Slot::getStartTime))
-                .collect(Collectors.toList());
+        VirtualSlotId.Parts parts = VirtualSlotId.decode(slotId);
+        SportScheduleService.Template template = scheduleService.get(parts.sportId());
+        if (!template.startsSlotAt(parts.startMinute())) {
+            throw new RuntimeException("Slot not found");
+        }
+
+        LocalDate date = parts.date();
+        LocalTime startTime = SportScheduleService.localTimeOf(parts.startMinute());
+        LocalTime endTime = SportScheduleService.localTimeOf(parts.startMinute() + template.slotMinutes());
+        // Left unused if the row exists already
+        long id = idAllocator.next("Slot");
+        return requiresNew.execute(status -> {
+            Long existing = slotRepository.findSlotId(parts.sportId(), date, startTime);
+            if (existing != null) {
+                return existing;
+            }
+            int inserted = slotRepository.insertIgnore(id, parts.sportId(), date, startTime, endTime);
+            Long rowId = slotRepository.findSlotId(parts.sportId(), date, startTime);
+            // Nothing inserted and no row for the slot: the id itself was already taken
+            if (inserted == 0 && rowId == null) {
+                throw new IllegalStateException("Slot id " + id + " is already in use");
+            }
+            return rowId;
+        });
     }
 
-    public boolean isSwimmingSlotAllowed(Sport sport, String startTime) {
-        if (!isSwimmingSport(sport)) {
-            return true;
+    /** Updates the availability index once the booking of {@code slot} commits. */
+    public void recordBooking(Slot slot) {
+        long sportId = slot.getSport().getId();
+        String date = slot.getSlotDate().toString();
+        String startTime = slot.getStartTime().toString();
+        long slotId = slot.getId();
+        AfterCommit.run(() -> availabilityIndex.recordBooking(sportId, date, startTime, slotId));
+    }
+
+    public SportSchedule updateSchedule(Long sportId, SportSchedule schedule) {
+        SportSchedule saved = scheduleService.update(sportId, schedule);
+        availabilityIndex.invalidateSport(sportId);
+        sportCatalog.refresh();
+        return saved;
+    }
+
+    @Scheduled(fixedDelayString = "${playbox.availability.ttl-seconds:300}", timeUnit = TimeUnit.SECONDS)
+    public void evictExpiredAvailability() {
+        availabilityIndex.evictExpired();
+    }
+
+    /**
+     * Single-occupancy sports book a slot outright; multi-slot sports (swimming) take
+     * up to the template's capacity per slot.
+     */
+    public boolean isMultiSlotSport(Sport sport) {
+        return sport != null && scheduleService.get(sport.getId()).isMultiSlot();
+    }
+
+    /**
+     * Takes the slot's row lock with NOWAIT. A booked slot or one another booking is
+     * holding fails immediately with {@link SlotUnavailableException}; the latter is
+     * marked lock-contended, as that booking may still roll back.
+     */
+    public void claimSlot(Slot slot) {
+        if (Boolean.TRUE.equals(slot.getBooked())) {
+            throw new SlotUnavailableException(slot.getId());
+        }
+        try {
+            if (slotRepository.claimFreeSlotNoWait(slot.getId()).isEmpty()) {
+                throw new SlotUnavailableException(slot.getId());
+            }
+        } catch (PessimisticLockingFailureException ex) {
+            throw new SlotUnavailableException(slot.getId(), true);
+        }
+    }
+
+    /**
+     * Rejects a shared slot the availability index already shows as full, before any
+     * row is touched. {@link #reserveSeat} remains the authoritative check.
+     */
+    public void checkSeatAvailable(Slot slot) {
+        SlotAvailabilityIndex.Day day = getAvailability(slot.getSport().getId(), slot.getSlotDate().toString());
+        int position = day.positionOf(slot.getStartTime());
+        if (position >= 0 && !day.isFree(position)) {
+            throw new SlotUnavailableException(slot.getId());
+        }
+    }
+
+    /**
+     * Takes one seat of a shared slot with a conditional increment, so swimmers never
+     * wait on each other for a lock check. Callers should run it late in the booking
+     * transaction: the row stays locked from here until commit.
+     */
+    public void reserveSeat(Slot slot) {
+        int capacity = scheduleService.get(slot.getSport().getId()).capacity();
+        if (slotRepository.reserveSeat(slot.getId(), capacity) == 0) {
+            throw new SlotUnavailableException(slot.getId());
+        }
+    }
+
+    /**
+     * Seat counters were added after bookings of shared slots already existed; rows
+     * without one are counted from their confirmed bookings once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillSeatCounts() {
+        Integer updated = transactionTemplate.execute(status -> slotRepository.backfillTaken());
+        if (updated != null && updated > 0) {
+            availabilityIndex.clear();
         }
-        return isSwimmingHourAllowed(startTime);
     }
 
-    private boolean isSwimmingSport(Sport sport) {
-        if (sport == null || sport.getName() == null) {
-            return false;
+    public boolean isWithinSchedule(Sport sport, LocalTime startTime) {
+        return scheduleService.get(sport.getId()).startsSlotAt(SportScheduleService.minutesOf(startTime));
+    }
+
+    /**
+     * Free slots of the same sport and date as the given slot, nearest start time first.
+     */
+    @Transactional(readOnly = true)
+    public List<SlotDetailsDTO> findNearestFreeSlots(Long slotId, int limit) {
+        SlotDetailsDTO target;
+        try {
+            target = getSlotDetails(slotId);
+        } catch (RuntimeException ex) {
+            return List.of();
         }
-        String name = sport.getName().trim().toLowerCase(Locale.ROOT);
-        return name.contains("swimming");
+        int targetMinutes = SportScheduleService.minutesOf(target.getStartTime());
+
+        return getSlotsForDate(target.getSportId(), target.getSlotDate()).stream()
+                .filter(slot -> !slot.getStartTime().equals(target.getStartTime()) && !Boolean.TRUE.equals(slot.getBooked()))
+                .sorted(Comparator
+                        .comparingInt((SlotDetailsDTO slot) ->
+                                Math.abs(SportScheduleService.minutesOf(slot.getStartTime()) - targetMinutes))
+                        .thenComparing(SlotDetailsDTO::getStartTime))
+                .limit(limit)
+                .collect(Collectors.toList());
     }
 
-    private boolean isSwimmingHourAllowed(String startTime) {
-        if (startTime == null || startTime.isBlank()) {
-            return false;
+    /**
+     * One-off cleanup for databases from before schedule templates, when every viewed
+     * date got a full set of rows. Deletes unbooked rows that no booking refers to, in
+     * batches; they are served as virtual slots from now on.
+     */
+    public int pruneUnusedSlots() {
+        int deleted = 0;
+        int batch;
+        do {
+            batch = transactionTemplate.execute(status -> slotRepository.deleteUnusedSlots(PRUNE_BATCH_SIZE));
+            deleted += batch;
+        } while (batch == PRUNE_BATCH_SIZE);
+        availabilityIndex.clear();
+        return deleted;
+    }
+
+    private Map<String, SlotAvailabilityIndex.DayBuilder> loadAvailability(Long sportId, LocalDate from, LocalDate to) {
+        return loadAvailability(List.of(sportId), from, to).get(sportId);
+    }
+
+    /**
+     * Builds the days from {@code from} to {@code to} inclusive of every sport with one
+     * Slot query, whatever the number of sports and days.
+     */
+    private Map<Long, Map<String, SlotAvailabilityIndex.DayBuilder>> loadAvailability(
+            List<Long> sportIds, LocalDate from, LocalDate to) {
+        Map<Long, SportScheduleService.Template> templates = new HashMap<>();
+        Map<Long, Map<String, SlotAvailabilityIndex.DayBuilder>> sports = new HashMap<>();
+        for (Long sportId : sportIds) {
+            SportScheduleService.Template template = scheduleService.get(sportId);
+            Map<String, SlotAvailabilityIndex.DayBuilder> days = new LinkedHashMap<>();
+            for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+                SlotAvailabilityIndex.DayBuilder day = new SlotAvailabilityIndex.DayBuilder(
+                        sportId, date.toString(), template.slotMinutes(), template.capacity());
+                for (int start : template.startMinutes()) {
+                    day.slot(start / template.slotMinutes(), VirtualSlotId.encode(sportId, date, start), false);
+                }
+                days.put(date.toString(), day);
+            }
+            templates.put(sportId, template);
+            sports.put(sportId, days);
         }
-        String[] parts = startTime.split(":");
-        if (parts.length < 2) {
-            return false;
+
+        // Rows exist only for booked slots (and for dates generated before templates)
+        for (Slot slot : slotRepository.findBySport_IdInAndSlotDateBetween(sportIds, from, to)) {
+            Long sportId = slot.getSport().getId();
+            SportScheduleService.Template template = templates.get(sportId);
+            SlotAvailabilityIndex.DayBuilder day = sports.get(sportId).get(slot.getSlotDate().toString());
+            int start = SportScheduleService.minutesOf(slot.getStartTime());
+            if (day == null || !template.startsSlotAt(start)) {
+                continue;
+            }
+            int position = start / template.slotMinutes();
+            day.slot(position, slot.getId(), Boolean.TRUE.equals(slot.getBooked()));
+            if (slot.getTaken() != null) {
+                day.addBookings(position, slot.getTaken());
+            }
         }
+        return sports;
+    }
+
+    private LocalDate parseDate(String date) {
         try {
-            int hour = Integer.parseInt(parts[0]);
-            return hour >= 8 && hour < 22;
-        } catch (NumberFormatException ex) {
-            return false;
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException | NullPointerException ex) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd");
         }
     }
 }
-
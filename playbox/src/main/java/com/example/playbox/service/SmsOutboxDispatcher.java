@@ -0,0 +1,150 @@
+package com.example.playbox.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.playbox.model.SmsOutbox;
+import com.example.playbox.repository.SmsOutboxRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drains the SMS outbox on virtual threads. A drain is triggered after each commit that
+ * queues messages and by a periodic poll, which also picks up retries and rows whose
+ * worker died mid-send. Failed sends back off exponentially and are dead-lettered after
+ * the configured number of attempts.
+ */
+@Component
+public class SmsOutboxDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final SmsOutboxRepository outboxRepository;
+    private final SmsSender smsSender;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long leaseMs;
+
+    private final Semaphore sendPermits;
+    private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean drainRequested = new AtomicBoolean();
+
+    public SmsOutboxDispatcher(
+            SmsOutboxRepository outboxRepository,
+            SmsSender smsSender,
+            @Value("${playbox.sms-outbox.batch-size:50}") int batchSize,
+            @Value("${playbox.sms-outbox.max-concurrency:8}") int maxConcurrency,
+            @Value("${playbox.sms-outbox.max-attempts:6}") int maxAttempts,
+            @Value("${playbox.sms-outbox.initial-backoff-ms:5000}") long initialBackoffMs,
+            @Value("${playbox.sms-outbox.max-backoff-ms:600000}") long maxBackoffMs,
+            @Value("${playbox.sms-outbox.lease-ms:120000}") long leaseMs
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.smsSender = smsSender;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseMs = leaseMs;
+        this.sendPermits = new Semaphore(maxConcurrency);
+    }
+
+    /** Starts a drain in the background; safe to call from request threads. */
+    public void wakeUp() {
+        workers.execute(this::drain);
+    }
+
+    @Scheduled(fixedDelayString = "${playbox.sms-outbox.poll-interval-ms:5000}")
+    public void poll() {
+        drain();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // In-flight rows keep their lease and are retried after restart
+        workers.shutdown();
+    }
+
+    void drain() {
+        if (!draining.compareAndSet(false, true)) {
+            drainRequested.set(true);
+            return;
+        }
+        try {
+            drainRequested.set(false);
+            List<SmsOutbox> due;
+            while (!(due = outboxRepository.findDue(Instant.now(), Limit.of(batchSize))).isEmpty()) {
+                if (dispatch(due) == 0) {
+                    break;
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            draining.set(false);
+        }
+        if (drainRequested.get()) {
+            drain();
+        }
+    }
+
+    void deliver(SmsOutbox row) {
+        int attempt = row.getAttempts() + 1;
+        try {
+            smsSender.send(row.getPhone(), row.getMessage());
+            outboxRepository.markSent(row.getId(), Instant.now());
+        } catch (Exception ex) {
+            String error = truncate(ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage());
+            if (attempt >= maxAttempts) {
+                outboxRepository.markFailed(row.getId(), SmsOutbox.DEAD, null, error);
+            } else {
+                Instant retryAt = Instant.now().plusMillis(backoffMillis(attempt));
+                outboxRepository.markFailed(row.getId(), SmsOutbox.PENDING, retryAt, error);
+            }
+        }
+    }
+
+    /** Exponential backoff with up to 20% jitter so failed bursts do not retry in lockstep. */
+    long backoffMillis(int attempt) {
+        long base = initialBackoffMs << Math.min(attempt - 1, 20);
+        long capped = Math.min(base <= 0 ? maxBackoffMs : base, maxBackoffMs);
+        return capped + ThreadLocalRandom.current().nextLong(capped / 5 + 1);
+    }
+
+    private int dispatch(List<SmsOutbox> due) throws InterruptedException {
+        int claimed = 0;
+        Instant leaseUntil = Instant.now().plusMillis(leaseMs);
+        for (SmsOutbox row : due) {
+            if (outboxRepository.claim(row.getId(), row.getAttempts(), leaseUntil) == 0) {
+                continue;
+            }
+            claimed++;
+            sendPermits.acquire();
+            workers.execute(() -> {
+                try {
+                    deliver(row);
+                } finally {
+                    sendPermits.release();
+                }
+            });
+        }
+        return claimed;
+    }
+
+    private String truncate(String value) {
+        return value.length() <= MAX_ERROR_LENGTH ? value : value.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.playbox.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.playbox.model.SmsOutbox;
+import com.example.playbox.repository.SmsOutboxRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class SmsOutboxService {
+
+    private final SmsOutboxRepository outboxRepository;
+    private final SmsOutboxDispatcher dispatcher;
+
+    /**
+     * Queues an SMS in the caller's transaction. It is sent only if that transaction
+     * commits, and the request thread never waits on the SMS provider.
+     */
+    @Transactional
+    public void enqueue(String phone, String message) {
+        if (phone == null || phone.isBlank()) {
+            return;
+        }
+
+        SmsOutbox row = new SmsOutbox();
+        row.setPhone(phone.trim());
+        row.setMessage(message);
+        row.setStatus(SmsOutbox.PENDING);
+        row.setAttempts(0);
+        row.setCreatedAt(Instant.now());
+        row.setNextAttemptAt(row.getCreatedAt());
+        outboxRepository.save(row);
+
+        AfterCommit.run(dispatcher::wakeUp);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String status : List.of(SmsOutbox.PENDING, SmsOutbox.SENDING, SmsOutbox.SENT, SmsOutbox.DEAD)) {
+            counts.put(status, 0L);
+        }
+        for (Object[] row : outboxRepository.countByStatus()) {
+            counts.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @Transactional(readOnly = true)
+    public List<SmsOutbox> getDeadLetters(int limit) {
+        return outboxRepository.findByStatusOrderByIdDesc(SmsOutbox.DEAD, Limit.of(limit));
+    }
+
+    public SmsOutbox retryDeadLetter(Long id) {
+        if (outboxRepository.requeueDead(id, Instant.now()) == 0) {
+            throw new RuntimeException("Dead-lettered SMS not found");
+        }
+        dispatcher.wakeUp();
+        return outboxRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Dead-lettered SMS not found"));
+    }
+}
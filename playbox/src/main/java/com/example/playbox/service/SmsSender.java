@@ -0,0 +1,10 @@
+package com.example.playbox.service;
+
+/**
+ * Transport that actually delivers an SMS. Implementations may block on the network;
+ * business code goes through {@link SmsOutboxService} instead of calling this directly.
+ */
+public interface SmsSender {
+
+    void send(String phone, String message);
+}
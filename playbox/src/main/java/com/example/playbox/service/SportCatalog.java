@@ -0,0 +1,160 @@
+package com.example.playbox.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.playbox.model.Sport;
+import com.example.playbox.repository.SportRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Read-optimized copy of every sport with its schedule template folded in, so booking
+ * and slot code never reads Sport rows or re-derives flags from names. The catalog is
+ * one immutable snapshot swapped atomically: after a sport or schedule edit, on a
+ * timer (for edits made directly in the database), and on a lookup of an unknown id.
+ */
+@Service
+@RequiredArgsConstructor
+public class SportCatalog {
+
+    private static final long MISS_REFRESH_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final SportRepository sportRepository;
+    private final SportScheduleService scheduleService;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastRefreshNanos;
+
+    /** A sport as served by {@code /api/sports}: the Sport columns plus its template. */
+    public record Entry(
+            Long id,
+            String name,
+            String courtName,
+            Float pricePerHour,
+            Boolean active,
+            Boolean ismuplislot,
+            boolean multiSlot,
+            int capacity,
+            String openTime,
+            String closeTime,
+            int slotMinutes
+    ) {
+    }
+
+    public record Snapshot(List<Entry> sports, Map<Long, Entry> byId, String etag) {
+    }
+
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : refresh();
+    }
+
+    public List<Entry> all() {
+        return snapshot().sports();
+    }
+
+    public Entry get(Long sportId) {
+        Entry entry = snapshot().byId().get(sportId);
+        if (entry == null && System.nanoTime() - lastRefreshNanos > MISS_REFRESH_INTERVAL_NANOS) {
+            entry = refresh().byId().get(sportId);
+        }
+        if (entry == null) {
+            throw new RuntimeException("Sport not found");
+        }
+        return entry;
+    }
+
+    /**
+     * Applies the non-null fields of {@code changes} to the sport. The catalog is
+     * rebuilt once the edit commits.
+     */
+    @Transactional
+    public Sport update(Long sportId, Sport changes) {
+        Sport sport = sportRepository.findById(sportId)
+                .orElseThrow(() -> new RuntimeException("Sport not found"));
+        if (changes.getName() != null) {
+            sport.setName(changes.getName().trim());
+        }
+        if (changes.getCourtName() != null) {
+            sport.setCourtName(changes.getCourtName().trim());
+        }
+        if (changes.getPricePerHour() != null) {
+            if (changes.getPricePerHour() < 0f) {
+                throw new IllegalArgumentException("Invalid price: must not be negative");
+            }
+            sport.setPricePerHour(changes.getPricePerHour());
+        }
+        if (changes.getActive() != null) {
+            sport.setActive(changes.getActive());
+        }
+        if (changes.getIsmuplislot() != null) {
+            sport.setIsmuplislot(changes.getIsmuplislot());
+        }
+        Sport saved = sportRepository.save(sport);
+        AfterCommit.run(this::refresh);
+        return saved;
+    }
+
+    @Scheduled(
+            fixedDelayString = "${playbox.catalog.refresh-ms:300000}",
+            initialDelayString = "${playbox.catalog.refresh-ms:300000}"
+    )
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    public synchronized Snapshot refresh() {
+        List<Entry> sports = sportRepository.findAll().stream()
+                .sorted(Comparator.comparing(Sport::getId))
+                .map(this::toEntry)
+                .toList();
+        Map<Long, Entry> byId = sports.stream()
+                .collect(Collectors.toUnmodifiableMap(Entry::id, Function.identity()));
+        Snapshot rebuilt = new Snapshot(sports, byId, etagOf(sports));
+        snapshot = rebuilt;
+        lastRefreshNanos = System.nanoTime();
+        return rebuilt;
+    }
+
+    // A digest of every field, so equal catalogs on any instance share a tag and
+    // different ones never do, unlike a 32-bit hashCode
+    private static String etagOf(List<Entry> sports) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(sports.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private Entry toEntry(Sport sport) {
+        SportScheduleService.Template template = scheduleService.get(sport.getId());
+        return new Entry(
+                sport.getId(),
+                sport.getName(),
+                sport.getCourtName(),
+                sport.getPricePerHour(),
+                sport.getActive(),
+                sport.getIsmuplislot(),
+                template.isMultiSlot(),
+                template.capacity(),
+                SportScheduleService.timeOf(template.openMinute()),
+                SportScheduleService.timeOf(template.closeMinute(), true),
+                template.slotMinutes()
+        );
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.playbox.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.playbox.model.Slot;
+import com.example.playbox.model.Sport;
+import com.example.playbox.model.SportSchedule;
+import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.repository.SportRepository;
+import com.example.playbox.repository.SportScheduleRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Per-sport schedule templates (opening hours, slot length, capacity) from which
+ * slots are computed. Templates are cached in memory and reloaded after an edit.
+ */
+@Service
+@RequiredArgsConstructor
+public class SportScheduleService {
+
+    static final int MINUTES_PER_DAY = 24 * 60;
+    static final int MIN_SLOT_MINUTES = 30;
+    static final int DEFAULT_POOL_CAPACITY = 25;
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+
+    private final SportScheduleRepository scheduleRepository;
+    private final SportRepository sportRepository;
+    private final SlotRepository slotRepository;
+
+    private final Map<Long, Template> templates = new ConcurrentHashMap<>();
+
+    public record Template(long sportId, int openMinute, int closeMinute, int slotMinutes, int capacity) {
+
+        public boolean isMultiSlot() {
+            return capacity > 1;
+        }
+
+        /** True when a slot may start at this minute of the day. */
+        public boolean startsSlotAt(int minute) {
+            return minute >= openMinute
+                    && minute + slotMinutes <= closeMinute
+                    && (minute - openMinute) % slotMinutes == 0;
+        }
+
+        public List<Integer> startMinutes() {
+            List<Integer> starts = new ArrayList<>();
+            for (int minute = openMinute; minute + slotMinutes <= closeMinute; minute += slotMinutes) {
+                starts.add(minute);
+            }
+            return starts;
+        }
+    }
+
+    public Template get(Long sportId) {
+        return templates.computeIfAbsent(sportId, this::load);
+    }
+
+    @Transactional(readOnly = true)
+    public SportSchedule getSchedule(Long sportId) {
+        return toSchedule(get(sportId));
+    }
+
+    /**
+     * Replaces a sport's template. Slots booked from today on keep their rows and must
+     * still be whole slots of the new template, or the change is rejected: the index
+     * would otherwise show a booked slot, or part of one, as free. The caller is
+     * responsible for dropping any cached availability of the sport.
+     */
+    @Transactional
+    public SportSchedule update(Long sportId, SportSchedule request) {
+        if (!sportRepository.existsById(sportId)) {
+            throw new RuntimeException("Sport not found");
+        }
+        Template template = validate(sportId, request);
+        checkBookedSlotsFit(get(sportId), template);
+        SportSchedule saved = scheduleRepository.save(toSchedule(template));
+        AfterCommit.run(() -> templates.put(sportId, template));
+        return saved;
+    }
+
+    /**
+     * Gives every sport without a template one that matches the hours slots were
+     * generated with before templates existed: swimming 08:00-22:00 shared by many
+     * swimmers, everything else round the clock with one booking per slot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMissingSchedules() {
+        List<SportSchedule> missing = new ArrayList<>();
+        for (Sport sport : sportRepository.findAll()) {
+            if (!scheduleRepository.existsById(sport.getId())) {
+                missing.add(toSchedule(defaults(sport)));
+            }
+        }
+        scheduleRepository.saveAll(missing);
+    }
+
+    private void checkBookedSlotsFit(Template current, Template template) {
+        for (Slot slot : slotRepository.findBookedFrom(template.sportId(), LocalDate.now(IST))) {
+            int start = minutesOf(slot.getStartTime());
+            int length = slot.getEndTime() == null ? current.slotMinutes()
+                    : durationMinutes(slot.getStartTime(), slot.getEndTime());
+            // Shared and single slots count bookings differently (seats vs booked flag)
+            boolean fits = template.startsSlotAt(start)
+                    && length == template.slotMinutes()
+                    && template.isMultiSlot() == current.isMultiSlot();
+            if (!fits) {
+                throw new IllegalArgumentException("Invalid schedule: the booked slot on " + slot.getSlotDate()
+                        + " at " + timeOf(start) + " would not be a slot of the new schedule");
+            }
+        }
+    }
+
+    private Template load(Long sportId) {
+        return scheduleRepository.findById(sportId)
+                .map(schedule -> validate(sportId, schedule))
+                .orElseGet(() -> defaults(sportRepository.findById(sportId)
+                        .orElseThrow(() -> new RuntimeException("Sport not found"))));
+    }
+
+    static Template defaults(Sport sport) {
+        String name = sport.getName() == null ? "" : sport.getName().trim().toLowerCase(Locale.ROOT);
+        if (name.contains("swimming")) {
+            return new Template(sport.getId(), 8 * 60, 22 * 60, 60, DEFAULT_POOL_CAPACITY);
+        }
+        int capacity = Boolean.TRUE.equals(sport.getIsmuplislot()) ? DEFAULT_POOL_CAPACITY : 1;
+        return new Template(sport.getId(), 0, MINUTES_PER_DAY, 60, capacity);
+    }
+
+    private Template validate(Long sportId, SportSchedule schedule) {
+        int open = minutesOf(schedule.getOpenTime());
+        int close = minutesOf(schedule.getCloseTime());
+        Integer slotMinutes = schedule.getSlotMinutes();
+        Integer capacity = schedule.getCapacity();
+        if (open < 0 || close < 0 || close <= open) {
+            throw new IllegalArgumentException("Invalid schedule: openTime must be before closeTime (HH:mm)");
+        }
+        if (slotMinutes == null || slotMinutes < MIN_SLOT_MINUTES || slotMinutes > close - open) {
+            throw new IllegalArgumentException("Invalid schedule: slotMinutes must be at least " + MIN_SLOT_MINUTES
+                    + " and fit within opening hours");
+        }
+        if (open % slotMinutes != 0) {
+            throw new IllegalArgumentException("Invalid schedule: openTime must be a multiple of slotMinutes");
+        }
+        if (capacity == null || capacity < 1) {
+            throw new IllegalArgumentException("Invalid schedule: capacity must be at least 1");
+        }
+        return new Template(sportId, open, close, slotMinutes, capacity);
+    }
+
+    private SportSchedule toSchedule(Template template) {
+        SportSchedule schedule = new SportSchedule();
+        schedule.setSportId(template.sportId());
+        schedule.setOpenTime(timeOf(template.openMinute(), true));
+        schedule.setCloseTime(timeOf(template.closeMinute(), true));
+        schedule.setSlotMinutes(template.slotMinutes());
+        schedule.setCapacity(template.capacity());
+        return schedule;
+    }
+
+    /** Minute of day for "HH:mm" ("24:00" allowed), or -1 when it cannot be parsed. */
+    static int minutesOf(String time) {
+        if (time == null) {
+            return -1;
+        }
+        String[] parts = time.trim().split(":");
+        try {
+            int hours = Integer.parseInt(parts[0]);
+            int minutes = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            int total = hours * 60 + minutes;
+            return minutes >= 0 && minutes < 60 && total >= 0 && total <= MINUTES_PER_DAY ? total : -1;
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+    }
+
+    /** Minute of day of a slot time, or -1 when it is missing. */
+    static int minutesOf(LocalTime time) {
+        return time == null ? -1 : time.getHour() * 60 + time.getMinute();
+    }
+
+    /** Minutes from start to end; slots ending at midnight end at "00:00". */
+    static int durationMinutes(String startTime, String endTime) {
+        return durationMinutes(minutesOf(startTime), minutesOf(endTime));
+    }
+
+    static int durationMinutes(LocalTime startTime, LocalTime endTime) {
+        return durationMinutes(minutesOf(startTime), minutesOf(endTime));
+    }
+
+    private static int durationMinutes(int start, int end) {
+        return end > start ? end - start : end + MINUTES_PER_DAY - start;
+    }
+
+    /** Slot time for a minute of day; the end of the day wraps to midnight as with {@link #timeOf(int)}. */
+    static LocalTime localTimeOf(int minute) {
+        int value = minute % MINUTES_PER_DAY;
+        return LocalTime.of(value / 60, value % 60);
+    }
+
+    /** "HH:mm" for a minute of day; midnight at the end of the day wraps to "00:00" as slots always have. */
+    static String timeOf(int minute) {
+        return timeOf(minute, false);
+    }
+
+    /** As {@link #timeOf(int)}, but with {@code allowEndOfDay} closing time is "24:00". */
+    static String timeOf(int minute, boolean allowEndOfDay) {
+        int value = allowEndOfDay && minute == MINUTES_PER_DAY ? minute : minute % MINUTES_PER_DAY;
+        return String.format("%02d:%02d", value / 60, value % 60);
+    }
+}
@@ -3,13 +3,20 @@ package com.example.playbox.service;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.playbox.dto.DailyRevenueDashboardResponse;
+import com.example.playbox.dto.PageResponse;
+import com.example.playbox.dto.TransactionFilter;
 import com.example.playbox.model.TransactionEntity;
 import com.example.playbox.repository.TransactionRepository;
+import com.example.playbox.repository.TransactionSpecifications;
 
 import lombok.RequiredArgsConstructor;
 
@@ -17,10 +24,33 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class TransactionService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+
     private final TransactionRepository transactionRepo;
+    private final JsonStreamService jsonStreamService;
+    private final RevenueRollupService revenueRollupService;
+
+    public StreamingResponseBody streamAllTransactions() {
+        return jsonStreamService.streamArray(transactionRepo::streamAll);
+    }
+
+    public PageResponse<TransactionEntity> getTransactionsPage(Integer afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists
+        List<TransactionEntity> rows = transactionRepo.findByIdGreaterThanOrderByIdAsc(
+                afterId == null ? 0 : afterId,
+                Limit.of(pageSize + 1)
+        );
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
 
-    public List<TransactionEntity> getAllTransactions() {
-        return transactionRepo.findAll();
+        String nextCursor = hasMore ? String.valueOf(rows.get(rows.size() - 1).getId()) : null;
+        return PageResponse.ofKeyset(rows, pageSize, afterId == null, nextCursor);
     }
 
     public List<TransactionEntity> getByUser(Integer userId) {
@@ -31,84 +61,103 @@ public class TransactionService {
         return transactionRepo.findByAdminName(adminName);
     }
 
-    public List<TransactionEntity> getByDateRange(String start, String end) {
-        return transactionRepo.findByTimestampBetween(start, end);
-    }
-
+    /**
+     * Every combination of user, staff and date range, newest first. Dates are
+     * yyyy-MM-dd (whole IST days, end inclusive) or ISO-8601 instants.
+     */
     public List<TransactionEntity> filter(
             Integer userId,
             String adminName,
             String start,
             String end
     ) {
-        if (userId != null && adminName != null && start != null && end != null) {
-            return transactionRepo
-                    .findByUserIdAndAdminNameAndTimestampBetween(userId, adminName, start, end);
+        TransactionFilter filter = new TransactionFilter();
+        filter.setUserId(userId);
+        filter.setAdminName(adminName);
+        filter.setFrom(parseBound(start, false));
+        filter.setTo(parseBound(end, true));
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("At least one filter is required");
         }
+        return transactionRepo.findAll(TransactionSpecifications.matching(filter, null, null), NEWEST_FIRST);
+    }
 
-        if (userId != null && adminName != null) {
-            return transactionRepo.findByUserIdAndAdminName(userId, adminName);
+    /**
+     * Keyset page of the ledger matching {@code filter}, newest first. The cursor is the
+     * (timestamp, id) of the last row of the previous page, so a page costs the same at
+     * any depth and rows written meanwhile never shift it.
+     */
+    public PageResponse<TransactionEntity> search(TransactionFilter filter, String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Instant afterTimestamp = null;
+        Integer afterId = null;
+        if (cursor != null) {
+            String[] parts = cursor.split(",", 2);
+            try {
+                afterTimestamp = Instant.parse(parts[0]);
+                afterId = Integer.valueOf(parts[1]);
+            } catch (DateTimeParseException | NumberFormatException | ArrayIndexOutOfBoundsException ex) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
         }
 
-        if (userId != null && start != null && end != null) {
-            return transactionRepo.findByUserIdAndTimestampBetween(userId, start, end);
+        // Fetch one extra row to know whether another page exists
+        List<TransactionEntity> rows = transactionRepo.findBy(
+                TransactionSpecifications.matching(filter, afterTimestamp, afterId),
+                query -> query.sortBy(NEWEST_FIRST).limit(pageSize + 1).all()
+        );
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
         }
 
-        if (adminName != null) {
-            return transactionRepo.findByAdminName(adminName);
-        }
-           if (start != null && end != null) {
-            // DATE ONLY FILTER - THIS WAS MISSING!
-            return transactionRepo.findByTimestampBetween(start, end);
-        }
+        TransactionEntity last = hasMore ? rows.get(rows.size() - 1) : null;
+        String nextCursor = last != null ? last.getTimestamp() + "," + last.getId() : null;
+        return PageResponse.ofKeyset(rows, pageSize, cursor == null, nextCursor);
+    }
 
-        if (userId != null) {
-            return transactionRepo.findByUserId(userId);
+    /** yyyy-MM-dd is a whole IST day (an end date includes its day), else an ISO-8601 instant. */
+    public static Instant parseBound(String value, boolean end) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (value.length() == 10) {
+                LocalDate date = LocalDate.parse(value);
+                return (end ? date.plusDays(1) : date).atStartOfDay(IST).toInstant();
+            }
+            Instant instant = Instant.parse(value);
+            // Timestamps are stored to the microsecond; an instant end bound stays inclusive
+            return end ? instant.plusNanos(1000) : instant;
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd or an ISO-8601 instant");
         }
-
-        return transactionRepo.findAll();
     }
-     public DailyRevenueDashboardResponse getTodayDashboard() {
-
-        ZoneId IST = ZoneId.of("Asia/Kolkata");
-
+    public DailyRevenueDashboardResponse getTodayDashboard() {
         LocalDate today = LocalDate.now(IST);
-        
-        Instant start = today.atStartOfDay(IST).toInstant();
-        Instant end = today.plusDays(1).atStartOfDay(IST).toInstant();
-        
-
-
-        Double totalAdded = transactionRepo.totalAddedToday(start, end);
-        Double totalDeducted = transactionRepo.totalDeductedToday(start, end);
-
-        List<Object[]> staffRaw = transactionRepo.mostActiveStaff(start, end);
-        List<Object[]> userRaw = transactionRepo.mostActiveUsers(start, end);
-
-        DailyRevenueDashboardResponse response = new DailyRevenueDashboardResponse();
-        response.setTotalDeposited(totalAdded);
-        response.setTotalDeducted(totalDeducted);
-        response.setNetCashflow(totalAdded - totalDeducted);
-
-        response.setMostActiveStaff(
-            staffRaw.stream()
-                .map(r -> new DailyRevenueDashboardResponse.StatItem(
-                        (String) r[0],
-                        (Long) r[1]
-                ))
-                .toList()
-        );
+        return revenueRollupService.getDashboard(today, today);
+    }
 
-        response.setMostActiveUsers(
-            userRaw.stream()
-                .map(r -> new DailyRevenueDashboardResponse.StatItem(
-                        (String) r[0],
-                        (Long) r[1]
-                ))
-                .toList()
-        );
+    /** Dashboard over whole IST days, served from the revenue rollups. */
+    public DailyRevenueDashboardResponse getDashboard(String from, String to) {
+        return revenueRollupService.getDashboard(parseDay(from), parseDay(to));
+    }
+
+    public int rebuildRollups(String from, String to) {
+        LocalDate first = parseDay(from);
+        LocalDate last = parseDay(to);
+        if (last.isBefore(first)) {
+            throw new IllegalArgumentException("Invalid range: from must not be after to");
+        }
+        return revenueRollupService.rebuild(first, last);
+    }
 
-        return response;
+    private static LocalDate parseDay(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException | NullPointerException ex) {
+            throw new IllegalArgumentException("Invalid date, expected yyyy-MM-dd");
+        }
     }
 
     public List<TransactionEntity> getByUserId(Integer userId) {
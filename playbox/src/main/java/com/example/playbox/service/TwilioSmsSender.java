@@ -0,0 +1,84 @@
+package com.example.playbox.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.twilio.Twilio;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+
+import jakarta.annotation.PostConstruct;
+
+@Component
+public class TwilioSmsSender implements SmsSender {
+
+    @Value("${twilio.enabled:false}")
+    private boolean enabled;
+
+    @Value("${twilio.account-sid:}")
+    private String accountSid;
+
+    @Value("${twilio.auth-token:}")
+    private String authToken;
+
+    @Value("${twilio.phone-number:}")
+    private String twilioPhoneNumber;
+
+    private volatile boolean initialized;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+
+        if (isBlank(accountSid) || isBlank(authToken) || isBlank(twilioPhoneNumber)) {
+            throw new RuntimeException("Twilio is enabled but credentials/phone number are missing");
+        }
+
+        Twilio.init(accountSid, authToken);
+        initialized = true;
+    }
+
+    @Override
+    public void send(String phone, String message) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!initialized) {
+            init();
+        }
+
+        Message.creator(
+                new PhoneNumber(normalizePhone(phone)),
+                new PhoneNumber(twilioPhoneNumber),
+                message
+        ).create();
+    }
+
+    private String normalizePhone(String phone) {
+        if (isBlank(phone)) {
+            throw new RuntimeException("Phone number is missing");
+        }
+
+        String cleaned = phone.replaceAll("[^0-9+]", "").trim();
+        if (cleaned.startsWith("+")) {
+            return cleaned;
+        }
+
+        if (cleaned.length() == 10) {
+            return "+91" + cleaned;
+        }
+
+        if (!cleaned.startsWith("+")) {
+            return "+" + cleaned;
+        }
+
+        return cleaned;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -1,47 +1,23 @@
 package com.example.playbox.service;
 
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
-
-import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 
+/**
+ * Builds the member and admin SMS texts. Messages are queued in the SMS outbox and
+ * delivered after commit; only the OTP is sent inline because the caller must know
+ * whether it went out.
+ */
 @Service
+@RequiredArgsConstructor
 public class TwilioSmsService {
 
-    @Value("${twilio.enabled:false}")
-    private boolean enabled;
-
-    @Value("${twilio.account-sid:}")
-    private String accountSid;
-
-    @Value("${twilio.auth-token:}")
-    private String authToken;
-
-    @Value("${twilio.phone-number:}")
-    private String twilioPhoneNumber;
-
-    private volatile boolean initialized;
-
-    @PostConstruct
-    public void init() {
-        if (!enabled) {
-            return;
-        }
-
-        if (isBlank(accountSid) || isBlank(authToken) || isBlank(twilioPhoneNumber)) {
-            throw new RuntimeException("Twilio is enabled but credentials/phone number are missing");
-        }
-
-        Twilio.init(accountSid, authToken);
-        initialized = true;
-    }
+    private final SmsSender smsSender;
+    private final SmsOutboxService smsOutboxService;
 
     public void sendOtp(String phone, String otp) {
-        sendSms(phone, "Your Elite Club OTP is " + otp + ". It is valid for 5 minutes.");
+        smsSender.send(phone, "Your Elite Club OTP is " + otp + ". It is valid for 5 minutes.");
     }
 
     public void sendBalanceAdded(String phone, float amount, float newBalance) {
@@ -81,6 +57,25 @@ public class TwilioSmsService {
         );
     }
 
+    public void sendBookingSeriesSummary(
+            String phone,
+            String sportName,
+            int bookings,
+            String firstDate,
+            String lastDate,
+            float deductedAmount,
+            float newBalance
+    ) {
+        String sport = isBlank(sportName) ? "Sport" : sportName;
+        String dates = firstDate.equals(lastDate) ? "on " + firstDate : "from " + firstDate + " to " + lastDate;
+        sendSms(
+                phone,
+                "Elite Club booking confirmed: " + sport + ", " + bookings + " bookings " + dates
+                        + ". Deducted: Rs. " + deductedAmount
+                        + ". Balance: Rs. " + newBalance + "."
+        );
+    }
+
     public void sendOfflineBookingOtp(
             String phone,
             String otp,
@@ -107,40 +102,7 @@ public class TwilioSmsService {
     }
 
     public void sendSms(String phone, String message) {
-        if (!enabled) {
-            return;
-        }
-
-        if (!initialized) {
-            init();
-        }
-
-        Message.creator(
-                new PhoneNumber(normalizePhone(phone)),
-                new PhoneNumber(twilioPhoneNumber),
-                message
-        ).create();
-    }
-
-    private String normalizePhone(String phone) {
-        if (isBlank(phone)) {
-            throw new RuntimeException("Phone number is missing");
-        }
-
-        String cleaned = phone.replaceAll("[^0-9+]", "").trim();
-        if (cleaned.startsWith("+")) {
-            return cleaned;
-        }
-
-        if (cleaned.length() == 10) {
-            return "+91" + cleaned;
-        }
-
-        if (!cleaned.startsWith("+")) {
-            return "+" + cleaned;
-        }
-
-        return cleaned;
+        smsOutboxService.enqueue(phone, message);
     }
 
     private boolean isBlank(String value) {
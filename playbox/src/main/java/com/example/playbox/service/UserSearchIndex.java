@@ -0,0 +1,344 @@
+package com.example.playbox.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over member name, phone, email and id.
+ *
+ * Queries of three or more characters intersect the posting lists of their
+ * trigrams and verify the survivors with a substring check, which gives the
+ * same matches as the old LIKE '%q%' query. One- and two-character queries
+ * are answered from a sorted prefix map instead, since a substring match that
+ * short hits most of the club: results are taken in rank order (exact id,
+ * name, phone, name word, email, id prefix) and the walk stops at the limit.
+ * Posting lists are sorted int arrays so the index stays compact; writes are
+ * rare (signups and profile edits) and take the write lock, searches share
+ * the read lock.
+ */
+public class UserSearchIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    // Keys are a field tag followed by the lower-cased value, see PREFIX_TAGS
+    private final NavigableMap<String, IntList> prefixes = new TreeMap<>();
+
+    // Field tags in rank order: full name, phone, name word, email, id
+    private static final char[] PREFIX_TAGS = {'n', 'p', 'w', 'e', 'i'};
+
+    private record Entry(int id, String idText, String name, String phone, String email) {
+    }
+
+    private record Match(Entry entry, int score) {
+    }
+
+    public record MemoryStats(int entries, int trigrams, long postings, long estimatedBytes) {
+    }
+
+    public void put(Integer id, String name, String phone, String email) {
+        Entry entry = new Entry(id, String.valueOf(id), normalize(name), normalize(phone), normalize(email));
+        Set<Long> grams = trigramsOf(entry);
+        Set<String> keys = prefixKeysOf(entry);
+
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.put(id, entry);
+            if (previous != null) {
+                for (Long gram : trigramsOf(previous)) {
+                    if (!grams.contains(gram)) {
+                        removePosting(postings, gram, id);
+                    }
+                }
+                for (String key : prefixKeysOf(previous)) {
+                    if (!keys.contains(key)) {
+                        removePosting(prefixes, key, id);
+                    }
+                }
+            }
+            for (Long gram : grams) {
+                postings.computeIfAbsent(gram, g -> new IntList()).add(id);
+            }
+            for (String key : keys) {
+                prefixes.computeIfAbsent(key, k -> new IntList()).add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            Entry previous = entries.remove(id);
+            if (previous != null) {
+                for (Long gram : trigramsOf(previous)) {
+                    removePosting(postings, gram, id);
+                }
+                for (String key : prefixKeysOf(previous)) {
+                    removePosting(prefixes, key, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of matching members, best match first, at most {@code limit}
+     */
+    public List<Integer> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            if (q.length() < 3) {
+                return prefixSearch(q, limit);
+            }
+            TopMatches matches = new TopMatches(q, limit);
+            collectTrigramMatches(matches, q);
+            return matches.rankedIds();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public MemoryStats memoryStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = 0;
+            for (Entry entry : entries.values()) {
+                // map node + boxed key + record header, then the four strings
+                bytes += 32 + 16 + 32;
+                bytes += stringBytes(entry.idText()) + stringBytes(entry.name())
+                        + stringBytes(entry.phone()) + stringBytes(entry.email());
+            }
+            long postingCount = 0;
+            for (IntList list : postings.values()) {
+                // map node + boxed key + list object + backing array
+                bytes += 32 + 16 + 24 + 16 + 4L * list.capacity();
+                postingCount += list.size();
+            }
+            for (Map.Entry<String, IntList> prefix : prefixes.entrySet()) {
+                // tree node + key string + list object + backing array
+                bytes += 40 + stringBytes(prefix.getKey()) + 24 + 16 + 4L * prefix.getValue().capacity();
+            }
+            // hash table arrays of the two hash maps
+            bytes += 4L * (entries.size() + postings.size()) * 2;
+            return new MemoryStats(entries.size(), postings.size(), postingCount, bytes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Integer> prefixSearch(String q, int limit) {
+        Set<Integer> ids = new LinkedHashSet<>();
+        if (q.chars().allMatch(Character::isDigit) && entries.containsKey(Integer.valueOf(q))) {
+            ids.add(Integer.valueOf(q));
+        }
+        for (char tag : PREFIX_TAGS) {
+            String from = tag + q;
+            for (IntList list : prefixes.subMap(from, true, from + Character.MAX_VALUE, false).values()) {
+                for (int n = 0; n < list.size() && ids.size() < limit; n++) {
+                    ids.add(list.get(n));
+                }
+                if (ids.size() >= limit) {
+                    return List.copyOf(ids);
+                }
+            }
+        }
+        return List.copyOf(ids);
+    }
+
+    private void collectTrigramMatches(TopMatches matches, String q) {
+        Set<Long> grams = trigramsOf(q, new LinkedHashSet<>());
+        IntList[] lists = new IntList[grams.size()];
+        int i = 0;
+        for (Long gram : grams) {
+            IntList list = postings.get(gram);
+            if (list == null) {
+                return;
+            }
+            lists[i++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(IntList::size));
+
+        IntList smallest = lists[0];
+        for (int n = 0; n < smallest.size(); n++) {
+            int id = smallest.get(n);
+            boolean inAll = true;
+            for (int l = 1; l < lists.length && inAll; l++) {
+                inAll = lists[l].contains(id);
+            }
+            if (inAll) {
+                matches.offer(entries.get(id));
+            }
+        }
+    }
+
+    private static int score(Entry e, String q, String wordPrefix) {
+        if (e.idText().equals(q)) return 100;
+        if (e.phone().equals(q)) return 95;
+        if (e.name().equals(q)) return 90;
+        if (e.name().startsWith(q)) return 80;
+        if (e.phone().startsWith(q)) return 75;
+        if (e.name().contains(wordPrefix)) return 70;
+        if (e.email().startsWith(q)) return 60;
+        if (e.idText().startsWith(q)) return 55;
+        if (e.name().contains(q)) return 40;
+        if (e.phone().contains(q) || e.email().contains(q) || e.idText().contains(q)) return 20;
+        return 0;
+    }
+
+    /** Keeps the best {@code limit} matches in a min-heap so ranking never sorts the full match set. */
+    private static final class TopMatches {
+        private static final Comparator<Match> WORST_FIRST = Comparator.comparingInt(Match::score)
+                .thenComparing(m -> m.entry().name(), Comparator.reverseOrder())
+                .thenComparing(m -> m.entry().id(), Comparator.reverseOrder());
+
+        private final String query;
+        private final String wordPrefix;
+        private final int limit;
+        private final PriorityQueue<Match> heap;
+
+        TopMatches(String query, int limit) {
+            this.query = query;
+            this.wordPrefix = " " + query;
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.min(limit, 64) + 1, WORST_FIRST);
+        }
+
+        void offer(Entry entry) {
+            int score = score(entry, query, wordPrefix);
+            if (score == 0) {
+                return;
+            }
+            Match match = new Match(entry, score);
+            if (heap.size() < limit) {
+                heap.add(match);
+            } else if (WORST_FIRST.compare(match, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(match);
+            }
+        }
+
+        List<Integer> rankedIds() {
+            Integer[] ids = new Integer[heap.size()];
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = heap.poll().entry().id();
+            }
+            return Arrays.asList(ids);
+        }
+    }
+
+    private static <K> void removePosting(Map<K, IntList> index, K key, int id) {
+        IntList list = index.get(key);
+        if (list != null) {
+            list.remove(id);
+            if (list.size() == 0) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> prefixKeysOf(Entry entry) {
+        Set<String> keys = new HashSet<>();
+        addIfPresent(keys, 'n', entry.name());
+        addIfPresent(keys, 'p', entry.phone());
+        for (String word : entry.name().split("\\s+")) {
+            addIfPresent(keys, 'w', word);
+        }
+        addIfPresent(keys, 'e', entry.email());
+        addIfPresent(keys, 'i', entry.idText());
+        return keys;
+    }
+
+    private static void addIfPresent(Set<String> keys, char tag, String value) {
+        if (!value.isEmpty()) {
+            keys.add(tag + value);
+        }
+    }
+
+    private static Set<Long> trigramsOf(Entry entry) {
+        Set<Long> grams = new LinkedHashSet<>();
+        trigramsOf(entry.idText(), grams);
+        trigramsOf(entry.name(), grams);
+        trigramsOf(entry.phone(), grams);
+        trigramsOf(entry.email(), grams);
+        return grams;
+    }
+
+    private static Set<Long> trigramsOf(String value, Set<Long> into) {
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            into.add(((long) value.charAt(i) << 32) | ((long) value.charAt(i + 1) << 16) | value.charAt(i + 2));
+        }
+        return into;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long stringBytes(String value) {
+        return 40L + value.length();
+    }
+
+    /** Sorted set of ints backed by a growable array. */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return values.length;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        boolean contains(int value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        void add(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+            values[insertAt] = value;
+            size++;
+        }
+
+        void remove(int value) {
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos < 0) {
+                return;
+            }
+            System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+            size--;
+        }
+    }
+}
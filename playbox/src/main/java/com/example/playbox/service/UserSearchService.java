@@ -0,0 +1,82 @@
+package com.example.playbox.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.repository.PlayBoxUserRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Member search backed by {@link UserSearchIndex}. The index is built from the
+ * database once the application is up and kept current on every committed
+ * signup or profile change; until it is ready, searches use the LIKE query.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserSearchService {
+
+    private final PlayBoxUserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserSearchIndex index = new UserSearchIndex();
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = userRepository.streamSearchFields()) {
+                rows.forEach(row -> index.put((Integer) row[0], (String) row[1], (String) row[2], (String) row[3]));
+            }
+        });
+        ready = true;
+    }
+
+    public void index(PlayBoxUser user) {
+        Integer id = user.getId();
+        String name = user.getName();
+        String phone = user.getPhone();
+        String email = user.getEmail();
+        AfterCommit.run(() -> index.put(id, name, phone, email));
+    }
+
+    /**
+     * @return matching users, best match first
+     */
+    public List<PlayBoxUser> search(String query, int limit) {
+        if (!ready) {
+            List<PlayBoxUser> users = userRepository.searchUsers(query);
+            return users.size() > limit ? users.subList(0, limit) : users;
+        }
+
+        List<Integer> rankedIds = index.search(query, limit);
+        if (rankedIds.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Integer, PlayBoxUser> usersById = new HashMap<>();
+        userRepository.findAllById(rankedIds).forEach(user -> usersById.put(user.getId(), user));
+
+        List<PlayBoxUser> ranked = new ArrayList<>(rankedIds.size());
+        for (Integer id : rankedIds) {
+            PlayBoxUser user = usersById.get(id);
+            if (user != null) {
+                ranked.add(user);
+            }
+        }
+        return ranked;
+    }
+
+    public UserSearchIndex.MemoryStats getIndexStats() {
+        return index.memoryStats();
+    }
+}
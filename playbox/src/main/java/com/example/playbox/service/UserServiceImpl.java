@@ -1,34 +1,35 @@
 package com.example.playbox.service;
 
 import java.time.Instant;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.ZoneId;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.playbox.dto.PageResponse;
 import com.example.playbox.dto.RechargeHistoryDTO;
 import com.example.playbox.dto.TransactionDTO;
 import com.example.playbox.dto.UserDetailsDTO;
 import com.example.playbox.dto.UserStatsDTO;
 import com.example.playbox.dto.UserSummaryDTO;
+import com.example.playbox.exception.SlotUnavailableException;
 import com.example.playbox.model.AdminUser;
 import com.example.playbox.model.Booking;
 import com.example.playbox.model.PlayBoxUser;
 import com.example.playbox.model.Slot;
-import com.example.playbox.model.Sport;
 import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.model.UserWalletStats;
 import com.example.playbox.repository.AdminUserRepository;
 import com.example.playbox.repository.BookingRepository;
 import com.example.playbox.repository.PlayBoxUserRepository;
 import com.example.playbox.repository.SlotRepository;
-import com.example.playbox.repository.SportRepository;
 import com.example.playbox.repository.TransactionRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -42,10 +43,17 @@ public class UserServiceImpl {
     private final SlotRepository slotRepository;
     private final BookingRepository bookingRepository;
     private final AdminUserRepository adminUserRepository;
-    private final SportRepository sportRepository;
     private final SlotService slotService;
+    private final SportCatalog sportCatalog;
     private final TwilioSmsService twilioSmsService;
     private final BookingNotificationService bookingNotificationService;
+    private final UserWalletStatsService walletStatsService;
+    private final UserStatsSnapshotService statsSnapshotService;
+    private final JsonStreamService jsonStreamService;
+    private final UserSearchService userSearchService;
+    private final CardUidCache cardUidCache;
+
+    private static final int MAX_PAGE_SIZE = 500;
 
     private static final Set<String> SLOT_REQUIRED_ACTIVITIES = new HashSet<>(Set.of(
             "cricket",
@@ -55,30 +63,59 @@ public class UserServiceImpl {
     ));
 
     public PlayBoxUser getByCardUid(String cardUid) {
-        return userRepo.findByCardUid(cardUid).orElse(null);
+        Integer cachedUserId = cardUidCache.lookup(cardUid);
+        if (cachedUserId != null) {
+            if (cachedUserId == CardUidCache.UNKNOWN_CARD) {
+                return null;
+            }
+            PlayBoxUser user = userRepo.findById(cachedUserId).orElse(null);
+            if (user != null && cardUid.equals(user.getCardUid())) {
+                return user;
+            }
+            // Card changed hands without passing through this service; fall back to the lookup.
+            cardUidCache.invalidate(cardUid);
+        }
+
+        PlayBoxUser user = userRepo.findByCardUid(cardUid).orElse(null);
+        if (user == null) {
+            cardUidCache.putUnknown(cardUid);
+        } else {
+            cardUidCache.putOwner(cardUid, user.getId());
+        }
+        return user;
+    }
+
+    public CardUidCache.CacheStats getCardCacheStats() {
+        return cardUidCache.stats();
     }
 
     public PlayBoxUser createUser(PlayBoxUser user) {
-        user.setCreatedAt(LocalDateTime.now().toString());
-        user.setUpdatedAt(LocalDateTime.now().toString());
+        user.setCreatedAt(Instant.now());
+        user.setUpdatedAt(Instant.now());
         user.setBalance(0f);
-        return userRepo.save(user);
+        PlayBoxUser savedUser = userRepo.save(user);
+        cardUidCache.invalidate(savedUser.getCardUid());
+        statsSnapshotService.recordUserCreated(savedUser);
+        userSearchService.index(savedUser);
+        return savedUser;
     }
 
     /* ---------------- ADD BALANCE ---------------- */
 
+    @Transactional
     public PlayBoxUser addBalance(String cardUid, float amount, String adminName) {
         PlayBoxUser user = getByCardUid(cardUid);
+        if (user == null) {
+            throw new RuntimeException("User not found for card");
+        }
 
-        float currentBalance = user.getBalance() == null ? 0f : user.getBalance();
-        user.setBalance(currentBalance + amount);
-        user.setUpdatedAt(LocalDateTime.now().toString());
-       
+        float newBalance = userRepo.credit(user.getId(), amount)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        user.setBalance(newBalance);
 
         saveTransaction(user, "ADD", amount, adminName, "Balance added");
-        PlayBoxUser savedUser = userRepo.save(user);
-        sendSmsSafely(() -> twilioSmsService.sendBalanceAdded(savedUser.getPhone(), amount, savedUser.getBalance()));
-        return savedUser;
+        sendSmsSafely(() -> twilioSmsService.sendBalanceAdded(user.getPhone(), amount, newBalance));
+        return user;
     }
 
     /* ---------------- DEDUCT BALANCE ---------------- */
@@ -93,6 +130,9 @@ public class UserServiceImpl {
             Long slotId
     ) {
         PlayBoxUser user = getByCardUid(cardUid);
+        if (user == null) {
+            throw new RuntimeException("User not found for card");
+        }
         Slot bookedSlot = null;
         String bookedSportName = null;
         String normalizedActivity = normalizeActivity(description);
@@ -112,14 +152,20 @@ public class UserServiceImpl {
         }
 
         if (slotId != null) {
-            Slot slot = slotRepository.findWithLockingById(slotId)
+            Slot slot = slotRepository.findById(slotService.resolveSlotId(slotId))
                     .orElseThrow(() -> new RuntimeException("Slot not found"));
-            if (!slotService.isSwimmingSlotAllowed(slot.getSport(), slot.getStartTime())) {
-                throw new RuntimeException("Swimming Pool slots are available only between 08:00 and 22:00");
+            if (!slotService.isWithinSchedule(slot.getSport(), slot.getStartTime())) {
+                throw new RuntimeException("Invalid slot: outside opening hours");
             }
-            boolean multiSlotSport = isMultiSlotSport(slot.getSport());
+            boolean multiSlotSport = slotService.isMultiSlotSport(slot.getSport());
 
-            if (!multiSlotSport && Boolean.TRUE.equals(slot.getBooked())) {
+            try {
+                if (multiSlotSport) {
+                    slotService.checkSeatAvailable(slot);
+                } else {
+                    slotService.claimSlot(slot);
+                }
+            } catch (SlotUnavailableException ex) {
                 throw new RuntimeException("Selected slot is already booked");
             }
 
@@ -131,42 +177,53 @@ public class UserServiceImpl {
             booking.setUserId(user.getId());
             booking.setSportId(slot.getSport().getId());
             booking.setSlotId(slot.getId());
+            booking.setSlotDate(slot.getSlotDate());
+            booking.setStartTime(slot.getStartTime());
+            booking.setEndTime(slot.getEndTime());
             booking.setAmount(amount);
             booking.setStatus("CONFIRMED");
             booking.setPaymentMode("WALLET");
-            booking.setCreatedAt(Instant.now().toString());
+            booking.setCreatedAt(Instant.now());
 
-            if (!multiSlotSport) {
+            if (multiSlotSport) {
+                try {
+                    slotService.reserveSeat(slot);
+                } catch (SlotUnavailableException ex) {
+                    throw new RuntimeException("Selected slot is already booked");
+                }
+            } else {
                 slot.setBooked(true);
                 slotRepository.save(slot);
             }
             Booking savedBooking = bookingRepository.save(booking);
             bookedSlot = slot;
-            bookedSportName = slot.getSport() != null ? slot.getSport().getName() : null;
-            bookingNotificationService.notifyBookingCreated(savedBooking, user, slot.getSport(), slot);
+            bookedSportName = sportCatalog.get(slot.getSport().getId()).name();
+            slotService.recordBooking(slot);
+            bookingNotificationService.notifyBookingCreated(savedBooking, user, bookedSportName, slot);
         }
 
-        user.setBalance(currentBalance - amount);
-        user.setUpdatedAt(LocalDateTime.now().toString());
+        // The check above is only a fast path; the conditional update is what guards the balance.
+        float newBalance = userRepo.debit(user.getId(), amount)
+                .orElseThrow(() -> new RuntimeException("Insufficient Balance"));
+        user.setBalance(newBalance);
 
         saveTransaction(user, "DEDUCT", amount, deductor, description);
-        PlayBoxUser savedUser = userRepo.save(user);
         if (bookedSlot != null) {
             Slot finalBookedSlot = bookedSlot;
             String finalBookedSportName = bookedSportName;
             sendSmsSafely(() -> twilioSmsService.sendBookingWithDeductionSummary(
-                    savedUser.getPhone(),
+                    user.getPhone(),
                     finalBookedSportName,
-                    finalBookedSlot.getSlotDate(),
-                    finalBookedSlot.getStartTime(),
-                    finalBookedSlot.getEndTime(),
+                    finalBookedSlot.getSlotDate().toString(),
+                    finalBookedSlot.getStartTime().toString(),
+                    finalBookedSlot.getEndTime().toString(),
                     amount,
-                    savedUser.getBalance()
+                    user.getBalance()
             ));
         } else {
-            sendSmsSafely(() -> twilioSmsService.sendBalanceDeducted(savedUser.getPhone(), amount, savedUser.getBalance(), description));
+            sendSmsSafely(() -> twilioSmsService.sendBalanceDeducted(user.getPhone(), amount, user.getBalance(), description));
         }
-        return savedUser;
+        return user;
     }
 
     /* ---------------- TRANSACTION SAVE ---------------- */
@@ -192,12 +249,30 @@ public class UserServiceImpl {
         tx.setDescription(description);  // reason / note
 
         txRepo.save(tx);
+        walletStatsService.recordLedgerEntry(tx);
     }
 
     /* ---------------- ADMIN USE CASES ---------------- */
 
-    public List<PlayBoxUser> getAllUsers() {
-        return userRepo.findAll();
+    public StreamingResponseBody streamAllUsers() {
+        return jsonStreamService.streamArray(userRepo::streamAll);
+    }
+
+    public PageResponse<PlayBoxUser> getUsersPage(Integer afterId, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists
+        List<PlayBoxUser> users = userRepo.findByIdGreaterThanOrderByIdAsc(
+            afterId == null ? 0 : afterId,
+            Limit.of(pageSize + 1)
+        );
+        boolean hasMore = users.size() > pageSize;
+        if (hasMore) {
+            users = users.subList(0, pageSize);
+        }
+
+        String nextCursor = hasMore ? String.valueOf(users.get(users.size() - 1).getId()) : null;
+        return PageResponse.ofKeyset(users, pageSize, afterId == null, nextCursor);
     }
 
     public PlayBoxUser getByPhone(String phone) {
@@ -205,43 +280,54 @@ public class UserServiceImpl {
     }
 
     public List<UserSummaryDTO> getAllUsersSummary() {
-        List<PlayBoxUser> users = userRepo.findAll();
-        
-        return users.stream().map(user -> {
-            UserSummaryDTO dto = new UserSummaryDTO();
-            dto.setId(user.getId());
-            dto.setName(user.getName());
-            dto.setPhone(user.getPhone());
-            dto.setEmail(user.getEmail());
-            
-            try {
-                dto.setRegistrationDate(
-                    LocalDateTime.parse(user.getCreatedAt())
-                );
-            } catch (Exception e) {
-                dto.setRegistrationDate(null);
-            }
-            
-            dto.setCurrentBalance(user.getBalance());
-            
-            // Calculate stats
-            Double totalRecharge = txRepo.getTotalRecharge(user.getId());
-            Double totalDeduction = txRepo.getTotalDeduction(user.getId());
-            Long totalVisits = txRepo.getTotalVisits(user.getId());
-            Instant lastVisit = txRepo.getLastVisit(user.getId()); // Now returns Instant
-            
-            dto.setTotalRecharge(totalRecharge != null ? totalRecharge : 0.0);
-            dto.setTotalDeduction(totalDeduction != null ? totalDeduction : 0.0);
-            dto.setTotalVisits(totalVisits != null ? totalVisits.intValue() : 0);
-            dto.setLastVisit(lastVisit != null ? lastVisit.toString() : null); // Convert to String
-            
-            // Determine status (active if visited in last 30 days)
-            String status = determineUserStatus(lastVisit);
-            dto.setStatus(status);
-            
-            return dto;
-        }).collect(Collectors.toList());
+        return summarize(userRepo.findAll());
     }
+
+    public PageResponse<UserSummaryDTO> getUsersSummaryPage(Integer afterId, int limit) {
+        PageResponse<PlayBoxUser> users = getUsersPage(afterId, limit);
+        return PageResponse.ofKeyset(
+            summarize(users.getContent()),
+            users.getPageSize(),
+            users.isFirst(),
+            users.getNextCursor()
+        );
+    }
+
+    private List<UserSummaryDTO> summarize(List<PlayBoxUser> users) {
+        if (users.isEmpty()) {
+            return List.of();
+        }
+
+        List<Integer> userIds = users.stream().map(PlayBoxUser::getId).toList();
+        Map<Integer, UserWalletStats> statsByUserId = walletStatsService.findByUserIds(userIds);
+
+        return users.stream()
+            .map(user -> toSummaryDTO(user, statsByUserId.get(user.getId())))
+            .collect(Collectors.toList());
+    }
+
+    private UserSummaryDTO toSummaryDTO(PlayBoxUser user, UserWalletStats stats) {
+        UserSummaryDTO dto = new UserSummaryDTO();
+        dto.setId(user.getId());
+        dto.setName(user.getName());
+        dto.setPhone(user.getPhone());
+        dto.setEmail(user.getEmail());
+        dto.setRegistrationDate(user.getCreatedAt());
+
+        dto.setCurrentBalance(user.getBalance());
+
+        Instant lastVisit = stats != null ? stats.getLastVisit() : null;
+        dto.setTotalRecharge(stats != null ? stats.getTotalRecharge() : 0.0);
+        dto.setTotalDeduction(stats != null ? stats.getTotalDeduction() : 0.0);
+        dto.setTotalVisits(stats != null ? stats.getVisitCount().intValue() : 0);
+        dto.setLastVisit(lastVisit != null ? lastVisit.toString() : null);
+
+        // Determine status (active if visited in last 30 days)
+        dto.setStatus(determineUserStatus(lastVisit));
+
+        return dto;
+    }
+
     private String determineUserStatus(Instant lastVisit) {
         if (lastVisit == null) {
             return "inactive";
@@ -263,29 +349,20 @@ public class UserServiceImpl {
         dto.setRegistrationDate(user.getCreatedAt());
         dto.setCurrentBalance(user.getBalance());
         
-        // Calculate stats
-        Double totalRecharge = txRepo.getTotalRecharge(userId);
-        Double totalDeduction = txRepo.getTotalDeduction(userId);
-        Long totalVisits = txRepo.getTotalVisits(userId);
-        Instant lastVisit = txRepo.getLastVisit(userId); 
-        
-        dto.setTotalRecharge(totalRecharge != null ? totalRecharge : 0.0);
-        dto.setTotalDeduction(totalDeduction != null ? totalDeduction : 0.0);
-        dto.setTotalVisits(totalVisits != null ? totalVisits.intValue() : 0);
-        dto.setLastVisit(lastVisit != null ? lastVisit.toString() : null); 
-        // Calculate average visit amount
-        if (totalVisits != null && totalVisits > 0 && totalDeduction != null) {
-            dto.setAvgVisitAmount(totalDeduction / totalVisits);
-        } else {
-            dto.setAvgVisitAmount(0.0);
-        }
-        
+        // Lifetime stats
+        UserWalletStats stats = walletStatsService.findByUserId(userId);
+        Instant lastVisit = stats.getLastVisit();
+        long totalVisits = stats.getVisitCount();
+
+        dto.setTotalRecharge(stats.getTotalRecharge());
+        dto.setTotalDeduction(stats.getTotalDeduction());
+        dto.setTotalVisits((int) totalVisits);
+        dto.setLastVisit(lastVisit != null ? lastVisit.toString() : null);
+        dto.setAvgVisitAmount(totalVisits > 0 ? stats.getTotalDeduction() / totalVisits : 0.0);
+
         // Determine status
         dto.setStatus(determineUserStatus(lastVisit));
-        
-        // Get last recharge date
-        String lastRechargeDate = getLastRechargeDate(userId);
-        dto.setLastRechargeDate(lastRechargeDate);
+        dto.setLastRechargeDate(stats.getLastRecharge() != null ? stats.getLastRecharge().toString() : null);
         
         // Get recent transactions (last 10)
         List<TransactionEntity> recentTxs = txRepo.findTop10ByUserIdOrderByTimestampDesc(userId);
@@ -302,89 +379,12 @@ public class UserServiceImpl {
     }
 
     public UserStatsDTO getUserStats() {
-        UserStatsDTO stats = new UserStatsDTO();
-        
-        // Total users
-        List<PlayBoxUser> allUsers = userRepo.findAll();
-        stats.setTotalUsers(allUsers.size());
-        
-        // Active users (visited in last 30 days)
-        long activeUsers = allUsers.stream()
-            .filter(user -> {
-                Instant lastVisit = txRepo.getLastVisit(user.getId());
-                return isActiveUser(lastVisit);
-            })
-            .count();
-        stats.setActiveUsers((int) activeUsers);
-        
-        // Total recharge & deduction
-        Double totalRecharge = 0.0;
-        Double totalDeduction = 0.0;
-        Double totalBalance = 0.0;
-        
-        for (PlayBoxUser user : allUsers) {
-            Double recharge = txRepo.getTotalRecharge(user.getId());
-            Double deduction = txRepo.getTotalDeduction(user.getId());
-            
-            if (recharge != null) totalRecharge += recharge;
-            if (deduction != null) totalDeduction += deduction;
-            
-            totalBalance += user.getBalance();
-        }
-        
-        stats.setTotalRecharge(totalRecharge);
-        stats.setTotalDeduction(totalDeduction);
-        stats.setAvgBalance(allUsers.isEmpty() ? 0.0 : totalBalance / allUsers.size());
-        
-        // New users today
-        ZoneId IST = ZoneId.of("Asia/Kolkata");
-        LocalDate today = LocalDate.now(IST);
-        Instant start = today.atStartOfDay(IST).toInstant();
-        Instant end = today.plusDays(1).atStartOfDay(IST).toInstant();
-        
-        long newUsersToday = allUsers.stream()
-            .filter(user -> {
-                try {
-                    Instant userCreated = Instant.parse(user.getCreatedAt());
-                    return !userCreated.isBefore(start) && userCreated.isBefore(end);
-                } catch (Exception e) {
-                    return false;
-                }
-            })
-            .count();
-        stats.setNewUsersToday((int) newUsersToday);
-        
-        return stats;
+        return statsSnapshotService.getStats();
     }
 
-    public List<UserSummaryDTO> searchUsers(String query) {
-        List<PlayBoxUser> users = userRepo.searchUsers(query);
-        
-        return users.stream().map(user -> {
-            UserSummaryDTO dto = new UserSummaryDTO();
-            dto.setId(user.getId());
-            dto.setName(user.getName());
-            dto.setPhone(user.getPhone());
-            dto.setEmail(user.getEmail());
-            dto.setCurrentBalance(user.getBalance());
-            dto.setRegistrationDate(
-                LocalDateTime.parse(user.getCreatedAt())
-            );
-            
-            // Basic stats
-            Double totalRecharge = txRepo.getTotalRecharge(user.getId());
-            Double totalDeduction = txRepo.getTotalDeduction(user.getId());
-            Long totalVisits = txRepo.getTotalVisits(user.getId());
-            Instant lastVisit = txRepo.getLastVisit(user.getId()); 
-            
-            dto.setTotalRecharge(totalRecharge != null ? totalRecharge : 0.0);
-            dto.setTotalDeduction(totalDeduction != null ? totalDeduction : 0.0);
-            dto.setTotalVisits(totalVisits != null ? totalVisits.intValue() : 0);
-            dto.setLastVisit(lastVisit != null ? lastVisit.toString() : null); 
-            dto.setStatus(determineUserStatus(lastVisit));
-            
-            return dto;
-        }).collect(Collectors.toList());
+    public List<UserSummaryDTO> searchUsers(String query, int limit) {
+        int maxResults = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        return summarize(userSearchService.search(query, maxResults));
     }
 
     /* ---------------- HELPER METHODS ---------------- */
@@ -404,22 +404,6 @@ public class UserServiceImpl {
         }
     }
 
-    private boolean isActiveUser(Instant lastVisit) {
-        if (lastVisit == null) {
-            return false;
-        }
-        
-        Instant thirtyDaysAgo = Instant.now().minusSeconds(30L * 24 * 60 * 60);
-        return lastVisit.isAfter(thirtyDaysAgo);
-    }
-    private String getLastRechargeDate(Integer userId) {
-        List<TransactionEntity> rechargeTxs = txRepo.findByUserIdAndTypeOrderByTimestampDesc(userId, "ADD");
-        if (!rechargeTxs.isEmpty()) {
-            return rechargeTxs.get(0).getTimestamp().toString();
-        }
-        return null;
-    }
-
     private List<RechargeHistoryDTO> getRechargeHistory(Integer userId) {
         List<Object[]> results = txRepo.getRechargeHistory(userId);
         
@@ -452,24 +436,6 @@ public class UserServiceImpl {
         return activity.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
     }
 
-    private boolean isMultiSlotSport(Sport sport) {
-        if (sport == null) {
-            return false;
-        }
-        if (Boolean.TRUE.equals(sport.getIsmuplislot())) {
-            return true;
-        }
-
-        String sportName = sport.getName() == null ? "" : sport.getName().trim().toLowerCase(Locale.ROOT);
-        boolean isSwimming = sportName.contains("swimming");
-        if (isSwimming) {
-            sport.setIsmuplislot(true);
-            sportRepository.save(sport);
-            return true;
-        }
-        return false;
-    }
-
     public PlayBoxUser updateUser(PlayBoxUser user) {
         PlayBoxUser existing = userRepo.findById(user.getId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -477,7 +443,9 @@ public class UserServiceImpl {
         existing.setName(user.getName());
         existing.setEmail(user.getEmail());
     
-        return userRepo.save(existing);
+        PlayBoxUser savedUser = userRepo.save(existing);
+        userSearchService.index(savedUser);
+        return savedUser;
     }
 
     @Transactional
@@ -501,8 +469,9 @@ public class UserServiceImpl {
                 .orElseThrow(() -> new RuntimeException("User not found for card"));
 
         user.setCardUid(null);
-        user.setUpdatedAt(LocalDateTime.now().toString());
+        user.setUpdatedAt(Instant.now());
         PlayBoxUser savedUser = userRepo.save(user);
+        cardUidCache.invalidate(cardUid);
         String blockedCardId = cardUid;
         sendSmsSafely(() -> twilioSmsService.sendCardBlocked(savedUser.getPhone(), blockedCardId));
         return savedUser;
@@ -517,8 +486,8 @@ public class UserServiceImpl {
             throw new RuntimeException("Card UID is required");
         }
 
-        PlayBoxUser existingCardOwner = getByCardUid(cardUid);
-        if (existingCardOwner != null) {
+        // Ownership check goes to the database; the scan cache may hold a short-lived "unknown" entry.
+        if (userRepo.findByCardUid(cardUid).isPresent()) {
             throw new RuntimeException("Card is already assigned to another user");
         }
 
@@ -530,8 +499,9 @@ public class UserServiceImpl {
         }
 
         user.setCardUid(cardUid);
-        user.setUpdatedAt(LocalDateTime.now().toString());
+        user.setUpdatedAt(Instant.now());
         PlayBoxUser savedUser = userRepo.save(user);
+        cardUidCache.invalidate(cardUid);
         sendSmsSafely(() -> twilioSmsService.sendCardCreated(savedUser.getPhone(), cardUid));
         return savedUser;
     }
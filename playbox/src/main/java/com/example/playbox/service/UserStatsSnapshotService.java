@@ -0,0 +1,168 @@
+package com.example.playbox.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.playbox.dto.UserStatsDTO;
+import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.repository.UserWalletStatsRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * In-memory source for /api/users/stats. Counters move with every committed
+ * signup and ledger write and are periodically reconciled against the database.
+ *
+ * Active users are tracked in one bucket per IST day holding the users whose
+ * latest visit fell on that day; the active count is the sum of the last
+ * {@value #ACTIVE_WINDOW_DAYS} buckets.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStatsSnapshotService {
+
+    private static final ZoneId IST = ZoneId.of("Asia/Kolkata");
+    private static final int ACTIVE_WINDOW_DAYS = 30;
+
+    private final PlayBoxUserRepository userRepository;
+    private final UserWalletStatsRepository walletStatsRepository;
+
+    private final AtomicReference<Totals> totals = new AtomicReference<>(Totals.EMPTY);
+    private final AtomicReference<DailyCount> newUsers = new AtomicReference<>(new DailyCount(LocalDate.MIN, 0));
+    private final Map<Integer, LocalDate> lastVisitDayByUser = new ConcurrentHashMap<>();
+    private final Map<LocalDate, AtomicInteger> latestVisitsPerDay = new ConcurrentHashMap<>();
+
+    private record Totals(long users, double recharge, double deduction, double balance) {
+        static final Totals EMPTY = new Totals(0, 0.0, 0.0, 0.0);
+    }
+
+    private record DailyCount(LocalDate day, long count) {
+    }
+
+    public UserStatsDTO getStats() {
+        Totals current = totals.get();
+        LocalDate today = LocalDate.now(IST);
+
+        UserStatsDTO stats = new UserStatsDTO();
+        stats.setTotalUsers((int) current.users());
+        stats.setActiveUsers(countActiveUsers(today));
+        stats.setTotalRecharge(current.recharge());
+        stats.setTotalDeduction(current.deduction());
+        stats.setAvgBalance(current.users() == 0 ? 0.0 : current.balance() / current.users());
+
+        DailyCount created = newUsers.get();
+        stats.setNewUsersToday(created.day().equals(today) ? (int) created.count() : 0);
+        return stats;
+    }
+
+    public void recordUserCreated(PlayBoxUser user) {
+        float balance = user.getBalance() == null ? 0f : user.getBalance();
+        AfterCommit.run(() -> {
+            totals.updateAndGet(t -> new Totals(t.users() + 1, t.recharge(), t.deduction(), t.balance() + balance));
+            LocalDate today = LocalDate.now(IST);
+            newUsers.updateAndGet(c -> c.day().equals(today)
+                    ? new DailyCount(today, c.count() + 1)
+                    : new DailyCount(today, 1));
+        });
+    }
+
+    public void recordLedgerEntry(TransactionEntity tx) {
+        String type = tx.getType();
+        double amount = tx.getAmount() == null ? 0.0 : tx.getAmount();
+        Instant at = tx.getTimestamp() == null ? Instant.now() : tx.getTimestamp();
+
+        AfterCommit.run(() -> {
+            if ("ADD".equals(type)) {
+                totals.updateAndGet(t -> new Totals(t.users(), t.recharge() + amount, t.deduction(), t.balance() + amount));
+            } else if ("DEDUCT".equals(type) || "BOOKING".equals(type)) {
+                totals.updateAndGet(t -> new Totals(t.users(), t.recharge(), t.deduction() + amount, t.balance() - amount));
+                recordVisit(tx.getUserId(), at.atZone(IST).toLocalDate());
+            }
+        });
+    }
+
+    /**
+     * Rebuilds every counter from the database. Runs at startup and on a fixed
+     * delay so drift from concurrent updates or out-of-band edits is bounded.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(
+            initialDelayString = "${playbox.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${playbox.stats.reconcile-interval-ms:300000}"
+    )
+    public void reconcile() {
+        LocalDate today = LocalDate.now(IST);
+        Instant startOfDay = today.atStartOfDay(IST).toInstant();
+        Instant endOfDay = today.plusDays(1).atStartOfDay(IST).toInstant();
+        Instant windowStart = today.minusDays(ACTIVE_WINDOW_DAYS - 1L).atStartOfDay(IST).toInstant();
+
+        Object[] userTotals = userRepository.countUsersAndBalance().get(0);
+        Object[] walletTotals = walletStatsRepository.sumTotals().get(0);
+        long created = userRepository.countCreatedBetween(startOfDay, endOfDay);
+        List<Object[]> recentVisits = walletStatsRepository.findLastVisitsSince(windowStart);
+
+        Map<Integer, LocalDate> visitDays = new ConcurrentHashMap<>();
+        Map<LocalDate, AtomicInteger> dayCounts = new ConcurrentHashMap<>();
+        for (Object[] row : recentVisits) {
+            LocalDate day = ((Instant) row[1]).atZone(IST).toLocalDate();
+            visitDays.put((Integer) row[0], day);
+            dayCounts.computeIfAbsent(day, d -> new AtomicInteger()).incrementAndGet();
+        }
+
+        totals.set(new Totals(
+                ((Number) userTotals[0]).longValue(),
+                ((Number) walletTotals[0]).doubleValue(),
+                ((Number) walletTotals[1]).doubleValue(),
+                ((Number) userTotals[1]).doubleValue()
+        ));
+        newUsers.set(new DailyCount(today, created));
+
+        synchronized (lastVisitDayByUser) {
+            lastVisitDayByUser.clear();
+            lastVisitDayByUser.putAll(visitDays);
+            latestVisitsPerDay.clear();
+            latestVisitsPerDay.putAll(dayCounts);
+        }
+    }
+
+    private void recordVisit(Integer userId, LocalDate day) {
+        synchronized (lastVisitDayByUser) {
+            LocalDate previous = lastVisitDayByUser.get(userId);
+            if (previous != null && !day.isAfter(previous)) {
+                return;
+            }
+            lastVisitDayByUser.put(userId, day);
+            if (previous != null) {
+                AtomicInteger previousBucket = latestVisitsPerDay.get(previous);
+                if (previousBucket != null) {
+                    previousBucket.decrementAndGet();
+                }
+            }
+            latestVisitsPerDay.computeIfAbsent(day, d -> new AtomicInteger()).incrementAndGet();
+        }
+    }
+
+    private int countActiveUsers(LocalDate today) {
+        int active = 0;
+        for (int i = 0; i < ACTIVE_WINDOW_DAYS; i++) {
+            AtomicInteger bucket = latestVisitsPerDay.get(today.minusDays(i));
+            if (bucket != null) {
+                active += bucket.get();
+            }
+        }
+        return active;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.playbox.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.model.UserWalletStats;
+import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.repository.UserWalletStatsRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class UserWalletStatsService {
+
+    private static final int REBUILD_CHUNK_SIZE = 1000;
+
+    private final UserWalletStatsRepository statsRepository;
+    private final PlayBoxUserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserStatsSnapshotService statsSnapshotService;
+    private final RevenueRollupService revenueRollupService;
+
+    /**
+     * Folds a ledger row into the owner's lifetime stats. Must run in the
+     * transaction that writes the ledger row so both commit or roll back together.
+     * ADD counts as a recharge; DEDUCT and BOOKING count as a deduction and a visit.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordLedgerEntry(TransactionEntity tx) {
+        String type = tx.getType();
+        double amount = tx.getAmount() == null ? 0.0 : tx.getAmount();
+
+        if ("ADD".equals(type)) {
+            statsRepository.applyLedgerEntry(tx.getUserId(), amount, 0.0, 0L, null, tx.getTimestamp());
+        } else if ("DEDUCT".equals(type) || "BOOKING".equals(type)) {
+            statsRepository.applyLedgerEntry(tx.getUserId(), 0.0, amount, 1L, tx.getTimestamp(), null);
+        }
+        revenueRollupService.recordLedgerEntry(tx);
+        statsSnapshotService.recordLedgerEntry(tx);
+    }
+
+    @Transactional(readOnly = true)
+    public UserWalletStats findByUserId(Integer userId) {
+        return statsRepository.findById(userId).orElseGet(() -> empty(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Integer, UserWalletStats> findByUserIds(Collection<Integer> userIds) {
+        Map<Integer, UserWalletStats> byUserId = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return byUserId;
+        }
+        statsRepository.findAllById(userIds).forEach(stats -> byUserId.put(stats.getUserId(), stats));
+        return byUserId;
+    }
+
+    /**
+     * Recomputes every user's stats from PlayboxTransactions, one id range per
+     * transaction so a large ledger never holds locks for the whole backfill.
+     *
+     * @return number of stats rows written
+     */
+    public int rebuild() {
+        Integer maxUserId = userRepository.findMaxId();
+        int written = 0;
+
+        for (int fromId = 0; fromId < maxUserId; fromId += REBUILD_CHUNK_SIZE) {
+            int from = fromId;
+            int to = Math.min(fromId + REBUILD_CHUNK_SIZE, maxUserId);
+            Integer rows = transactionTemplate.execute(status -> statsRepository.rebuildRange(from, to));
+            written += rows == null ? 0 : rows;
+        }
+        return written;
+    }
+
+    // Backfill once when the table is introduced on an existing database
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillIfEmpty() {
+        if (statsRepository.count() == 0 && userRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    private UserWalletStats empty(Integer userId) {
+        UserWalletStats stats = new UserWalletStats();
+        stats.setUserId(userId);
+        stats.setTotalRecharge(0.0);
+        stats.setTotalDeduction(0.0);
+        stats.setVisitCount(0L);
+        return stats;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.playbox.service;
+
+import java.time.LocalDate;
+
+/**
+ * Ids of slots that exist only in a schedule template. They are negative so they never
+ * collide with Slot row ids, and encode -(sportId * 10^12 + yyyyMMdd * 10^4 + startMinute),
+ * which stays within JavaScript's safe integer range for sport ids below 9000.
+ */
+final class VirtualSlotId {
+
+    private static final long DATE_FACTOR = 10_000L;
+    private static final long SPORT_FACTOR = 1_000_000_000_000L;
+
+    record Parts(long sportId, LocalDate date, int startMinute) {
+    }
+
+    private VirtualSlotId() {
+    }
+
+    static boolean isVirtual(Long slotId) {
+        return slotId != null && slotId < 0;
+    }
+
+    static long encode(long sportId, LocalDate date, int startMinute) {
+        long yyyymmdd = date.getYear() * 10_000L + date.getMonthValue() * 100L + date.getDayOfMonth();
+        return -(sportId * SPORT_FACTOR + yyyymmdd * DATE_FACTOR + startMinute);
+    }
+
+    static Parts decode(long slotId) {
+        long value = -slotId;
+        int startMinute = (int) (value % DATE_FACTOR);
+        long yyyymmdd = (value / DATE_FACTOR) % (SPORT_FACTOR / DATE_FACTOR);
+        long sportId = value / SPORT_FACTOR;
+        try {
+            LocalDate date = LocalDate.of((int) (yyyymmdd / 10_000), (int) (yyyymmdd / 100 % 100), (int) (yyyymmdd % 100));
+            return new Parts(sportId, date, startMinute);
+        } catch (RuntimeException ex) {
+            throw new RuntimeException("Slot not found");
+        }
+    }
+}
@@ -0,0 +1,193 @@
+-- Schema as ddl-auto: update left it. Every statement is safe on a database that
+-- update already built: tables are created only when missing, and columns and keys
+-- it added are skipped by SchemaMigrator (duplicate column or key name).
+
+CREATE TABLE IF NOT EXISTS `AdminUser` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `username` varchar(255),
+    `password` varchar(255),
+    `role` varchar(255),
+    `phone` varchar(255),
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_admin_user_username` (`username`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `PlayBoxUser` (
+    `id` integer NOT NULL AUTO_INCREMENT,
+    `card_uid` varchar(100),
+    `name` varchar(100) NOT NULL,
+    `email` varchar(150),
+    `phone` varchar(20) NOT NULL,
+    `balance` float,
+    `created_at` varchar(255),
+    `updated_at` varchar(255),
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_playbox_user_card_uid` (`card_uid`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `Sport` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `name` varchar(255),
+    `courtName` varchar(255),
+    `pricePerHour` float,
+    `active` bit,
+    `ismuplislot` bit,
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `SportSchedule` (
+    `sportId` bigint NOT NULL,
+    `openTime` varchar(5) NOT NULL,
+    `closeTime` varchar(5) NOT NULL,
+    `slotMinutes` integer NOT NULL,
+    `capacity` integer NOT NULL,
+    PRIMARY KEY (`sportId`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `Slot` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `sportId` bigint NOT NULL,
+    `slotDate` varchar(255),
+    `startTime` varchar(255),
+    `endTime` varchar(255),
+    `booked` bit,
+    `taken` integer,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_slot_sport_date_start` (`sportId`, `slotDate`, `startTime`),
+    FOREIGN KEY (`sportId`) REFERENCES `Sport` (`id`)
+) ENGINE=InnoDB;
+
+ALTER TABLE `Slot` ADD COLUMN `taken` integer;
+
+CREATE TABLE IF NOT EXISTS `Booking` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `userId` integer,
+    `sportId` bigint,
+    `slotId` bigint,
+    `slotDate` varchar(255),
+    `startTime` varchar(255),
+    `endTime` varchar(255),
+    `amount` float,
+    `status` varchar(255),
+    `paymentMode` varchar(255),
+    `remarks` varchar(255),
+    `createdAt` varchar(255),
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+ALTER TABLE `Booking` ADD COLUMN `slotDate` varchar(255);
+ALTER TABLE `Booking` ADD COLUMN `startTime` varchar(255);
+ALTER TABLE `Booking` ADD COLUMN `endTime` varchar(255);
+
+-- Before the unique key, slots created twice (racing first bookings) are folded into
+-- the lowest id: bookings move to it, it keeps any booked flag, and its seat count is
+-- cleared for SlotService to recount on startup.
+UPDATE `Slot` s
+JOIN (
+    SELECT MIN(`id`) AS `keepId`, MAX(`booked` + 0) AS `anyBooked`
+    FROM `Slot`
+    WHERE `slotDate` IS NOT NULL AND `startTime` IS NOT NULL
+    GROUP BY `sportId`, `slotDate`, `startTime`
+    HAVING COUNT(*) > 1
+) d ON s.`id` = d.`keepId`
+SET s.`booked` = d.`anyBooked`, s.`taken` = NULL;
+
+UPDATE `Booking` b
+JOIN `Slot` s ON s.`id` = b.`slotId`
+JOIN (
+    SELECT `sportId`, `slotDate`, `startTime`, MIN(`id`) AS `keepId`
+    FROM `Slot`
+    WHERE `slotDate` IS NOT NULL AND `startTime` IS NOT NULL
+    GROUP BY `sportId`, `slotDate`, `startTime`
+    HAVING COUNT(*) > 1
+) d ON s.`sportId` = d.`sportId` AND s.`slotDate` = d.`slotDate` AND s.`startTime` = d.`startTime`
+SET b.`slotId` = d.`keepId`
+WHERE s.`id` <> d.`keepId`;
+
+DELETE s FROM `Slot` s
+JOIN (
+    SELECT `sportId`, `slotDate`, `startTime`, MIN(`id`) AS `keepId`
+    FROM `Slot`
+    WHERE `slotDate` IS NOT NULL AND `startTime` IS NOT NULL
+    GROUP BY `sportId`, `slotDate`, `startTime`
+    HAVING COUNT(*) > 1
+) d ON s.`sportId` = d.`sportId` AND s.`slotDate` = d.`slotDate` AND s.`startTime` = d.`startTime`
+WHERE s.`id` <> d.`keepId`;
+
+ALTER TABLE `Slot` ADD CONSTRAINT `uk_slot_sport_date_start` UNIQUE (`sportId`, `slotDate`, `startTime`);
+
+CREATE TABLE IF NOT EXISTS `BookingNotification` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `bookingId` bigint,
+    `userId` integer,
+    `userName` varchar(255),
+    `userPhone` varchar(255),
+    `sportName` varchar(255),
+    `slotDate` varchar(255),
+    `startTime` varchar(255),
+    `endTime` varchar(255),
+    `remarks` varchar(255),
+    `message` varchar(255),
+    `seen` bit,
+    `createdAt` varchar(255),
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `OtpVerification` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `phone` varchar(255),
+    `otp` varchar(255),
+    `createdAt` varchar(255),
+    `verified` bit,
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `PlayboxTransactions` (
+    `id` integer NOT NULL AUTO_INCREMENT,
+    `user_id` integer NOT NULL,
+    `user_name` varchar(255),
+    `type` varchar(20) NOT NULL,
+    `amount` float NOT NULL,
+    `balance_after` float NOT NULL,
+    `adminName` varchar(255),
+    `description` varchar(255),
+    `timestamp` datetime(6),
+    PRIMARY KEY (`id`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `UserWalletStats` (
+    `userId` integer NOT NULL,
+    `totalRecharge` double,
+    `totalDeduction` double,
+    `visitCount` bigint,
+    `lastVisit` datetime(6),
+    `lastRecharge` datetime(6),
+    PRIMARY KEY (`userId`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `SmsOutbox` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `phone` varchar(20) NOT NULL,
+    `message` varchar(1000) NOT NULL,
+    `status` varchar(10) NOT NULL,
+    `attempts` integer NOT NULL,
+    `nextAttemptAt` datetime(6),
+    `lastError` varchar(500),
+    `createdAt` datetime(6),
+    `sentAt` datetime(6),
+    PRIMARY KEY (`id`),
+    KEY `idx_sms_outbox_due` (`status`, `nextAttemptAt`)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS `RevenueRollup` (
+    `id` bigint NOT NULL AUTO_INCREMENT,
+    `dimension` varchar(255),
+    `rollupDate` date,
+    `dimensionKey` varchar(255),
+    `type` varchar(255),
+    `label` varchar(255),
+    `txnCount` bigint,
+    `amount` double,
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_rollup_dimension_date_key_type` (`dimension`, `rollupDate`, `dimensionKey`, `type`)
+) ENGINE=InnoDB;
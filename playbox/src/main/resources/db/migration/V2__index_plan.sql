@@ -0,0 +1,21 @@
+-- Indexes for the repository queries. InnoDB appends the primary key to every
+-- secondary index, so (column, timestamp) also orders ties by id for keyset pages.
+
+-- Ledger: per-user history and recharges, staff and type filters, date ranges
+CREATE INDEX `idx_txn_user_time` ON `PlayboxTransactions` (`user_id`, `timestamp`);
+CREATE INDEX `idx_txn_user_type_time` ON `PlayboxTransactions` (`user_id`, `type`, `timestamp`);
+CREATE INDEX `idx_txn_admin_time` ON `PlayboxTransactions` (`adminName`, `timestamp`);
+CREATE INDEX `idx_txn_type_time` ON `PlayboxTransactions` (`type`, `timestamp`);
+CREATE INDEX `idx_txn_time` ON `PlayboxTransactions` (`timestamp`);
+
+-- Bookings: player history, bookings of a slot, grid of courts over a date range
+CREATE INDEX `idx_booking_user_date` ON `Booking` (`userId`, `slotDate`);
+CREATE INDEX `idx_booking_slot_status` ON `Booking` (`slotId`, `status`);
+CREATE INDEX `idx_booking_sport_date` ON `Booking` (`sportId`, `slotDate`);
+
+-- Lookups by phone: latest OTP of a number, user by phone
+CREATE INDEX `idx_otp_phone` ON `OtpVerification` (`phone`);
+CREATE INDEX `idx_user_phone` ON `PlayBoxUser` (`phone`);
+
+-- Admin notification feed, newest first
+CREATE INDEX `idx_notification_created` ON `BookingNotification` (`createdAt`);
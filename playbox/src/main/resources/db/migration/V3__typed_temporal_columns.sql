@@ -0,0 +1,64 @@
+-- Slot and booking times become DATE/TIME and creation times DATETIME(6) in UTC.
+-- Values were written as ISO text ("2026-02-08", "18:00", Instant.toString()), which
+-- MySQL converts once the 'T' and 'Z' of an instant are dropped. Text that does not
+-- look like a date or time is cleared first so the column change cannot fail on it.
+--
+-- Timestamps without a 'Z' came from LocalDateTime.now() (user creation and card
+-- updates) and are the app server's local time. They are taken to be IST, the zone
+-- all day boundaries use; a server that ran in another zone needs @writer_zone
+-- changed before this script runs.
+
+SET @writer_zone = '+05:30';
+
+UPDATE `Slot` SET `slotDate` = NULL WHERE `slotDate` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$';
+UPDATE `Slot` SET `startTime` = NULL WHERE `startTime` NOT REGEXP '^[0-9]{1,2}:[0-9]{2}(:[0-9]{2})?$';
+UPDATE `Slot` SET `endTime` = NULL WHERE `endTime` NOT REGEXP '^[0-9]{1,2}:[0-9]{2}(:[0-9]{2})?$';
+ALTER TABLE `Slot`
+    MODIFY `slotDate` date,
+    MODIFY `startTime` time,
+    MODIFY `endTime` time;
+
+UPDATE `Booking` SET `slotDate` = NULL WHERE `slotDate` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}$';
+UPDATE `Booking` SET `startTime` = NULL WHERE `startTime` NOT REGEXP '^[0-9]{1,2}:[0-9]{2}(:[0-9]{2})?$';
+UPDATE `Booking` SET `endTime` = NULL WHERE `endTime` NOT REGEXP '^[0-9]{1,2}:[0-9]{2}(:[0-9]{2})?$';
+UPDATE `Booking` SET `createdAt` = NULL WHERE `createdAt` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}[T ][0-9]{2}:[0-9]{2}';
+UPDATE `Booking` SET `createdAt` = CASE
+    WHEN `createdAt` LIKE '%Z' THEN LEFT(REPLACE(REPLACE(`createdAt`, 'T', ' '), 'Z', ''), 26)
+    ELSE CONVERT_TZ(LEFT(REPLACE(`createdAt`, 'T', ' '), 26), @writer_zone, '+00:00')
+END WHERE `createdAt` IS NOT NULL;
+ALTER TABLE `Booking`
+    MODIFY `slotDate` date,
+    MODIFY `startTime` time,
+    MODIFY `endTime` time,
+    MODIFY `createdAt` datetime(6);
+
+UPDATE `PlayBoxUser` SET `created_at` = NULL WHERE `created_at` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}[T ][0-9]{2}:[0-9]{2}';
+UPDATE `PlayBoxUser` SET `created_at` = CASE
+    WHEN `created_at` LIKE '%Z' THEN LEFT(REPLACE(REPLACE(`created_at`, 'T', ' '), 'Z', ''), 26)
+    ELSE CONVERT_TZ(LEFT(REPLACE(`created_at`, 'T', ' '), 26), @writer_zone, '+00:00')
+END WHERE `created_at` IS NOT NULL;
+UPDATE `PlayBoxUser` SET `updated_at` = NULL WHERE `updated_at` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}[T ][0-9]{2}:[0-9]{2}';
+UPDATE `PlayBoxUser` SET `updated_at` = CASE
+    WHEN `updated_at` LIKE '%Z' THEN LEFT(REPLACE(REPLACE(`updated_at`, 'T', ' '), 'Z', ''), 26)
+    ELSE CONVERT_TZ(LEFT(REPLACE(`updated_at`, 'T', ' '), 26), @writer_zone, '+00:00')
+END WHERE `updated_at` IS NOT NULL;
+ALTER TABLE `PlayBoxUser`
+    MODIFY `created_at` datetime(6),
+    MODIFY `updated_at` datetime(6);
+
+UPDATE `OtpVerification` SET `createdAt` = NULL WHERE `createdAt` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}[T ][0-9]{2}:[0-9]{2}';
+UPDATE `OtpVerification` SET `createdAt` = CASE
+    WHEN `createdAt` LIKE '%Z' THEN LEFT(REPLACE(REPLACE(`createdAt`, 'T', ' '), 'Z', ''), 26)
+    ELSE CONVERT_TZ(LEFT(REPLACE(`createdAt`, 'T', ' '), 26), @writer_zone, '+00:00')
+END WHERE `createdAt` IS NOT NULL;
+ALTER TABLE `OtpVerification` MODIFY `createdAt` datetime(6);
+
+UPDATE `BookingNotification` SET `createdAt` = NULL WHERE `createdAt` NOT REGEXP '^[0-9]{4}-[0-9]{2}-[0-9]{2}[T ][0-9]{2}:[0-9]{2}';
+UPDATE `BookingNotification` SET `createdAt` = CASE
+    WHEN `createdAt` LIKE '%Z' THEN LEFT(REPLACE(REPLACE(`createdAt`, 'T', ' '), 'Z', ''), 26)
+    ELSE CONVERT_TZ(LEFT(REPLACE(`createdAt`, 'T', ' '), 26), @writer_zone, '+00:00')
+END WHERE `createdAt` IS NOT NULL;
+ALTER TABLE `BookingNotification` MODIFY `createdAt` datetime(6);
+
+-- New users of the day are now counted with a range on created_at
+CREATE INDEX `idx_user_created` ON `PlayBoxUser` (`created_at`);
@@ -0,0 +1,32 @@
+-- Slot, Booking, PlayboxTransactions, BookingNotification and OtpVerification take
+-- ids in blocks from IdSequence instead of AUTO_INCREMENT, which keeps Hibernate
+-- from batching inserts. Each row holds the next free id of its table.
+
+CREATE TABLE IF NOT EXISTS `IdSequence` (
+    `name` varchar(255) NOT NULL,
+    `next_val` bigint,
+    PRIMARY KEY (`name`)
+) ENGINE=InnoDB;
+
+INSERT INTO `IdSequence` (`name`, `next_val`)
+SELECT 'Slot', COALESCE(MAX(`id`), 0) + 1 FROM `Slot`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+INSERT INTO `IdSequence` (`name`, `next_val`)
+SELECT 'Booking', COALESCE(MAX(`id`), 0) + 1 FROM `Booking`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+INSERT INTO `IdSequence` (`name`, `next_val`)
+SELECT 'PlayboxTransactions', COALESCE(MAX(`id`), 0) + 1 FROM `PlayboxTransactions`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+INSERT INTO `IdSequence` (`name`, `next_val`)
+SELECT 'BookingNotification', COALESCE(MAX(`id`), 0) + 1 FROM `BookingNotification`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+INSERT INTO `IdSequence` (`name`, `next_val`)
+SELECT 'OtpVerification', COALESCE(MAX(`id`), 0) + 1 FROM `OtpVerification`
+ON DUPLICATE KEY UPDATE `next_val` = GREATEST(`next_val`, VALUES(`next_val`));
+
+-- An insert that forgets its id now fails instead of colliding with a pooled block
+ALTER TABLE `Slot` MODIFY `id` bigint NOT NULL;
+ALTER TABLE `Booking` MODIFY `id` bigint NOT NULL;
+ALTER TABLE `PlayboxTransactions` MODIFY `id` integer NOT NULL;
+ALTER TABLE `BookingNotification` MODIFY `id` bigint NOT NULL;
+ALTER TABLE `OtpVerification` MODIFY `id` bigint NOT NULL;
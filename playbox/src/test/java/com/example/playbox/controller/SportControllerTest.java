@@ -0,0 +1,54 @@
+package com.example.playbox.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.example.playbox.service.SlotService;
+import com.example.playbox.service.SportCatalog;
+import com.example.playbox.service.SportScheduleService;
+
+class SportControllerTest {
+
+	private static final String ETAG = "\"3f2a\"";
+
+	private final SportCatalog sportCatalog = mock(SportCatalog.class);
+	private final SportController controller =
+			new SportController(sportCatalog, mock(SportScheduleService.class), mock(SlotService.class));
+
+	@Test
+	void everyFormOfAMatchingValidatorIsNotModified() {
+		for (String ifNoneMatch : List.of(ETAG, "\"old\", " + ETAG, "W/" + ETAG, "*")) {
+			assertThat(getAllSports(ifNoneMatch).getStatusCode()).as(ifNoneMatch).isEqualTo(HttpStatus.NOT_MODIFIED);
+		}
+	}
+
+	@Test
+	void aStaleValidatorGetsTheList() {
+		ResponseEntity<List<SportCatalog.Entry>> response = getAllSports("\"old\"");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(response.getHeaders().getETag()).isEqualTo(ETAG);
+		assertThat(response.getBody()).hasSize(1);
+	}
+
+	private ResponseEntity<List<SportCatalog.Entry>> getAllSports(String ifNoneMatch) {
+		SportCatalog.Entry cricket = new SportCatalog.Entry(
+				1L, "Cricket", "Court 1", 1000f, true, false, false, 1, "00:00", "24:00", 60);
+		when(sportCatalog.snapshot()).thenReturn(new SportCatalog.Snapshot(List.of(cricket), Map.of(1L, cricket), ETAG));
+
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/sports");
+		request.addHeader("If-None-Match", ifNoneMatch);
+		return controller.getAllSports(new ServletWebRequest(request, new MockHttpServletResponse()));
+	}
+}
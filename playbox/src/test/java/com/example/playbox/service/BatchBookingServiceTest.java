@@ -0,0 +1,48 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.model.Slot;
+import com.example.playbox.model.Sport;
+
+class BatchBookingServiceTest {
+
+	@Test
+	void backToBackSlotsOnOneCourtBecomeOneBooking() {
+		List<List<Slot>> runs = BatchBookingService.runs(List.of(
+				slot(1, "2026-03-03", "18:00", "19:00"),
+				slot(1, "2026-03-03", "19:00", "20:00"),
+				slot(1, "2026-03-03", "21:00", "22:00"),
+				slot(1, "2026-03-10", "22:00", "23:00"),
+				slot(2, "2026-03-10", "23:00", "00:00")));
+
+		assertThat(runs).extracting(List::size).containsExactly(2, 1, 1, 1);
+	}
+
+	@Test
+	void runEndingAtMidnightStaysOneBooking() {
+		List<List<Slot>> runs = BatchBookingService.runs(List.of(
+				slot(1, "2026-03-03", "22:00", "23:00"),
+				slot(1, "2026-03-03", "23:00", "00:00")));
+
+		assertThat(runs).hasSize(1);
+		assertThat(SportScheduleService.durationMinutes(LocalTime.of(22, 0), LocalTime.MIDNIGHT)).isEqualTo(120);
+	}
+
+	private Slot slot(long sportId, String date, String start, String end) {
+		Sport sport = new Sport();
+		sport.setId(sportId);
+		Slot slot = new Slot();
+		slot.setSport(sport);
+		slot.setSlotDate(LocalDate.parse(date));
+		slot.setStartTime(LocalTime.parse(start));
+		slot.setEndTime(LocalTime.parse(end));
+		return slot;
+	}
+}
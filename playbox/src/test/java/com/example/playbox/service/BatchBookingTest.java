@@ -0,0 +1,217 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.playbox.dto.AdminSlotStatusDTO;
+import com.example.playbox.dto.BatchBookingResponse;
+import com.example.playbox.dto.SlotDetailsDTO;
+import com.example.playbox.exception.SlotUnavailableException;
+import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.model.Sport;
+import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.repository.SportRepository;
+
+/**
+ * Checks BatchBookingService's guarantees against a real MySQL database: a series is
+ * booked completely or not at all, the wallet is debited once per series, and
+ * overlapping series racing each other fail cleanly instead of deadlocking.
+ * Run with SPRING_DATASOURCE_URL (and credentials) pointing at a scratch schema.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class BatchBookingTest {
+
+	private static final String PLAYER_PHONE = "9000000015";
+	private static final float START_BALANCE = 100_000f;
+	private static final int RACE_ROUNDS = 10;
+
+	@Autowired
+	private BatchBookingService batchBookingService;
+
+	@Autowired
+	private BookingService bookingService;
+
+	@Autowired
+	private SlotService slotService;
+
+	@Autowired
+	private SportCatalog sportCatalog;
+
+	@Autowired
+	private RevenueRollupService rollupService;
+
+	@Autowired
+	private SportRepository sportRepository;
+
+	@Autowired
+	private PlayBoxUserRepository userRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Sport sport;
+
+	private Integer userId;
+
+	@BeforeEach
+	void createCourtAndPlayer() {
+		sport = new Sport();
+		sport.setName("Batch Test");
+		sport.setPricePerHour(100f);
+		sport.setActive(true);
+		sport = sportRepository.save(sport);
+		sportCatalog.refresh();
+
+		PlayBoxUser user = new PlayBoxUser();
+		user.setName("Batch Test");
+		user.setPhone(PLAYER_PHONE);
+		user.setCardUid("BATCH-TEST-15");
+		user.setBalance(START_BALANCE);
+		userId = userRepository.save(user).getId();
+	}
+
+	@AfterEach
+	void deleteRows() {
+		jdbcTemplate.update("DELETE FROM Booking WHERE userId = ?", userId);
+		jdbcTemplate.update("DELETE FROM PlayboxTransactions WHERE user_id = ?", userId);
+		jdbcTemplate.update("DELETE FROM BookingNotification WHERE userId = ?", userId);
+		jdbcTemplate.update("DELETE FROM UserWalletStats WHERE userId = ?", userId);
+		jdbcTemplate.update("DELETE FROM SmsOutbox WHERE phone = ?", PLAYER_PHONE);
+		jdbcTemplate.update("DELETE FROM PlayBoxUser WHERE id = ?", userId);
+		jdbcTemplate.update("DELETE FROM Slot WHERE sportId = ?", sport.getId());
+		jdbcTemplate.update("DELETE FROM SportSchedule WHERE sportId = ?", sport.getId());
+		sportRepository.deleteById(sport.getId());
+		sportCatalog.refresh();
+
+		// Today's rollups are recomputed from the ledger the test rows are gone from
+		LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+		rollupService.rebuild(today, today);
+	}
+
+	@Test
+	void aTakenSlotFailsTheWholeSeries() {
+		List<Long> slotIds = slotIds(LocalDate.of(2031, 1, 1), 3);
+		batchBookingService.bookSlots(userId, List.of(slotIds.get(2)), "WALLET");
+		float balance = balance();
+
+		assertThatThrownBy(() -> batchBookingService.bookSlots(userId, slotIds, "WALLET"))
+				.isInstanceOf(SlotUnavailableException.class);
+
+		assertThat(balance()).isEqualTo(balance);
+		assertThat(count("SELECT COUNT(*) FROM Booking WHERE userId = ?", userId)).isEqualTo(1);
+		assertThat(count("SELECT COUNT(*) FROM PlayboxTransactions WHERE user_id = ?", userId)).isEqualTo(1);
+		assertThat(count("SELECT COUNT(*) FROM Slot WHERE sportId = ? AND booked = true", sport.getId())).isEqualTo(1);
+	}
+
+	@Test
+	void theWalletIsDebitedOncePerSeries() {
+		// Two back-to-back slots and a later one: two bookings, one debit
+		List<Long> day = slotIds(LocalDate.of(2031, 2, 1), 4);
+		List<Long> series = List.of(day.get(0), day.get(1), day.get(3));
+
+		BatchBookingResponse response = batchBookingService.bookSlots(userId, series, "WALLET");
+
+		assertThat(response.getBookings()).hasSize(2);
+		assertThat(response.getTotalAmount()).isEqualTo(300f);
+		assertThat(response.getBalanceAfter()).isEqualTo(START_BALANCE - 300f);
+		assertThat(balance()).isEqualTo(START_BALANCE - 300f);
+		assertThat(count("SELECT COUNT(*) FROM PlayboxTransactions WHERE user_id = ?", userId)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT MIN(balance_after) FROM PlayboxTransactions WHERE user_id = ?", Float.class, userId))
+				.isEqualTo(START_BALANCE - 300f);
+		assertThat(count("SELECT COUNT(*) FROM Slot WHERE sportId = ? AND booked = true", sport.getId())).isEqualTo(3);
+	}
+
+	@Test
+	void theDayOverviewShowsARunOnEverySlotItCovers() {
+		List<Long> day = slotIds(LocalDate.of(2031, 2, 8), 3);
+
+		BatchBookingResponse response = batchBookingService.bookSlots(userId, day.subList(0, 2), "WALLET");
+
+		Long bookingId = response.getBookings().get(0).getId();
+		assertThat(bookingService.getSportDayOverview(sport.getId(), "2031-02-08").getSlots().subList(0, 3))
+				.extracting(AdminSlotStatusDTO::getBookingId, AdminSlotStatusDTO::getUserId)
+				.containsExactly(tuple(bookingId, userId), tuple(bookingId, userId), tuple(null, null));
+	}
+
+	@Test
+	void overlappingSeriesDoNotDeadlock() throws Exception {
+		for (int round = 0; round < RACE_ROUNDS; round++) {
+			List<Long> day = slotIds(LocalDate.of(2031, 3, 1).plusDays(round), 4);
+			// The same three slots in opposite orders, and a series overlapping both
+			List<List<Long>> series = List.of(
+					List.of(day.get(0), day.get(1), day.get(2)),
+					List.of(day.get(2), day.get(1), day.get(0)),
+					List.of(day.get(1), day.get(2), day.get(3)));
+
+			AtomicInteger booked = new AtomicInteger();
+			List<Throwable> failures = new CopyOnWriteArrayList<>();
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+
+			try (ExecutorService executor = Executors.newFixedThreadPool(series.size())) {
+				for (List<Long> slotIds : series) {
+					futures.add(executor.submit(() -> {
+						start.await();
+						try {
+							batchBookingService.bookSlots(userId, slotIds, "WALLET");
+							booked.incrementAndGet();
+						} catch (RuntimeException ex) {
+							failures.add(ex);
+						}
+						return null;
+					}));
+				}
+				start.countDown();
+				for (Future<?> future : futures) {
+					future.get();
+				}
+			}
+
+			// Every pair overlaps, so exactly one series wins and the others fail fast
+			assertThat(booked).as("round %d", round).hasValue(1);
+			assertThat(failures).as("round %d", round)
+					.hasSize(series.size() - 1)
+					.allSatisfy(failure -> assertThat(failure).isInstanceOf(SlotUnavailableException.class));
+		}
+
+		assertThat(count("SELECT COUNT(*) FROM Booking WHERE userId = ?", userId)).isEqualTo(RACE_ROUNDS);
+		assertThat(balance()).isEqualTo(START_BALANCE - RACE_ROUNDS * 300f);
+	}
+
+	// The first slots of the court on the day, back to back
+	private List<Long> slotIds(LocalDate date, int count) {
+		List<SlotDetailsDTO> slots = slotService.getSlotsForDate(sport.getId(), date.toString());
+		assertThat(slots).hasSizeGreaterThanOrEqualTo(count);
+		return slots.subList(0, count).stream().map(SlotDetailsDTO::getId).toList();
+	}
+
+	private float balance() {
+		return userRepository.findById(userId).orElseThrow().getBalance();
+	}
+
+	private int count(String sql, Object arg) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, arg);
+	}
+}
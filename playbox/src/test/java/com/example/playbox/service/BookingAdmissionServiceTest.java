@@ -0,0 +1,178 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.exception.AdmissionRejectedException;
+import com.example.playbox.exception.SlotUnavailableException;
+import com.example.playbox.model.Booking;
+
+class BookingAdmissionServiceTest {
+
+	private final SportScheduleService scheduleService = mock(SportScheduleService.class);
+
+	@Test
+	void onlyOneRequestPerSlotReachesTheDatabase() throws Exception {
+		BookingAdmissionService admission = admission(50);
+		AtomicInteger bookingCalls = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Throwable> rejections = new CopyOnWriteArrayList<>();
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			for (int i = 0; i < 8; i++) {
+				pool.submit(() -> {
+					start.await();
+					try {
+						admission.admit(7L, () -> {
+							if (bookingCalls.incrementAndGet() > 1) {
+								throw new SlotUnavailableException(7L);
+							}
+							return booking(7L);
+						});
+					} catch (RuntimeException ex) {
+						rejections.add(ex);
+					}
+					return null;
+				});
+			}
+			start.countDown();
+		} finally {
+			pool.shutdown();
+			assertThat(pool.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+		}
+
+		assertThat(bookingCalls).hasValue(1);
+		assertThat(rejections).hasSize(7).allSatisfy(ex -> assertThat(ex)
+				.isInstanceOf(AdmissionRejectedException.class)
+				.extracting("reason").isEqualTo(AdmissionRejectedException.Reason.SLOT_TAKEN));
+		assertThat(admission.getStats().queuedSlots()).isZero();
+	}
+
+	@Test
+	void lockContentionDoesNotMarkTheSlotTaken() {
+		BookingAdmissionService admission = admission(50);
+
+		assertThatThrownBy(() -> admission.admit(8L, () -> {
+			throw new SlotUnavailableException(8L, true);
+		})).isInstanceOf(SlotUnavailableException.class);
+
+		assertThat(admission.getStats().knownTakenSlots()).isZero();
+		assertThat(admission.admit(8L, () -> booking(8L)).getSlotId()).isEqualTo(8L);
+	}
+
+	@Test
+	void anyCourtBookingsOfAnHourDoNotBlockEachOther() {
+		BookingAdmissionService admission = admission(50);
+
+		// Two courts booked one after the other at the same hour
+		assertThat(admission.admitAnyCourt(1L, "2030-01-01", "10:00", () -> booking(11L)).getSlotId()).isEqualTo(11L);
+		assertThat(admission.admitAnyCourt(1L, "2030-01-01", "10:00", () -> booking(12L)).getSlotId()).isEqualTo(12L);
+
+		// The courts they took are known to be taken
+		assertThatThrownBy(() -> admission.admit(12L, () -> booking(12L)))
+				.isInstanceOf(AdmissionRejectedException.class)
+				.extracting("reason").isEqualTo(AdmissionRejectedException.Reason.SLOT_TAKEN);
+		assertThat(admission.getStats().admitted()).isEqualTo(2);
+	}
+
+	@Test
+	void aRangeLostOnALaterSlotLeavesItsFirstSlotOpen() {
+		BookingAdmissionService admission = admission(50);
+
+		assertThatThrownBy(() -> admission.admitRange(20L, () -> {
+			throw new SlotUnavailableException(21L);
+		})).isInstanceOf(SlotUnavailableException.class);
+
+		assertThat(admission.getStats().knownTakenSlots()).isZero();
+		assertThat(admission.admit(20L, () -> booking(20L)).getSlotId()).isEqualTo(20L);
+	}
+
+	@Test
+	void anyCourtRejectsAMalformedHourBeforeQueueing() {
+		BookingAdmissionService admission = admission(50);
+
+		assertThatThrownBy(() -> admission.admitAnyCourt(1L, "2030-01-01", "ten", () -> booking(11L)))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(admission.getStats().admitted()).isZero();
+	}
+
+	@Test
+	void fullQueueIsRejectedWithRetryAfter() throws Exception {
+		BookingAdmissionService admission = admission(1);
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<Booking> first = pool.submit(() -> admission.admit(9L, () -> {
+				running.countDown();
+				await(release);
+				return booking(9L);
+			}));
+			assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+
+			assertThatThrownBy(() -> admission.admit(9L, () -> booking(9L)))
+					.isInstanceOfSatisfying(AdmissionRejectedException.class, ex -> {
+						assertThat(ex.getReason()).isEqualTo(AdmissionRejectedException.Reason.QUEUE_FULL);
+						assertThat(ex.getRetryAfterSeconds()).isPositive();
+					});
+
+			release.countDown();
+			assertThat(first.get(5, TimeUnit.SECONDS).getSlotId()).isEqualTo(9L);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void limitBacksOffOnSlowCallsAndRecovers() throws Exception {
+		AdaptiveLimit limit = new AdaptiveLimit(4, 1, 8, TimeUnit.MILLISECONDS.toNanos(100));
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(limit.tryAcquire(0, TimeUnit.MILLISECONDS)).isTrue();
+			limit.release(TimeUnit.MILLISECONDS.toNanos(500), false);
+		}
+		assertThat(limit.limit()).isEqualTo(1);
+
+		for (int i = 0; i < 40; i++) {
+			assertThat(limit.tryAcquire(0, TimeUnit.MILLISECONDS)).isTrue();
+			limit.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+		}
+		assertThat(limit.limit()).isGreaterThan(4);
+	}
+
+	private BookingAdmissionService admission(int maxQueuePerSlot) {
+		when(scheduleService.get(any())).thenReturn(new SportScheduleService.Template(1, 0, 1440, 60, 1));
+		return new BookingAdmissionService(scheduleService, 4, 8, 250, maxQueuePerSlot, 2000, 600);
+	}
+
+	private static Booking booking(long slotId) {
+		Booking booking = new Booking();
+		booking.setSportId(1L);
+		booking.setSlotId(slotId);
+		return booking;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,259 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.dto.AdminSlotStatusDTO;
+import com.example.playbox.dto.AdminSportDayOverviewDTO;
+import com.example.playbox.dto.SlotDetailsDTO;
+import com.example.playbox.exception.SlotUnavailableException;
+import com.example.playbox.model.Booking;
+import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.model.Slot;
+import com.example.playbox.model.Sport;
+import com.example.playbox.repository.BookingRepository;
+import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.repository.TransactionRepository;
+
+class BookingServiceTest {
+
+	private final BookingRepository bookingRepository = mock(BookingRepository.class);
+	private final SlotRepository slotRepository = mock(SlotRepository.class);
+	private final SportCatalog sportCatalog = mock(SportCatalog.class);
+	private final PlayBoxUserRepository userRepository = mock(PlayBoxUserRepository.class);
+	private final SlotService slotService = mock(SlotService.class);
+	private final CourtService courtService = mock(CourtService.class);
+
+	private final BookingService bookingService = new BookingService(
+			bookingRepository,
+			slotRepository,
+			sportCatalog,
+			userRepository,
+			mock(TransactionRepository.class),
+			slotService,
+			courtService,
+			mock(TwilioSmsService.class),
+			mock(BookingNotificationService.class),
+			mock(UserWalletStatsService.class),
+			mock(UserStatsSnapshotService.class),
+			mock(UserSearchService.class));
+
+	@Test
+	void withoutARangeAllBookingsAreReturned() {
+		List<Booking> bookings = List.of(new Booking());
+		when(bookingRepository.findByUserId(7)).thenReturn(bookings);
+
+		assertThat(bookingService.getUserBookings(7, null, null)).isSameAs(bookings);
+	}
+
+	@Test
+	void aRangeReadsOnlyItsDaysInclusive() {
+		List<Booking> bookings = List.of(new Booking());
+		when(bookingRepository.findByUserIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+				7, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7))).thenReturn(bookings);
+
+		assertThat(bookingService.getUserBookings(7, "2026-03-01", "2026-03-07")).isSameAs(bookings);
+		verify(bookingRepository).findByUserIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+				7, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 7));
+	}
+
+	@Test
+	void aSingleDayRangeIsAllowed() {
+		bookingService.getUserBookings(7, "2026-03-01", "2026-03-01");
+
+		verify(bookingRepository).findByUserIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+				7, LocalDate.of(2026, 3, 1), LocalDate.of(2026, 3, 1));
+	}
+
+	@Test
+	void onlyOneBoundIsRejected() {
+		assertThatThrownBy(() -> bookingService.getUserBookings(7, "2026-03-01", null))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("required together");
+		assertThatThrownBy(() -> bookingService.getUserBookings(7, null, "2026-03-07"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("required together");
+		verifyNoInteractions(bookingRepository);
+	}
+
+	@Test
+	void aReversedRangeIsRejected() {
+		assertThatThrownBy(() -> bookingService.getUserBookings(7, "2026-03-07", "2026-03-01"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("must not be before");
+		verifyNoInteractions(bookingRepository);
+	}
+
+	@Test
+	void aMalformedDateIsRejected() {
+		assertThatThrownBy(() -> bookingService.getUserBookings(7, "01-03-2026", "2026-03-07"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Invalid date");
+		assertThatThrownBy(() -> bookingService.getUserBookings(7, "2026-03-01", "2026-02-30"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("Invalid date");
+		verifyNoInteractions(bookingRepository);
+	}
+
+	@Test
+	void aRangeWithAPrunedSlotRowIsRejectedBeforeAnyClaim() {
+		when(slotService.slotIdsForRange(1L, "2030-01-01", "10:00", "12:00")).thenReturn(List.of(-1L, -2L));
+		when(slotService.resolveSlotId(-1L)).thenReturn(11L);
+		when(slotService.resolveSlotId(-2L)).thenReturn(12L);
+		when(slotRepository.findAllById(List.of(11L, 12L))).thenReturn(List.of(slot(11L, 10)));
+
+		assertThatThrownBy(() -> bookingService.bookRange(7, 1L, "2030-01-01", "10:00", "12:00", "WALLET"))
+				.isInstanceOf(RuntimeException.class)
+				.hasMessage("Slot not found");
+		verify(slotService, never()).claimSlot(any());
+		verifyNoInteractions(userRepository);
+	}
+
+	@Test
+	void theDayOverviewShowsARangeBookingOnEverySlotItCovers() {
+		LocalDate day = LocalDate.of(2030, 1, 1);
+		when(sportCatalog.get(1L)).thenReturn(new SportCatalog.Entry(
+				1L, "Cricket", "Court 1", 100f, true, false, false, 1, "08:00", "22:00", 60));
+		when(slotService.getSlotsForDate(1L, "2030-01-01")).thenReturn(List.of(
+				slotDetails(11L, "10:00", true),
+				slotDetails(12L, "11:00", true),
+				slotDetails(13L, "12:00", true),
+				slotDetails(14L, "13:00", false)));
+		// 10:00-12:00 references only its first slot
+		when(bookingRepository.findBySportIdInAndSlotDateBetweenAndStatus(List.of(1L), day, day, "CONFIRMED"))
+				.thenReturn(List.of(booking(5L, 11L, day, "10:00", "12:00"), booking(6L, 13L, day, "12:00", "13:00")));
+
+		AdminSportDayOverviewDTO overview = bookingService.getSportDayOverview(1L, "2030-01-01");
+
+		assertThat(overview.getSlots())
+				.extracting(AdminSlotStatusDTO::getBookingId)
+				.containsExactly(5L, 5L, 6L, null);
+		assertThat(overview.getBookedSlots()).isEqualTo(3);
+		verify(bookingRepository, never()).findBySlotIdInAndStatus(any(), any());
+	}
+
+	@Test
+	void anyCourtPassesOverACourtClosedAtThatHour() {
+		Slot closed = slot(11L, 10, 2L);
+		Slot open = slot(12L, 10, 3L);
+		anyCourtCandidates(closed, open);
+		when(slotService.isWithinSchedule(closed.getSport(), closed.getStartTime())).thenReturn(false);
+		when(slotService.isWithinSchedule(open.getSport(), open.getStartTime())).thenReturn(true);
+		when(slotRepository.claimFreeSlotSkipLocked(12L)).thenReturn(Optional.of(12L));
+
+		Booking booking = bookingService.bookAnyCourt(7, 1L, "2030-01-01", "10:00", "WALLET");
+
+		assertThat(booking.getSlotId()).isEqualTo(12L);
+		verify(slotRepository, never()).claimFreeSlotSkipLocked(11L);
+	}
+
+	@Test
+	void anyCourtIsRejectedWhenEveryCourtIsClosedAtThatHour() {
+		anyCourtCandidates(slot(11L, 10, 2L));
+
+		assertThatThrownBy(() -> bookingService.bookAnyCourt(7, 1L, "2030-01-01", "10:00", "WALLET"))
+				.hasMessageContaining("outside opening hours");
+		verify(slotRepository, never()).claimFreeSlotSkipLocked(any());
+		verify(userRepository, never()).debit(any(), anyFloat());
+	}
+
+	@Test
+	void anyCourtPassesOverAFullSharedCourtBeforeTheDebit() {
+		Slot full = slot(11L, 10, 2L);
+		Slot free = slot(12L, 10, 3L);
+		anyCourtCandidates(full, free);
+		when(slotService.isWithinSchedule(any(), any())).thenReturn(true);
+		when(slotService.isMultiSlotSport(any())).thenReturn(true);
+		doThrow(new SlotUnavailableException(11L)).when(slotService).reserveSeat(full);
+
+		Booking booking = bookingService.bookAnyCourt(7, 1L, "2030-01-01", "10:00", "WALLET");
+
+		assertThat(booking.getSlotId()).isEqualTo(12L);
+		// The seat taken as the claim is not taken a second time
+		verify(slotService, times(1)).reserveSeat(free);
+		verify(userRepository, times(1)).debit(7, 100f);
+	}
+
+	// The courts offered for the hour, in order, and a player who can pay for any of them
+	private void anyCourtCandidates(Slot... courts) {
+		List<Long> candidates = new ArrayList<>();
+		for (int i = 0; i < courts.length; i++) {
+			Slot court = courts[i];
+			long candidate = -1L - i;
+			candidates.add(candidate);
+			when(slotService.resolveSlotId(candidate)).thenReturn(court.getId());
+			when(slotRepository.findById(court.getId())).thenReturn(Optional.of(court));
+			Long sportId = court.getSport().getId();
+			when(sportCatalog.get(sportId)).thenReturn(new SportCatalog.Entry(
+					sportId, "Cricket", "Court " + sportId, 100f, true, false, false, 1, "08:00", "22:00", 60));
+		}
+		when(courtService.freeCourtSlots(1L, "2030-01-01", "10:00")).thenReturn(candidates);
+
+		PlayBoxUser user = new PlayBoxUser();
+		user.setId(7);
+		user.setName("Asha");
+		user.setCardUid("CARD-7");
+		user.setBalance(1000f);
+		when(userRepository.findById(7)).thenReturn(Optional.of(user));
+		when(userRepository.debit(7, 100f)).thenReturn(Optional.of(900f));
+		when(bookingRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	private static Slot slot(Long id, int hour) {
+		return slot(id, hour, 1L);
+	}
+
+	private static Slot slot(Long id, int hour, Long sportId) {
+		Sport sport = new Sport();
+		sport.setId(sportId);
+		Slot slot = new Slot();
+		slot.setId(id);
+		slot.setSport(sport);
+		slot.setSlotDate(LocalDate.of(2030, 1, 1));
+		slot.setStartTime(LocalTime.of(hour, 0));
+		slot.setEndTime(LocalTime.of(hour + 1, 0));
+		return slot;
+	}
+
+	private static SlotDetailsDTO slotDetails(Long id, String startTime, boolean booked) {
+		SlotDetailsDTO slot = new SlotDetailsDTO();
+		slot.setId(id);
+		slot.setSportId(1L);
+		slot.setSlotDate("2030-01-01");
+		slot.setStartTime(startTime);
+		slot.setBooked(booked);
+		slot.setBookedCount(booked ? 1 : 0);
+		return slot;
+	}
+
+	private static Booking booking(Long id, Long slotId, LocalDate day, String startTime, String endTime) {
+		Booking booking = new Booking();
+		booking.setId(id);
+		booking.setUserId(7);
+		booking.setSportId(1L);
+		booking.setSlotId(slotId);
+		booking.setSlotDate(day);
+		booking.setStartTime(LocalTime.parse(startTime));
+		booking.setEndTime(LocalTime.parse(endTime));
+		booking.setStatus("CONFIRMED");
+		return booking;
+	}
+}
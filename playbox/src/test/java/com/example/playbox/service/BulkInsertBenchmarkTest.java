@@ -0,0 +1,368 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.dto.SlotDetailsDTO;
+import com.example.playbox.model.Booking;
+import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.model.Sport;
+import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.repository.BookingRepository;
+import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.repository.SportRepository;
+
+/**
+ * Insert throughput of the slot horizon and batch booking against a real MySQL
+ * database, before and after pooled ids. "before" runs the statements those paths sent
+ * while the tables had AUTO_INCREMENT ids, against AUTO_INCREMENT copies of the tables
+ * (CREATE TABLE ... LIKE, so without foreign keys); "after" runs the current code:
+ * SlotHorizonService's row insert, and BatchBookingService's batches with reserved ids.
+ * A last test times whole BatchBookingService.bookSlots calls on the current tree.
+ * Run with SPRING_DATASOURCE_URL and -Dbenchmark=true.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkInsertBenchmarkTest {
+
+	// The first round of each arm warms up and is not timed
+	private static final int HORIZON_ROUNDS = 11;
+	private static final int BOOKING_ROUNDS = 21;
+	private static final int SERIES_ROUNDS = 11;
+	private static final int SERIES_SLOTS = BatchBookingService.MAX_BATCH_SLOTS;
+	// No real player has this id; the rows are deleted afterwards
+	private static final int BENCHMARK_USER = -42;
+	private static final String BENCHMARK_PHONE = "9000000042";
+
+	private static final String INSERT_SLOT_BEFORE = "INSERT IGNORE INTO SlotBenchmarkBefore "
+			+ "(sportId, slotDate, startTime, endTime, booked, taken) VALUES ";
+	private static final String INSERT_BOOKING_BEFORE = """
+			INSERT INTO BookingBenchmarkBefore (userId, sportId, slotId, slotDate, startTime, endTime, amount, status, paymentMode, createdAt)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+	private static final String INSERT_LEDGER_BEFORE = """
+			INSERT INTO LedgerBenchmarkBefore (user_id, user_name, type, amount, balance_after, adminName, description, `timestamp`)
+			VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+			""";
+
+	@Autowired
+	private SlotHorizonService horizonService;
+
+	@Autowired
+	private SportScheduleService scheduleService;
+
+	@Autowired
+	private BatchBookingService batchBookingService;
+
+	@Autowired
+	private SlotService slotService;
+
+	@Autowired
+	private SportCatalog sportCatalog;
+
+	@Autowired
+	private RevenueRollupService rollupService;
+
+	@Autowired
+	private SportRepository sportRepository;
+
+	@Autowired
+	private PlayBoxUserRepository userRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Value("${playbox.slots.horizon-days:14}")
+	private int horizonDays;
+
+	@Value("${playbox.slots.insert-batch-size:500}")
+	private int insertBatchSize;
+
+	private Sport sport;
+
+	@BeforeEach
+	void createSportAndTables() {
+		sport = new Sport();
+		sport.setName("Insert Benchmark");
+		sport.setPricePerHour(100f);
+		sport.setActive(true);
+		sport = sportRepository.save(sport);
+		sportCatalog.refresh();
+
+		autoIncrementCopy("SlotBenchmarkBefore", "Slot", "bigint");
+		autoIncrementCopy("BookingBenchmarkBefore", "Booking", "bigint");
+		autoIncrementCopy("LedgerBenchmarkBefore", "PlayboxTransactions", "integer");
+	}
+
+	@AfterEach
+	void deleteRows() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS SlotBenchmarkBefore");
+		jdbcTemplate.execute("DROP TABLE IF EXISTS BookingBenchmarkBefore");
+		jdbcTemplate.execute("DROP TABLE IF EXISTS LedgerBenchmarkBefore");
+
+		Integer userId = jdbcTemplate.query("SELECT id FROM PlayBoxUser WHERE phone = ?",
+				rs -> rs.next() ? rs.getInt(1) : null, BENCHMARK_PHONE);
+		for (int user : userId == null ? List.of(BENCHMARK_USER) : List.of(BENCHMARK_USER, userId)) {
+			jdbcTemplate.update("DELETE FROM Booking WHERE userId = ?", user);
+			jdbcTemplate.update("DELETE FROM PlayboxTransactions WHERE user_id = ?", user);
+			jdbcTemplate.update("DELETE FROM BookingNotification WHERE userId = ?", user);
+			jdbcTemplate.update("DELETE FROM UserWalletStats WHERE userId = ?", user);
+		}
+		jdbcTemplate.update("DELETE FROM SmsOutbox WHERE phone = ?", BENCHMARK_PHONE);
+		jdbcTemplate.update("DELETE FROM PlayBoxUser WHERE phone = ?", BENCHMARK_PHONE);
+		jdbcTemplate.update("DELETE FROM Slot WHERE sportId = ?", sport.getId());
+		jdbcTemplate.update("DELETE FROM SportSchedule WHERE sportId = ?", sport.getId());
+		sportRepository.deleteById(sport.getId());
+		sportCatalog.refresh();
+
+		// Today's rollups are recomputed from the ledger the benchmark rows are gone from
+		LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+		rollupService.rebuild(today, today);
+	}
+
+	@Test
+	void slotHorizon() {
+		LocalDate before = LocalDate.of(2034, 1, 1);
+		LocalDate after = LocalDate.of(2036, 1, 1);
+		long[] rows = new long[2];
+
+		long beforeNanos = rounds(HORIZON_ROUNDS, round -> {
+			List<Object[]> horizon = horizonRows(before.plusDays((long) round * horizonDays));
+			for (int i = 0; i < horizon.size(); i += insertBatchSize) {
+				rows[0] += insertSlotsBefore(horizon.subList(i, Math.min(i + insertBatchSize, horizon.size())));
+			}
+		});
+		long afterNanos = rounds(HORIZON_ROUNDS, round -> rows[1] += (Long) ReflectionTestUtils.invokeMethod(
+				horizonService, "insertMissingRows", sport.getId(), after.plusDays((long) round * horizonDays)));
+
+		long timedRows = rows[1] * (HORIZON_ROUNDS - 1) / HORIZON_ROUNDS;
+		report("slot horizon rows", timedRows, beforeNanos, afterNanos);
+		assertThat(rows[0]).isEqualTo(rows[1]);
+	}
+
+	@Test
+	void batchBookingInserts() {
+		long beforeNanos = rounds(BOOKING_ROUNDS, round -> transactionTemplate.executeWithoutResult(status -> {
+			List<Booking> bookings = bookings(round);
+			insertBookingsBefore(bookings);
+			insertLedgerBefore(ledger(bookings));
+		}));
+		long afterNanos = rounds(BOOKING_ROUNDS, round -> transactionTemplate.executeWithoutResult(status -> {
+			List<Booking> bookings = bookings(round);
+			ReflectionTestUtils.invokeMethod(batchBookingService, "insertBookings", bookings);
+			ReflectionTestUtils.invokeMethod(batchBookingService, "insertLedger", ledger(bookings));
+		}));
+
+		report("booking+ledger pairs", (long) (BOOKING_ROUNDS - 1) * SERIES_SLOTS, beforeNanos, afterNanos);
+		assertThat(bookingRepository.findByUserId(BENCHMARK_USER)).hasSize(BOOKING_ROUNDS * SERIES_SLOTS);
+	}
+
+	@Test
+	void batchBookingSeries() {
+		PlayBoxUser user = new PlayBoxUser();
+		user.setName("Insert Benchmark");
+		user.setPhone(BENCHMARK_PHONE);
+		user.setCardUid("BENCHMARK-42");
+		user.setBalance(10_000_000f);
+		Integer userId = userRepository.save(user).getId();
+
+		LocalDate first = LocalDate.of(2038, 1, 1);
+		long nanos = rounds(SERIES_ROUNDS, round -> batchBookingService.bookSlots(
+				userId, seriesSlotIds(first.plusDays(round * 10L)), "WALLET"));
+
+		int series = SERIES_ROUNDS - 1;
+		System.out.printf("bookSlots series=%d slots/series=%d %.1f ms/series %.0f slots/s%n",
+				series, SERIES_SLOTS, nanos / 1e6 / series, (double) series * SERIES_SLOTS * 1e9 / nanos);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM PlayboxTransactions WHERE user_id = ?",
+				Integer.class, userId)).isPositive();
+	}
+
+	private interface Round {
+		void run(int round);
+	}
+
+	// Total time of rounds 1..n-1; round 0 warms up
+	private static long rounds(int count, Round round) {
+		round.run(0);
+		long start = System.nanoTime();
+		for (int i = 1; i < count; i++) {
+			round.run(i);
+		}
+		return System.nanoTime() - start;
+	}
+
+	private void report(String what, long rows, long beforeNanos, long afterNanos) {
+		System.out.printf("%s=%d before=%.0f rows/s after=%.0f rows/s speedup=%.2fx%n",
+				what, rows, rows * 1e9 / beforeNanos, rows * 1e9 / afterNanos,
+				(double) beforeNanos / afterNanos);
+	}
+
+	private void autoIncrementCopy(String table, String like, String idType) {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+		jdbcTemplate.execute("CREATE TABLE " + table + " LIKE " + like);
+		jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY id " + idType + " NOT NULL AUTO_INCREMENT");
+	}
+
+	// The rows SlotHorizonService.insertMissingRows builds for one horizon from the date
+	private List<Object[]> horizonRows(LocalDate from) {
+		SportScheduleService.Template template = scheduleService.get(sport.getId());
+		List<Object[]> rows = new ArrayList<>();
+		for (int offset = 0; offset < horizonDays; offset++) {
+			for (int start : template.startMinutes()) {
+				rows.add(new Object[] {
+						sport.getId(),
+						from.plusDays(offset),
+						SportScheduleService.localTimeOf(start),
+						SportScheduleService.localTimeOf(start + template.slotMinutes())
+				});
+			}
+		}
+		return rows;
+	}
+
+	// The horizon insert as it was with AUTO_INCREMENT ids
+	private int insertSlotsBefore(List<Object[]> chunk) {
+		String sql = INSERT_SLOT_BEFORE + String.join(", ", Collections.nCopies(chunk.size(), "(?, ?, ?, ?, false, 0)"));
+		Object[] args = new Object[chunk.size() * 4];
+		for (int i = 0; i < chunk.size(); i++) {
+			System.arraycopy(chunk.get(i), 0, args, i * 4, 4);
+		}
+		return jdbcTemplate.update(sql, args);
+	}
+
+	// Batch booking's JDBC batches as they were with AUTO_INCREMENT ids
+	private void insertBookingsBefore(List<Booking> bookings) {
+		Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		jdbcTemplate.batchUpdate(
+				connection -> connection.prepareStatement(INSERT_BOOKING_BEFORE, Statement.RETURN_GENERATED_KEYS),
+				new BatchPreparedStatementSetter() {
+					@Override
+					public void setValues(PreparedStatement ps, int i) throws SQLException {
+						Booking booking = bookings.get(i);
+						ps.setInt(1, booking.getUserId());
+						ps.setLong(2, booking.getSportId());
+						ps.setLong(3, booking.getSlotId());
+						ps.setObject(4, booking.getSlotDate());
+						ps.setObject(5, booking.getStartTime());
+						ps.setObject(6, booking.getEndTime());
+						ps.setFloat(7, booking.getAmount());
+						ps.setString(8, booking.getStatus());
+						ps.setString(9, booking.getPaymentMode());
+						ps.setTimestamp(10, Timestamp.from(booking.getCreatedAt()), utc);
+					}
+
+					@Override
+					public int getBatchSize() {
+						return bookings.size();
+					}
+				},
+				new GeneratedKeyHolder());
+	}
+
+	private void insertLedgerBefore(List<TransactionEntity> ledger) {
+		Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		jdbcTemplate.batchUpdate(INSERT_LEDGER_BEFORE, new BatchPreparedStatementSetter() {
+			@Override
+			public void setValues(PreparedStatement ps, int i) throws SQLException {
+				TransactionEntity txn = ledger.get(i);
+				ps.setInt(1, txn.getUserId());
+				ps.setString(2, txn.getUserName());
+				ps.setString(3, txn.getType());
+				ps.setFloat(4, txn.getAmount());
+				ps.setFloat(5, txn.getBalanceAfter());
+				ps.setString(6, txn.getAdminName());
+				ps.setString(7, txn.getDescription());
+				ps.setTimestamp(8, Timestamp.from(txn.getTimestamp()), utc);
+			}
+
+			@Override
+			public int getBatchSize() {
+				return ledger.size();
+			}
+		});
+	}
+
+	// One batch-booking request's worth of bookings
+	private List<Booking> bookings(int round) {
+		List<Booking> bookings = new ArrayList<>();
+		for (int i = 0; i < SERIES_SLOTS; i++) {
+			Booking booking = new Booking();
+			booking.setUserId(BENCHMARK_USER);
+			booking.setSportId(sport.getId());
+			booking.setSlotId((long) round * SERIES_SLOTS + i);
+			booking.setSlotDate(LocalDate.of(2032, 1, 1).plusWeeks(round).plusDays(i / 24));
+			booking.setStartTime(LocalTime.of(i % 24, 0));
+			booking.setEndTime(LocalTime.of((i + 1) % 24, 0));
+			booking.setAmount(100f);
+			booking.setStatus("CONFIRMED");
+			booking.setPaymentMode("WALLET");
+			booking.setCreatedAt(Instant.now());
+			bookings.add(booking);
+		}
+		return bookings;
+	}
+
+	private List<TransactionEntity> ledger(List<Booking> bookings) {
+		List<TransactionEntity> ledger = new ArrayList<>();
+		for (Booking booking : bookings) {
+			TransactionEntity txn = new TransactionEntity();
+			txn.setUserId(BENCHMARK_USER);
+			txn.setUserName("Insert Benchmark");
+			txn.setType("BOOKING");
+			txn.setAmount(booking.getAmount());
+			txn.setBalanceAfter(0f);
+			txn.setAdminName("SYSTEM");
+			txn.setDescription("Insert Benchmark Booking");
+			txn.setTimestamp(booking.getCreatedAt());
+			ledger.add(txn);
+		}
+		return ledger;
+	}
+
+	// SERIES_SLOTS virtual slot ids from consecutive days starting at the date
+	private List<Long> seriesSlotIds(LocalDate from) {
+		List<Long> slotIds = new ArrayList<>();
+		for (LocalDate day = from; slotIds.size() < SERIES_SLOTS; day = day.plusDays(1)) {
+			for (SlotDetailsDTO slot : slotService.getSlotsForDate(sport.getId(), day.toString())) {
+				if (slotIds.size() < SERIES_SLOTS) {
+					slotIds.add(slot.getId());
+				}
+			}
+		}
+		return slotIds;
+	}
+}
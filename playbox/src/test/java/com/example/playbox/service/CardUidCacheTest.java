@@ -0,0 +1,57 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CardUidCacheTest {
+
+	@Test
+	void cachesOwnersAndUnknownCards() {
+		CardUidCache cache = new CardUidCache(10, 60);
+
+		assertThat(cache.lookup("A1")).isNull();
+		cache.putOwner("A1", 7);
+		cache.putUnknown("B2");
+
+		assertThat(cache.lookup("A1")).isEqualTo(7);
+		assertThat(cache.lookup("B2")).isEqualTo(CardUidCache.UNKNOWN_CARD);
+		assertThat(cache.stats().hits()).isEqualTo(1);
+		assertThat(cache.stats().unknownHits()).isEqualTo(1);
+		assertThat(cache.stats().misses()).isEqualTo(1);
+	}
+
+	@Test
+	void unknownCardsExpire() {
+		CardUidCache cache = new CardUidCache(10, 0);
+
+		cache.putUnknown("B2");
+
+		assertThat(cache.lookup("B2")).isNull();
+	}
+
+	@Test
+	void evictsLeastRecentlyUsedCard() {
+		CardUidCache cache = new CardUidCache(2, 60);
+		cache.putOwner("A", 1);
+		cache.putOwner("B", 2);
+		cache.lookup("A");
+
+		cache.putOwner("C", 3);
+
+		assertThat(cache.lookup("B")).isNull();
+		assertThat(cache.lookup("A")).isEqualTo(1);
+		assertThat(cache.stats().evictions()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidateDropsEntry() {
+		CardUidCache cache = new CardUidCache(10, 60);
+		cache.putOwner("A", 1);
+
+		cache.invalidate("A");
+
+		assertThat(cache.lookup("A")).isNull();
+		assertThat(cache.stats().invalidations()).isEqualTo(1);
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CourtServiceTest {
+
+	@Test
+	void maskHasABitPerFreeCourt() {
+		List<SlotAvailabilityIndex.Day> courts = List.of(
+				court(1, 18),
+				court(2, -1),
+				court(3, 18));
+
+		assertThat(CourtService.freeCourtMask(courts, "18:00")).isEqualTo(0b010);
+		assertThat(CourtService.freeCourtMask(courts, "19:00")).isEqualTo(0b111);
+	}
+
+	@Test
+	void closedHoursAndOffBoundaryTimesAreNeverFree() {
+		List<SlotAvailabilityIndex.Day> courts = List.of(court(1, -1));
+
+		assertThat(CourtService.freeCourtMask(courts, "06:00")).isZero();
+		assertThat(CourtService.freeCourtMask(courts, "18:30")).isZero();
+	}
+
+	// A court open 08:00-22:00 with the given position already booked
+	private SlotAvailabilityIndex.Day court(long sportId, int bookedPosition) {
+		SlotAvailabilityIndex.DayBuilder day = new SlotAvailabilityIndex.DayBuilder(sportId, "2026-03-01", 60, 1);
+		for (int position = 8; position < 22; position++) {
+			day.slot(position, -(sportId * 100 + position), position == bookedPosition);
+		}
+		return day.build();
+	}
+}
@@ -0,0 +1,98 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.model.Slot;
+import com.example.playbox.model.Sport;
+import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.repository.SportRepository;
+
+/**
+ * Draws Slot ids alternately through entity saves and the native-insert allocator
+ * against a real MySQL database; the two share one IdSequence row. Also checks that a
+ * block stays reserved when the caller's transaction rolls back.
+ * Run with SPRING_DATASOURCE_URL (and credentials) pointing at a scratch schema.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class IdBlockAllocatorTest {
+
+	// Enough draws for each side to move through several blocks of 50
+	private static final int ROUNDS = 160;
+
+	@Autowired
+	private IdBlockAllocator idAllocator;
+
+	@Autowired
+	private SlotRepository slotRepository;
+
+	@Autowired
+	private SportRepository sportRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Sport sport;
+
+	@BeforeEach
+	void createSport() {
+		sport = new Sport();
+		sport.setName("Id Allocation Test");
+		sport.setPricePerHour(100f);
+		sport.setActive(false);
+		sport = sportRepository.save(sport);
+	}
+
+	@AfterEach
+	void deleteRows() {
+		jdbcTemplate.update("DELETE FROM Slot WHERE sportId = ?", sport.getId());
+		sportRepository.deleteById(sport.getId());
+	}
+
+	@Test
+	void hibernateAndAllocatorNeverShareAnId() {
+		Set<Long> ids = new HashSet<>();
+		LocalDate from = LocalDate.of(2031, 1, 1);
+
+		for (int i = 0; i < ROUNDS; i++) {
+			Slot slot = new Slot();
+			slot.setSport(sport);
+			slot.setSlotDate(from.plusDays(i / 24));
+			slot.setStartTime(LocalTime.of(i % 24, 0));
+			slot.setEndTime(LocalTime.of((i + 1) % 24, 0));
+			slot.setBooked(false);
+
+			assertThat(ids.add(slotRepository.save(slot).getId())).isTrue();
+			assertThat(ids.add(idAllocator.next("Slot"))).isTrue();
+		}
+
+		assertThat(ids).hasSize(2 * ROUNDS);
+	}
+
+	@Test
+	void aReservationOutlivesTheCallersRollback() {
+		Long first = transactionTemplate.execute(status -> {
+			status.setRollbackOnly();
+			return idAllocator.reserve("Slot", 5);
+		});
+
+		assertThat(idAllocator.reserve("Slot", 1)).isGreaterThanOrEqualTo(first + 5);
+	}
+}
@@ -0,0 +1,263 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.dto.TransactionFilter;
+import com.example.playbox.repository.BookingRepository;
+import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.repository.TransactionRepository;
+import com.example.playbox.repository.TransactionSpecifications;
+
+/**
+ * Runs the ledger, slot and booking repository methods against a migrated MySQL schema,
+ * records the statements Hibernate sends with their bound values, and EXPLAINs each one;
+ * any table read without a usable index fails. On a near-empty schema MySQL may still
+ * pick a scan, so only a scan with no candidate key counts as a full scan. Every call
+ * runs in a transaction that is rolled back.
+ *
+ * Not covered, as they read whole tables by design: TransactionRepository.streamAll,
+ * SlotRepository.backfillTaken and deleteUnusedSlots (batched maintenance) and
+ * BookingRepository.backfillBookedTimes (one-off startup backfill). Ledger searches by
+ * free text alone use a leading-wildcard LIKE and are not covered either.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class QueryPlanTest {
+
+	private static final LocalDate DAY = LocalDate.of(2026, 3, 2);
+	private static final Instant CURSOR = Instant.parse("2026-03-02T00:00:00Z");
+	private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "timestamp", "id");
+
+	@TestConfiguration
+	static class RecordingConfig {
+
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource && !(bean instanceof StatementRecorder)
+							? new StatementRecorder(dataSource)
+							: bean;
+				}
+			};
+		}
+	}
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private SlotRepository slotRepository;
+
+	@Autowired
+	private BookingRepository bookingRepository;
+
+	private Map<String, Runnable> repositoryCalls() {
+		Map<String, Runnable> calls = new LinkedHashMap<>();
+
+		calls.put("TransactionRepository.findByUserId", () -> transactionRepository.findByUserId(7));
+		calls.put("TransactionRepository.findByAdminName", () -> transactionRepository.findByAdminName("reception"));
+		calls.put("TransactionRepository.findByIdGreaterThanOrderByIdAsc",
+				() -> transactionRepository.findByIdGreaterThanOrderByIdAsc(100, Limit.of(500)));
+		calls.put("TransactionRepository.findFirstTimestamp", () -> transactionRepository.findFirstTimestamp());
+		calls.put("TransactionRepository.findTop10ByUserIdOrderByTimestampDesc",
+				() -> transactionRepository.findTop10ByUserIdOrderByTimestampDesc(7));
+		calls.put("TransactionRepository.getRechargeHistory", () -> transactionRepository.getRechargeHistory(7));
+		calls.put("TransactionRepository.findByUserIdAndTypeOrderByTimestampDesc",
+				() -> transactionRepository.findByUserIdAndTypeOrderByTimestampDesc(7, "ADD"));
+		calls.put("TransactionSpecifications: keyset page", () -> ledgerPage(new TransactionFilter(), CURSOR, 500));
+		calls.put("TransactionSpecifications: type in a day", () -> {
+			TransactionFilter filter = new TransactionFilter();
+			filter.setType("ADD");
+			filter.setFrom(Instant.parse("2026-03-01T18:30:00Z"));
+			filter.setTo(Instant.parse("2026-03-02T18:30:00Z"));
+			ledgerPage(filter, null, null);
+		});
+		calls.put("TransactionSpecifications: admin since", () -> {
+			TransactionFilter filter = new TransactionFilter();
+			filter.setAdminName("reception");
+			filter.setFrom(Instant.parse("2026-03-01T18:30:00Z"));
+			ledgerPage(filter, null, null);
+		});
+
+		calls.put("SlotRepository.findBySport_IdAndSlotDate", () -> slotRepository.findBySport_IdAndSlotDate(1L, DAY));
+		calls.put("SlotRepository.findBySport_IdInAndSlotDateBetween",
+				() -> slotRepository.findBySport_IdInAndSlotDateBetween(List.of(1L, 2L), DAY, DAY.plusDays(6)));
+		calls.put("SlotRepository.claimFreeSlotNoWait", () -> slotRepository.claimFreeSlotNoWait(5L));
+		calls.put("SlotRepository.claimFreeSlotSkipLocked", () -> slotRepository.claimFreeSlotSkipLocked(5L));
+		calls.put("SlotRepository.claimFreeSlotsNoWait", () -> slotRepository.claimFreeSlotsNoWait(List.of(5L, 6L, 7L)));
+		calls.put("SlotRepository.markBooked", () -> slotRepository.markBooked(List.of(5L, 6L, 7L)));
+		calls.put("SlotRepository.reserveSeat", () -> slotRepository.reserveSeat(5L, 25));
+		calls.put("SlotRepository.findBookedFrom", () -> slotRepository.findBookedFrom(1L, DAY));
+		calls.put("SlotRepository.findSlotId", () -> slotRepository.findSlotId(1L, DAY, LocalTime.of(10, 0)));
+
+		calls.put("BookingRepository.findByUserId", () -> bookingRepository.findByUserId(7));
+		calls.put("BookingRepository.findBySlotIdInAndStatus",
+				() -> bookingRepository.findBySlotIdInAndStatus(List.of(5L, 6L, 7L), "CONFIRMED"));
+		calls.put("BookingRepository.findByUserIdAndSlotDateGreaterThanEqual",
+				() -> bookingRepository.findByUserIdAndSlotDateGreaterThanEqualOrderBySlotDateAscStartTimeAsc(
+						7, DAY, Limit.of(100)));
+		// Past the first page, so the count query runs as well
+		calls.put("BookingRepository.findByUserIdAndSlotDateLessThan",
+				() -> bookingRepository.findByUserIdAndSlotDateLessThan(7, DAY, PageRequest.of(2, 20)));
+		calls.put("BookingRepository.findByUserIdAndSlotDateBetween",
+				() -> bookingRepository.findByUserIdAndSlotDateBetweenOrderBySlotDateAscStartTimeAsc(
+						7, DAY, DAY.plusDays(6)));
+		calls.put("BookingRepository.findBySportIdInAndSlotDateBetweenAndStatus",
+				() -> bookingRepository.findBySportIdInAndSlotDateBetweenAndStatus(
+						List.of(1L, 2L), DAY, DAY.plusDays(6), "CONFIRMED"));
+		return calls;
+	}
+
+	@TestFactory
+	Stream<DynamicTest> repositoryQueriesUseAnIndex() {
+		return repositoryCalls().entrySet().stream()
+				.map(call -> DynamicTest.dynamicTest(call.getKey(), () -> assertIndexed(call.getValue())));
+	}
+
+	private void assertIndexed(Runnable call) {
+		List<StatementRecorder.Statement> statements = ((StatementRecorder) dataSource).record(() ->
+				transactionTemplate.executeWithoutResult(status -> {
+					status.setRollbackOnly();
+					call.run();
+				}));
+
+		assertThat(statements).isNotEmpty();
+		for (StatementRecorder.Statement statement : statements) {
+			List<Map<String, Object>> plan =
+					jdbcTemplate.queryForList("EXPLAIN " + statement.sql(), statement.params().toArray());
+
+			assertThat(plan).isNotEmpty();
+			for (Map<String, Object> row : plan) {
+				boolean fullScan = "ALL".equals(row.get("type")) && row.get("possible_keys") == null;
+				assertThat(fullScan)
+						.as("full scan of %s in: %s", row.get("table"), statement.sql())
+						.isFalse();
+			}
+		}
+	}
+
+	private void ledgerPage(TransactionFilter filter, Instant afterTimestamp, Integer afterId) {
+		transactionRepository.findBy(
+				TransactionSpecifications.matching(filter, afterTimestamp, afterId),
+				query -> query.sortBy(NEWEST_FIRST).limit(51).all());
+	}
+
+	/**
+	 * Records the prepared statements, with their bound values, that the recording thread
+	 * executes; statements of other threads (schedulers, pollers) are passed through.
+	 */
+	static final class StatementRecorder extends DelegatingDataSource {
+
+		record Statement(String sql, List<Object> params) {
+		}
+
+		private final ThreadLocal<List<Statement>> recording = new ThreadLocal<>();
+
+		StatementRecorder(DataSource target) {
+			super(target);
+		}
+
+		List<Statement> record(Runnable work) {
+			List<Statement> statements = new ArrayList<>();
+			recording.set(statements);
+			try {
+				work.run();
+			} finally {
+				recording.remove();
+			}
+			return statements;
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			return wrap(super.getConnection());
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return wrap(super.getConnection(username, password));
+		}
+
+		private Connection wrap(Connection connection) {
+			return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] {Connection.class},
+					(proxy, method, args) -> {
+						Object result = invoke(connection, method, args);
+						return method.getName().equals("prepareStatement") && result instanceof PreparedStatement statement
+								? wrap(statement, (String) args[0])
+								: result;
+					});
+		}
+
+		private PreparedStatement wrap(PreparedStatement statement, String sql) {
+			Map<Integer, Object> params = new TreeMap<>();
+			return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+					new Class<?>[] {PreparedStatement.class},
+					(proxy, method, args) -> {
+						String name = method.getName();
+						if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+							params.put(index, name.equals("setNull") ? null : args[1]);
+						} else if (name.equals("clearParameters")) {
+							params.clear();
+						} else if ((name.startsWith("execute") || name.equals("addBatch")) && args == null) {
+							List<Statement> statements = recording.get();
+							if (statements != null) {
+								statements.add(new Statement(sql, new ArrayList<>(params.values())));
+							}
+						}
+						return invoke(statement, method, args);
+					});
+		}
+
+		private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException ex) {
+				throw ex.getCause();
+			}
+		}
+	}
+}
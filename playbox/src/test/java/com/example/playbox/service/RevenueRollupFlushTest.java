@@ -0,0 +1,104 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.model.RevenueRollup;
+import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.repository.RevenueRollupRepository;
+import com.example.playbox.repository.TransactionRepository;
+
+class RevenueRollupFlushTest {
+
+	private static final LocalDate DAY = LocalDate.of(2031, 3, 31);
+
+	private final RevenueRollupRepository rollupRepository = mock(RevenueRollupRepository.class);
+	private final RevenueRollupService rollupService = new RevenueRollupService(
+			rollupRepository,
+			mock(TransactionRepository.class),
+			new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+	@Test
+	void entriesOfOneRowAreWrittenAsOneUpsert() {
+		rollupService.recordLedgerEntry(entry(7, "Asha", 500f));
+		rollupService.recordLedgerEntry(entry(7, "Asha", 250f));
+		rollupService.flush();
+
+		verify(rollupRepository).addTotals(RevenueRollup.STAFF, DAY, "reception", "ADD", "reception", 2, 750.0);
+		verify(rollupRepository).addTotals(RevenueRollup.USER, DAY, "7", "ADD", "Asha", 2, 750.0);
+
+		rollupService.flush();
+		verifyNoMoreInteractions(rollupRepository);
+	}
+
+	@Test
+	void failedFlushKeepsTheTotalsForTheNextOne() {
+		when(rollupRepository.addTotals(anyString(), any(), anyString(), anyString(), any(), anyLong(), anyDouble()))
+				.thenThrow(new IllegalStateException("connection lost"))
+				.thenReturn(1);
+
+		rollupService.recordLedgerEntry(entry(8, "Ravi", 50f));
+		assertThatThrownBy(rollupService::flush).isInstanceOf(IllegalStateException.class);
+		rollupService.flush();
+
+		verify(rollupRepository, times(2)).addTotals(RevenueRollup.USER, DAY, "8", "ADD", "Ravi", 1, 50.0);
+	}
+
+	@Test
+	void ledgerRowsCommittedDuringARebuildAreCountedOnce() {
+		LocalDate today = LocalDate.now(ZoneId.of("Asia/Kolkata"));
+		Instant[] readTo = new Instant[1];
+		when(rollupRepository.rebuildRange(any(), any())).thenAnswer(invocation -> {
+			readTo[0] = invocation.getArgument(1);
+			// Stamped before the rebuild started: the rebuild reads it
+			rollupService.recordLedgerEntry(entry(8, "Ravi", 50f, readTo[0].minusMillis(1)));
+			// Stamped after: only the buffer carries it
+			rollupService.recordLedgerEntry(entry(9, "Meera", 70f, Instant.now().plusMillis(1)));
+			return 0;
+		});
+
+		rollupService.rebuild(today.minusDays(1), today);
+		rollupService.flush();
+
+		assertThat(readTo[0]).isBeforeOrEqualTo(Instant.now());
+		verify(rollupRepository, never()).addTotals(eq(RevenueRollup.USER), any(), eq("8"), anyString(), any(),
+				anyLong(), anyDouble());
+		verify(rollupRepository).addTotals(eq(RevenueRollup.USER), any(), eq("9"), eq("ADD"), eq("Meera"),
+				eq(1L), eq(70.0));
+	}
+
+	private static TransactionEntity entry(int userId, String userName, float amount) {
+		// 23:45 IST on DAY
+		return entry(userId, userName, amount, Instant.parse("2031-03-31T18:15:00Z"));
+	}
+
+	private static TransactionEntity entry(int userId, String userName, float amount, Instant timestamp) {
+		TransactionEntity tx = new TransactionEntity();
+		tx.setUserId(userId);
+		tx.setUserName(userName);
+		tx.setType("ADD");
+		tx.setAmount(amount);
+		tx.setAdminName("reception");
+		tx.setTimestamp(timestamp);
+		return tx;
+	}
+}
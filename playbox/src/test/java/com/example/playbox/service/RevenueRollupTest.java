@@ -0,0 +1,88 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.dto.DailyRevenueDashboardResponse;
+import com.example.playbox.model.TransactionEntity;
+import com.example.playbox.repository.RevenueRollupRepository;
+import com.example.playbox.repository.TransactionRepository;
+
+/**
+ * Checks that incremental rollups and a rebuild from the ledger agree, against a real
+ * MySQL database. Uses a far-future day so existing data does not interfere.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class RevenueRollupTest {
+
+	// In the past: a rebuild only counts ledger rows stamped before it started
+	private static final LocalDate DAY = LocalDate.of(2001, 3, 31);
+
+	@Autowired
+	private RevenueRollupService rollupService;
+
+	@Autowired
+	private RevenueRollupRepository rollupRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<TransactionEntity> written = new ArrayList<>();
+
+	@AfterEach
+	void deleteLedgerRows() {
+		transactionRepository.deleteAll(written);
+		transactionTemplate.executeWithoutResult(status -> rollupRepository.deleteDays(DAY, DAY));
+	}
+
+	@Test
+	void rebuildMatchesIncrementalRollups() {
+		// 23:45 IST is still DAY although it is the previous UTC evening
+		record(7, "Asha", "ADD", 500f, "reception", "2001-03-31T18:15:00Z");
+		record(7, "Asha", "BOOKING", 300f, "SYSTEM", "2001-03-31T06:00:00Z");
+		record(8, "Ravi", "DEDUCT", 50f, "reception", "2001-03-30T19:00:00Z");
+		rollupService.flush();
+
+		DailyRevenueDashboardResponse incremental = rollupService.getDashboard(DAY, DAY);
+		assertThat(incremental.getTotalDeposited()).isEqualTo(500.0);
+		assertThat(incremental.getTotalDeducted()).isEqualTo(350.0);
+		assertThat(incremental.getMostActiveUsers().get(0).getName()).isEqualTo("Asha");
+		assertThat(incremental.getMostActiveStaff().get(0).getName()).isEqualTo("reception");
+
+		rollupService.rebuild(DAY, DAY);
+		DailyRevenueDashboardResponse rebuilt = rollupService.getDashboard(DAY, DAY);
+		assertThat(rebuilt.getTotalDeposited()).isEqualTo(incremental.getTotalDeposited());
+		assertThat(rebuilt.getTotalDeducted()).isEqualTo(incremental.getTotalDeducted());
+		assertThat(rebuilt.getMostActiveUsers()).hasSameSizeAs(incremental.getMostActiveUsers());
+	}
+
+	private void record(int userId, String userName, String type, float amount, String adminName, String at) {
+		TransactionEntity tx = new TransactionEntity();
+		tx.setUserId(userId);
+		tx.setUserName(userName);
+		tx.setType(type);
+		tx.setAmount(amount);
+		tx.setBalanceAfter(0f);
+		tx.setAdminName(adminName);
+		tx.setTimestamp(Instant.parse(at));
+		transactionTemplate.executeWithoutResult(status -> {
+			written.add(transactionRepository.save(tx));
+			rollupService.recordLedgerEntry(tx);
+		});
+	}
+}
@@ -0,0 +1,112 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.playbox.exception.SlotUnavailableException;
+import com.example.playbox.model.Slot;
+import com.example.playbox.model.Sport;
+import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.repository.SportRepository;
+import com.example.playbox.repository.SportScheduleRepository;
+
+/**
+ * Races more swimmers than the pool holds at one slot against a real MySQL database.
+ * Run with SPRING_DATASOURCE_URL (and credentials) pointing at a scratch schema.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class SeatReservationTest {
+
+	private static final int SWIMMERS = 40;
+
+	@Autowired
+	private SlotService slotService;
+
+	@Autowired
+	private SlotRepository slotRepository;
+
+	@Autowired
+	private SportRepository sportRepository;
+
+	@Autowired
+	private SportScheduleRepository scheduleRepository;
+
+	@Autowired
+	private IdBlockAllocator idAllocator;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private Slot slot;
+
+	@BeforeEach
+	void createPoolSlot() {
+		Sport pool = new Sport();
+		pool.setName("Swimming Test");
+		pool.setPricePerHour(100f);
+		pool.setActive(true);
+		pool = sportRepository.save(pool);
+
+		Long sportId = pool.getId();
+		LocalDate date = LocalDate.of(2030, 1, 1);
+		transactionTemplate.executeWithoutResult(status ->
+				slotRepository.insertIgnore(idAllocator.next("Slot"), sportId, date, LocalTime.of(10, 0), LocalTime.of(11, 0)));
+		slot = slotRepository.findById(slotRepository.findSlotId(sportId, date, LocalTime.of(10, 0))).orElseThrow();
+		slot.setSport(pool);
+	}
+
+	@AfterEach
+	void deletePoolSlot() {
+		slotRepository.deleteById(slot.getId());
+		scheduleRepository.deleteById(slot.getSport().getId());
+		sportRepository.deleteById(slot.getSport().getId());
+	}
+
+	@Test
+	void seatsStopAtTheTemplateCapacity() throws Exception {
+		int capacity = SportScheduleService.DEFAULT_POOL_CAPACITY;
+		AtomicInteger reserved = new AtomicInteger();
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+
+		try (ExecutorService executor = Executors.newFixedThreadPool(SWIMMERS)) {
+			for (int i = 0; i < SWIMMERS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					try {
+						transactionTemplate.executeWithoutResult(status -> slotService.reserveSeat(slot));
+						reserved.incrementAndGet();
+					} catch (SlotUnavailableException ignored) {
+						// pool full
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+
+		assertThat(reserved).hasValue(capacity);
+		assertThat(slotRepository.findById(slot.getId()).orElseThrow().getTaken()).isEqualTo(capacity);
+	}
+}
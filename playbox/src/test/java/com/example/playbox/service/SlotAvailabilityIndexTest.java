@@ -0,0 +1,104 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.dto.SlotDetailsDTO;
+
+class SlotAvailabilityIndexTest {
+
+	private final SlotAvailabilityIndex index = new SlotAvailabilityIndex(TimeUnit.MINUTES.toNanos(5));
+	private final AtomicInteger loads = new AtomicInteger();
+
+	@Test
+	void loadsOnceAndAppliesBookings() {
+		index.get(1, "2026-03-01", () -> day(1, 60));
+		index.recordBooking(1, "2026-03-01", "18:00", 900);
+
+		SlotAvailabilityIndex.Day day = index.get(1, "2026-03-01", () -> day(1, 60));
+
+		assertThat(loads).hasValue(1);
+		assertThat(day.isBooked(18)).isTrue();
+		assertThat(day.isBooked(19)).isFalse();
+		assertThat(day.slotIds()[18]).isEqualTo(900);
+		assertThat(day.freeSlots()).isEqualTo(22);
+		assertThat(day.toSlots()).extracting(SlotDetailsDTO::getStartTime).first().isEqualTo("00:00");
+	}
+
+	@Test
+	void multiSlotSportsCountBookingsInsteadOfBooking() {
+		index.get(2, "2026-03-01", () -> day(25, 60));
+		index.recordBooking(2, "2026-03-01", "09:00", 900);
+		index.recordBooking(2, "2026-03-01", "09:00", 900);
+
+		SlotAvailabilityIndex.Day day = index.get(2, "2026-03-01", () -> day(25, 60));
+
+		assertThat(day.isBooked(9)).isFalse();
+		assertThat(day.toSlots().get(9).getBookedCount()).isEqualTo(2);
+	}
+
+	@Test
+	void halfHourSlotsUseFortyEightPositions() {
+		SlotAvailabilityIndex.Day day = index.get(3, "2026-03-01", () -> day(1, 30));
+
+		assertThat(day.toSlots()).hasSize(48);
+		assertThat(day.positionOf("10:30")).isEqualTo(21);
+		assertThat(day.positionOf("10:15")).isEqualTo(-1);
+		assertThat(day.toSlots().get(47).getEndTime()).isEqualTo("00:00");
+	}
+
+	@Test
+	void emptyDaysAreNotCached() {
+		index.get(1, "2026-03-02", () -> new SlotAvailabilityIndex.DayBuilder(1, "2026-03-02", 60, 1));
+
+		assertThat(index.size()).isZero();
+	}
+
+	@Test
+	void warmedDayIsSkippedWhenABookingRacedTheLoad() {
+		long versionBefore = index.version();
+		SlotAvailabilityIndex.DayBuilder stale = day(1, 60);
+		index.recordBooking(1, "2026-03-01", "18:00", 900);
+
+		assertThat(index.putIfUnchanged(stale, versionBefore)).isFalse();
+		assertThat(index.putIfUnchanged(day(1, 60), index.version())).isTrue();
+		assertThat(index.get(1, "2026-03-01", () -> day(1, 60)).slotIds()[0]).isEqualTo(-100);
+		assertThat(loads).hasValue(2);
+	}
+
+	@Test
+	void rangesOverlappingABookingAreNotFree() {
+		// Half-hour grid with 07:30-08:00 booked
+		SlotAvailabilityIndex.Day day = index.get(4, "2026-03-01", () -> day(1, 30));
+
+		assertThat(day.isRangeFree(12, 3)).isTrue();
+		assertThat(day.isRangeFree(5, 3)).isFalse();
+		assertThat(day.isRangeFree(46, 3)).isFalse();
+	}
+
+	@Test
+	void freeRunStartsSkipRunsCutByABooking() {
+		SlotAvailabilityIndex.Day day = index.get(5, "2026-03-01", () -> day(1, 60));
+
+		long starts = day.freeRunStarts(2);
+
+		assertThat(starts & (1L << 5)).isNotZero();
+		assertThat(starts & (1L << 6)).isZero();
+		assertThat(starts & (1L << 7)).isZero();
+		assertThat(starts & (1L << 23)).isZero();
+		assertThat(Long.bitCount(starts)).isEqualTo(21);
+	}
+
+	private SlotAvailabilityIndex.DayBuilder day(int capacity, int slotMinutes) {
+		loads.incrementAndGet();
+		SlotAvailabilityIndex.DayBuilder day = new SlotAvailabilityIndex.DayBuilder(1, "2026-03-01", slotMinutes, capacity);
+		for (int position = 0; position < 24 * 60 / slotMinutes; position++) {
+			day.slot(position, -(100 + position), position == 7);
+		}
+		return day;
+	}
+}
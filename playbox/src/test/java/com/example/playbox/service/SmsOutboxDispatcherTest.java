@@ -0,0 +1,84 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.example.playbox.model.SmsOutbox;
+import com.example.playbox.repository.SmsOutboxRepository;
+
+class SmsOutboxDispatcherTest {
+
+	private final SmsOutboxRepository repository = mock(SmsOutboxRepository.class);
+
+	@Test
+	void drainClaimsAndSendsDueMessages() {
+		StubSmsSender sender = new StubSmsSender(0);
+		SmsOutboxDispatcher dispatcher = dispatcher(sender, 3);
+		SmsOutbox row = row(1L, 0);
+		when(repository.findDue(any(), any())).thenReturn(List.of(row), List.of());
+		when(repository.claim(eq(1L), eq(0), any())).thenReturn(1);
+
+		dispatcher.drain();
+
+		verify(repository, timeout(2000)).markSent(eq(1L), any());
+		assertThat(sender.sent()).containsExactly("9876543210: hello");
+	}
+
+	@Test
+	void failedSendIsRetriedWithBackoff() {
+		SmsOutboxDispatcher dispatcher = dispatcher(new StubSmsSender(1), 3);
+		Instant before = Instant.now();
+
+		dispatcher.deliver(row(1L, 0));
+
+		ArgumentCaptor<Instant> retryAt = ArgumentCaptor.forClass(Instant.class);
+		verify(repository).markFailed(eq(1L), eq(SmsOutbox.PENDING), retryAt.capture(), eq("provider unavailable"));
+		assertThat(retryAt.getValue()).isAfterOrEqualTo(before.plusMillis(1000));
+	}
+
+	@Test
+	void lastAttemptIsDeadLettered() {
+		SmsOutboxDispatcher dispatcher = dispatcher(new StubSmsSender(1), 3);
+
+		dispatcher.deliver(row(1L, 2));
+
+		verify(repository).markFailed(eq(1L), eq(SmsOutbox.DEAD), isNull(), eq("provider unavailable"));
+	}
+
+	@Test
+	void backoffGrowsAndIsCapped() {
+		SmsOutboxDispatcher dispatcher = dispatcher(new StubSmsSender(0), 3);
+
+		assertThat(dispatcher.backoffMillis(1)).isBetween(1000L, 1200L);
+		assertThat(dispatcher.backoffMillis(3)).isBetween(4000L, 4800L);
+		assertThat(dispatcher.backoffMillis(30)).isBetween(60_000L, 72_000L);
+	}
+
+	private SmsOutboxDispatcher dispatcher(SmsSender sender, int maxAttempts) {
+		when(repository.claim(any(), anyInt(), any())).thenReturn(0);
+		return new SmsOutboxDispatcher(repository, sender, 10, 2, maxAttempts, 1000, 60_000, 60_000);
+	}
+
+	private SmsOutbox row(Long id, int attempts) {
+		SmsOutbox row = new SmsOutbox();
+		row.setId(id);
+		row.setPhone("9876543210");
+		row.setMessage("hello");
+		row.setStatus(SmsOutbox.PENDING);
+		row.setAttempts(attempts);
+		return row;
+	}
+}
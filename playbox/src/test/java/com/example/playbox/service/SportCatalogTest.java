@@ -0,0 +1,82 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.model.Sport;
+import com.example.playbox.repository.SportRepository;
+
+class SportCatalogTest {
+
+	private final SportRepository sportRepository = mock(SportRepository.class);
+	private final SportScheduleService scheduleService = mock(SportScheduleService.class);
+	private final SportCatalog catalog = new SportCatalog(sportRepository, scheduleService);
+
+	@Test
+	void entriesCarryTheTemplateAndAreReadFromOneSnapshot() {
+		when(sportRepository.findAll()).thenReturn(List.of(sport(2L, "Swimming"), sport(1L, "Cricket")));
+		when(scheduleService.get(1L)).thenReturn(new SportScheduleService.Template(1L, 0, 24 * 60, 60, 1));
+		when(scheduleService.get(2L)).thenReturn(new SportScheduleService.Template(2L, 8 * 60, 22 * 60, 60, 25));
+
+		assertThat(catalog.all()).extracting(SportCatalog.Entry::id).containsExactly(1L, 2L);
+		SportCatalog.Entry cricket = catalog.get(1L);
+		assertThat(cricket.multiSlot()).isFalse();
+		assertThat(cricket.closeTime()).isEqualTo("24:00");
+		SportCatalog.Entry swimming = catalog.get(2L);
+		assertThat(swimming.multiSlot()).isTrue();
+		assertThat(swimming.capacity()).isEqualTo(25);
+		assertThat(swimming.openTime()).isEqualTo("08:00");
+
+		verify(sportRepository, times(1)).findAll();
+	}
+
+	@Test
+	void etagOnlyChangesWithTheCatalog() {
+		Sport cricket = sport(1L, "Cricket");
+		when(sportRepository.findAll()).thenReturn(List.of(cricket));
+		when(scheduleService.get(1L)).thenReturn(new SportScheduleService.Template(1L, 0, 24 * 60, 60, 1));
+
+		String etag = catalog.refresh().etag();
+		assertThat(catalog.refresh().etag()).isEqualTo(etag);
+
+		cricket.setPricePerHour(1200f);
+		assertThat(catalog.refresh().etag()).isNotEqualTo(etag);
+	}
+
+	@Test
+	void catalogsWithEqualHashCodesGetDifferentEtags() {
+		when(scheduleService.get(1L)).thenReturn(new SportScheduleService.Template(1L, 0, 24 * 60, 60, 1));
+		// "Aa" and "BB" have the same String.hashCode
+		when(sportRepository.findAll()).thenReturn(List.of(sport(1L, "Aa")));
+		SportCatalog.Snapshot before = catalog.refresh();
+		when(sportRepository.findAll()).thenReturn(List.of(sport(1L, "BB")));
+		SportCatalog.Snapshot after = catalog.refresh();
+
+		assertThat(after.sports().hashCode()).isEqualTo(before.sports().hashCode());
+		assertThat(after.etag()).isNotEqualTo(before.etag());
+	}
+
+	@Test
+	void unknownSportIsNotFound() {
+		when(sportRepository.findAll()).thenReturn(List.of());
+
+		assertThatThrownBy(() -> catalog.get(9L)).hasMessage("Sport not found");
+	}
+
+	private Sport sport(Long id, String name) {
+		Sport sport = new Sport();
+		sport.setId(id);
+		sport.setName(name);
+		sport.setPricePerHour(1000f);
+		sport.setActive(true);
+		return sport;
+	}
+}
@@ -0,0 +1,99 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.model.Slot;
+import com.example.playbox.model.SportSchedule;
+import com.example.playbox.repository.SlotRepository;
+import com.example.playbox.repository.SportRepository;
+import com.example.playbox.repository.SportScheduleRepository;
+
+class SportScheduleServiceTest {
+
+	private final SportScheduleRepository scheduleRepository = mock(SportScheduleRepository.class);
+	private final SportRepository sportRepository = mock(SportRepository.class);
+	private final SlotRepository slotRepository = mock(SlotRepository.class);
+	private final SportScheduleService scheduleService =
+			new SportScheduleService(scheduleRepository, sportRepository, slotRepository);
+
+	@BeforeEach
+	void courtOpenAllDayInHours() {
+		when(sportRepository.existsById(1L)).thenReturn(true);
+		when(scheduleRepository.findById(1L)).thenReturn(Optional.of(schedule("00:00", "24:00", 60, 1)));
+		when(scheduleRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void shorterSlotsCannotSplitABookedHour() {
+		// 18:30 of the booked 18:00-19:00 would become bookable
+		when(slotRepository.findBookedFrom(eq(1L), any())).thenReturn(List.of(bookedSlot(18, 19)));
+
+		assertThatThrownBy(() -> scheduleService.update(1L, schedule("00:00", "24:00", 30, 1)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("18:00");
+		verify(scheduleRepository, never()).save(any());
+		assertThat(scheduleService.get(1L).slotMinutes()).isEqualTo(60);
+	}
+
+	@Test
+	void longerSlotsCannotDropABookedHourOffTheGrid() {
+		// On a 90-minute grid no slot starts at 01:00
+		when(slotRepository.findBookedFrom(eq(1L), any())).thenReturn(List.of(bookedSlot(1, 2)));
+
+		assertThatThrownBy(() -> scheduleService.update(1L, schedule("00:00", "24:00", 90, 1)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("01:00");
+	}
+
+	@Test
+	void aCourtCannotBecomeSharedWhileBooked() {
+		when(slotRepository.findBookedFrom(eq(1L), any())).thenReturn(List.of(bookedSlot(18, 19)));
+
+		assertThatThrownBy(() -> scheduleService.update(1L, schedule("00:00", "24:00", 60, 25)))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void changesThatKeepBookedSlotsWholeAreSaved() {
+		when(slotRepository.findBookedFrom(eq(1L), any())).thenReturn(List.of(bookedSlot(18, 19)));
+
+		scheduleService.update(1L, schedule("06:00", "23:00", 60, 1));
+
+		assertThat(scheduleService.get(1L).openMinute()).isEqualTo(6 * 60);
+	}
+
+	private static Slot bookedSlot(int startHour, int endHour) {
+		Slot slot = new Slot();
+		slot.setId(11L);
+		slot.setSlotDate(LocalDate.of(2030, 1, 1));
+		slot.setStartTime(LocalTime.of(startHour, 0));
+		slot.setEndTime(LocalTime.of(endHour, 0));
+		slot.setBooked(true);
+		return slot;
+	}
+
+	private static SportSchedule schedule(String openTime, String closeTime, int slotMinutes, int capacity) {
+		SportSchedule schedule = new SportSchedule();
+		schedule.setSportId(1L);
+		schedule.setOpenTime(openTime);
+		schedule.setCloseTime(closeTime);
+		schedule.setSlotMinutes(slotMinutes);
+		schedule.setCapacity(capacity);
+		return schedule;
+	}
+}
@@ -0,0 +1,28 @@
+package com.example.playbox.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Local stand-in for the SMS provider: records messages and can fail the first N sends. */
+class StubSmsSender implements SmsSender {
+
+	private final List<String> sent = new CopyOnWriteArrayList<>();
+	private final AtomicInteger failuresLeft;
+
+	StubSmsSender(int failures) {
+		this.failuresLeft = new AtomicInteger(failures);
+	}
+
+	@Override
+	public void send(String phone, String message) {
+		if (failuresLeft.getAndDecrement() > 0) {
+			throw new RuntimeException("provider unavailable");
+		}
+		sent.add(phone + ": " + message);
+	}
+
+	List<String> sent() {
+		return sent;
+	}
+}
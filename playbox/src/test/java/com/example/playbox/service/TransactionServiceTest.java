@@ -0,0 +1,35 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+class TransactionServiceTest {
+
+	@Test
+	void datesCoverWholeIstDaysWithTheEndDayIncluded() {
+		assertThat(TransactionService.parseBound("2026-03-01", false))
+				.isEqualTo(Instant.parse("2026-02-28T18:30:00Z"));
+		assertThat(TransactionService.parseBound("2026-03-01", true))
+				.isEqualTo(Instant.parse("2026-03-01T18:30:00Z"));
+	}
+
+	@Test
+	void instantEndBoundStaysInclusive() {
+		Instant end = TransactionService.parseBound("2026-03-01T10:00:00Z", true);
+
+		assertThat(end).isAfter(Instant.parse("2026-03-01T10:00:00Z"));
+		assertThat(end).isBefore(Instant.parse("2026-03-01T10:00:00.001Z"));
+	}
+
+	@Test
+	void blankBoundsDoNotFilterAndGarbageIsRejected() {
+		assertThat(TransactionService.parseBound(null, false)).isNull();
+		assertThat(TransactionService.parseBound(" ", true)).isNull();
+		assertThatThrownBy(() -> TransactionService.parseBound("yesterday", false))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,120 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+class UserSearchIndexTest {
+
+	@Test
+	void findsSubstringMatchesAcrossFields() {
+		UserSearchIndex index = new UserSearchIndex();
+		index.put(1, "Rahul Sharma", "9876543210", "rahul@example.com");
+		index.put(2, "Priya Verma", "9123456780", "priya@example.com");
+		index.put(3, "Arjun Rao", "9000012345", null);
+
+		assertThat(index.search("sharm", 10)).containsExactly(1);
+		assertThat(index.search("123", 10)).containsExactlyInAnyOrder(2, 3);
+		assertThat(index.search("PRIYA@", 10)).containsExactly(2);
+		assertThat(index.search("xyz", 10)).isEmpty();
+	}
+
+	@Test
+	void ranksExactAndPrefixMatchesFirst() {
+		UserSearchIndex index = new UserSearchIndex();
+		index.put(10, "Karan Mehta", "9000000010", null);
+		index.put(11, "Mehta Karan", "9000000011", null);
+		index.put(12, "Aryan", "9000000012", null);
+
+		assertThat(index.search("mehta", 10)).containsExactly(11, 10);
+		assertThat(index.search("12", 10).get(0)).isEqualTo(12);
+		assertThat(index.search("ar", 10)).containsExactly(12);
+	}
+
+	@Test
+	void reindexingReplacesOldValues() {
+		UserSearchIndex index = new UserSearchIndex();
+		index.put(7, "Old Name", "9999999999", null);
+		index.put(7, "New Name", "9999999999", null);
+
+		assertThat(index.search("old", 10)).isEmpty();
+		assertThat(index.search("new", 10)).containsExactly(7);
+
+		index.remove(7);
+		assertThat(index.search("name", 10)).isEmpty();
+		assertThat(index.memoryStats().trigrams()).isZero();
+	}
+
+	/**
+	 * Compares the index with a full scan using the old LIKE '%q%' predicate.
+	 * Run with -Dbenchmark=true.
+	 */
+	@Test
+	@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+	void benchmarkAgainstLikeScan() {
+		int users = 20_000;
+		Random random = new Random(42);
+		UserSearchIndex index = new UserSearchIndex();
+		List<String[]> rows = new ArrayList<>();
+		for (int id = 1; id <= users; id++) {
+			String name = randomWord(random) + " " + randomWord(random);
+			String phone = String.valueOf(9_000_000_000L + random.nextInt(1_000_000_000));
+			String email = name.replace(' ', '.') + "@example.com";
+			index.put(id, name, phone, email);
+			rows.add(new String[] {String.valueOf(id), name, phone, email});
+		}
+
+		String[] queries = {rows.get(17)[1], rows.get(4242)[1].substring(0, 5), "98765", "1234", "ra", "kavi"};
+		int rounds = 200;
+
+		long indexNanos = 0;
+		long scanNanos = 0;
+		for (int round = 0; round < rounds; round++) {
+			for (String q : queries) {
+				long start = System.nanoTime();
+				index.search(q, 50);
+				indexNanos += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				likeScan(rows, q);
+				scanNanos += System.nanoTime() - start;
+			}
+		}
+
+		int searches = rounds * queries.length;
+		UserSearchIndex.MemoryStats stats = index.memoryStats();
+		System.out.printf(
+				"users=%d index=%.1fus/query likeScan=%.1fus/query trigrams=%d postings=%d estimatedBytes=%d%n",
+				users, indexNanos / 1000.0 / searches, scanNanos / 1000.0 / searches,
+				stats.trigrams(), stats.postings(), stats.estimatedBytes());
+	}
+
+	private static String randomWord(Random random) {
+		String[] syllables = {"ra", "hu", "pri", "ya", "ar", "jun", "sne", "ha", "vik", "ram", "an", "nya",
+				"ro", "kav", "adi", "tya", "is", "sha", "ma", "ver", "pa", "tel", "iy", "er", "sin", "gh", "gu", "pta"};
+		StringBuilder word = new StringBuilder();
+		int parts = 2 + random.nextInt(2);
+		for (int i = 0; i < parts; i++) {
+			word.append(syllables[random.nextInt(syllables.length)]);
+		}
+		return word.toString();
+	}
+
+	private static List<String> likeScan(List<String[]> rows, String query) {
+		String q = query.toLowerCase(Locale.ROOT);
+		List<String> ids = new ArrayList<>();
+		for (String[] row : rows) {
+			if (row[1].toLowerCase(Locale.ROOT).contains(q) || row[0].contains(q)
+					|| row[2].contains(q) || row[3].toLowerCase(Locale.ROOT).contains(q)) {
+				ids.add(row[0]);
+			}
+		}
+		return ids;
+	}
+}
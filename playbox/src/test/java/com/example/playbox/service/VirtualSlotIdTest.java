@@ -0,0 +1,29 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+class VirtualSlotIdTest {
+
+	@Test
+	void roundTripsSportDateAndStart() {
+		long id = VirtualSlotId.encode(42, LocalDate.of(2026, 12, 31), 21 * 60 + 30);
+
+		VirtualSlotId.Parts parts = VirtualSlotId.decode(id);
+
+		assertThat(VirtualSlotId.isVirtual(id)).isTrue();
+		assertThat(parts.sportId()).isEqualTo(42);
+		assertThat(parts.date()).isEqualTo(LocalDate.of(2026, 12, 31));
+		assertThat(parts.startMinute()).isEqualTo(1290);
+	}
+
+	@Test
+	void staysWithinJavaScriptSafeIntegers() {
+		long id = VirtualSlotId.encode(8999, LocalDate.of(2099, 12, 31), 1439);
+
+		assertThat(-id).isLessThan(1L << 53);
+	}
+}
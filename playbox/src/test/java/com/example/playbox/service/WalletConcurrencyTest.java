@@ -0,0 +1,113 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.playbox.model.PlayBoxUser;
+import com.example.playbox.repository.PlayBoxUserRepository;
+import com.example.playbox.repository.TransactionRepository;
+import com.example.playbox.repository.UserWalletStatsRepository;
+
+/**
+ * Hammers one wallet from many threads against a real MySQL database.
+ * Run with SPRING_DATASOURCE_URL (and credentials) pointing at a scratch schema.
+ */
+@SpringBootTest
+@EnabledIfEnvironmentVariable(named = "SPRING_DATASOURCE_URL", matches = ".+")
+class WalletConcurrencyTest {
+
+	private static final int THREADS = 16;
+	private static final int OPERATIONS_PER_THREAD = 50;
+
+	@Autowired
+	private UserServiceImpl userService;
+
+	@Autowired
+	private PlayBoxUserRepository userRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private UserWalletStatsRepository walletStatsRepository;
+
+	private PlayBoxUser user;
+
+	@BeforeEach
+	void createUser() {
+		PlayBoxUser newUser = new PlayBoxUser();
+		newUser.setName("Wallet Test");
+		newUser.setPhone("9" + (System.nanoTime() % 1_000_000_000L));
+		newUser.setCardUid("WALLET-" + UUID.randomUUID());
+		user = userService.createUser(newUser);
+	}
+
+	@AfterEach
+	void deleteUser() {
+		transactionRepository.deleteAll(transactionRepository.findByUserId(user.getId()));
+		walletStatsRepository.deleteById(user.getId());
+		userRepository.deleteById(user.getId());
+	}
+
+	@Test
+	void concurrentCreditsAreNotLost() throws Exception {
+		runConcurrently(() -> userService.addBalance(user.getCardUid(), 1f, "test"));
+
+		assertThat(userRepository.findBalanceById(user.getId()))
+				.isEqualTo((float) (THREADS * OPERATIONS_PER_THREAD));
+	}
+
+	@Test
+	void concurrentDebitsNeverOverdraw() throws Exception {
+		int affordable = THREADS * OPERATIONS_PER_THREAD / 2;
+		userService.addBalance(user.getCardUid(), affordable, "test");
+		AtomicInteger succeeded = new AtomicInteger();
+
+		runConcurrently(() -> {
+			try {
+				userService.deductBalance(user.getCardUid(), 1f, "test", "Cafe", null, null);
+				succeeded.incrementAndGet();
+			} catch (RuntimeException e) {
+				assertThat(e).hasMessage("Insufficient Balance");
+			}
+		});
+
+		assertThat(succeeded).hasValue(affordable);
+		assertThat(userRepository.findBalanceById(user.getId())).isZero();
+	}
+
+	private void runConcurrently(Runnable operation) throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < OPERATIONS_PER_THREAD; j++) {
+						operation.run();
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+package com.example.playbox.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.playbox.dto.WeeklyGridDTO;
+
+class WeeklyGridTest {
+
+	@Test
+	void singleCourtCellsCarryTheBookingOfEachPosition() {
+		SlotAvailabilityIndex.DayBuilder builder = new SlotAvailabilityIndex.DayBuilder(1, "2026-03-02", 60, 1);
+		for (int position = 8; position < 22; position++) {
+			builder.slot(position, -position, position == 18 || position == 19);
+		}
+		Long[] bookingIds = new Long[24];
+		bookingIds[18] = 501L;
+		bookingIds[19] = 501L;
+
+		WeeklyGridDTO.DayCells cells = BookingService.toDayCells(builder.build(), bookingIds);
+
+		assertThat(cells.getOpenMask()).isEqualTo(SlotAvailabilityIndex.rangeMask(8, 14));
+		assertThat(cells.getBookedMask()).isEqualTo(SlotAvailabilityIndex.rangeMask(18, 2));
+		assertThat(cells.getBookingIds()).hasSize(24);
+		assertThat(cells.getBookingIds().get(18)).isEqualTo(501L);
+		assertThat(cells.getBookedCounts()).isNull();
+	}
+
+	@Test
+	void daysWithoutBookingsOmitTheCellList() {
+		SlotAvailabilityIndex.DayBuilder builder = new SlotAvailabilityIndex.DayBuilder(1, "2026-03-02", 60, 1);
+		builder.slot(8, -8, false);
+
+		WeeklyGridDTO.DayCells cells = BookingService.toDayCells(builder.build(), new Long[24]);
+
+		assertThat(cells.getBookedMask()).isZero();
+		assertThat(cells.getBookingIds()).isNull();
+	}
+
+	@Test
+	void sharedCourtsReportSeatCounts() {
+		SlotAvailabilityIndex.DayBuilder builder = new SlotAvailabilityIndex.DayBuilder(2, "2026-03-02", 60, 25);
+		builder.slot(8, -8, false).slot(9, -9, false).addBookings(9, 3);
+
+		WeeklyGridDTO.DayCells cells = BookingService.toDayCells(builder.build(), null);
+
+		assertThat(cells.getBookedMask()).isEqualTo(1L << 9);
+		assertThat(cells.getBookedCounts().get(9)).isEqualTo(3);
+		assertThat(cells.getBookingIds()).isNull();
+	}
+}